@@ -0,0 +1,57 @@
+package chess.benchmarks;
+
+import chess.domain.GameSituation;
+import chess.logic.chessboardinitializers.FenChessBoardInitializer;
+import chess.logic.movementlogic.Perft;
+
+/**
+ * This class contains positions used in benchmarks. Positions are referred to
+ * by name so that they can be given as JMH parameters.
+ *
+ * @author sami
+ */
+public class BenchmarkPositions {
+
+    /**
+     * Quiet middlegame position after a Ruy Lopez opening.
+     */
+    public static final String MIDDLEGAME = "r1bq1rk1/2p1bppp/p1np1n2/1p2p3/4P3/1BP2N1P/PP1P1PP1/RNBQR1K1 b - - 0 9";
+
+    /**
+     * Endgame with kings, rooks and pawns.
+     */
+    public static final String ENDGAME = "8/5pk1/6p1/2R5/5P2/1r4P1/5K2/8 w - - 0 40";
+
+    /**
+     * Returns FEN of position with given name.
+     *
+     * @param name one of start, middlegame, kiwipete, position3 or endgame.
+     * @return position in Forsyth-Edwards notation.
+     */
+    public static String fenOf(String name) {
+        switch (name) {
+            case "start":
+                return FenChessBoardInitializer.STANDARD_START;
+            case "middlegame":
+                return MIDDLEGAME;
+            case "kiwipete":
+                return Perft.KIWIPETE;
+            case "position3":
+                return Perft.POSITION_3;
+            case "endgame":
+                return ENDGAME;
+            default:
+                throw new IllegalArgumentException("Unknown position: " + name);
+        }
+    }
+
+    /**
+     * Creates a new game situation for position with given name.
+     *
+     * @param name name of the position.
+     * @return game situation in that position.
+     */
+    public static GameSituation situationOf(String name) {
+        return Perft.situationFromFen(fenOf(name));
+    }
+}
@@ -0,0 +1,35 @@
+package chess.benchmarks;
+
+import chess.domain.board.ChessBoard;
+import chess.domain.board.ChessBoardCopier;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for copying and hashing chessboards.
+ *
+ * @author sami
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    @Benchmark
+    public ChessBoard copy(PositionState state) {
+        return ChessBoardCopier.copy(state.sit.getChessBoard());
+    }
+
+    @Benchmark
+    public long zobristHash(PositionState state) {
+        return state.sit.getHasher().hash(state.sit.getChessBoard());
+    }
+}
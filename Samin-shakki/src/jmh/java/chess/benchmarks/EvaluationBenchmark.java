@@ -0,0 +1,34 @@
+package chess.benchmarks;
+
+import chess.logic.ailogic.GameSituationEvaluator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for evaluating game situations.
+ *
+ * @author sami
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluationBenchmark {
+
+    @Benchmark
+    public int evaluateGameSituation(PositionState state) {
+        return GameSituationEvaluator.evaluateGameSituation(state.sit, state.player);
+    }
+
+    @Benchmark
+    public int evaluateWithoutWinConditions(PositionState state) {
+        return GameSituationEvaluator.evaluateWithoutWinConditions(state.sit, state.player);
+    }
+}
@@ -0,0 +1,58 @@
+package chess.benchmarks;
+
+import chess.domain.Move;
+import chess.domain.datastructures.MoveStack;
+import chess.logic.movementlogic.Perft;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for generating moves with MovementLogic.
+ *
+ * @author sami
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+
+    private final MoveStack stack = new MoveStack(4);
+
+    @Benchmark
+    public Set<Move> possibleMovementsByPlayer(PositionState state) {
+        return state.sit.getChessBoard().getMovementLogic()
+                .possibleMovementsByPlayer(state.player, state.sit.getChessBoard());
+    }
+
+    @Benchmark
+    public int pseudoLegalPackedMoves(PositionState state) {
+        state.sit.getChessBoard().getMovementLogic()
+                .possibleMovementsByPlayer(state.player, state.sit.getChessBoard(), stack, 0);
+        return stack.size(0);
+    }
+
+    @Benchmark
+    public int legalPackedMoves(PositionState state) {
+        state.sit.getChessBoard().getMovementLogic()
+                .legalMovementsByPlayer(state.player, state.sit.getChessBoard(), stack, 0);
+        return stack.size(0);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long perft3(PositionState state) {
+        return new Perft(state.sit).perft(3);
+    }
+}
@@ -0,0 +1,30 @@
+package chess.benchmarks;
+
+import chess.domain.GameSituation;
+import chess.domain.board.Player;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark state holding a game situation for each benchmarked position.
+ *
+ * @author sami
+ */
+@State(Scope.Thread)
+public class PositionState {
+
+    @Param({"start", "middlegame", "kiwipete", "position3", "endgame"})
+    public String position;
+
+    public GameSituation sit;
+    public Player player;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sit = BenchmarkPositions.situationOf(position);
+        player = sit.whoseTurn();
+    }
+}
@@ -0,0 +1,78 @@
+package chess.benchmarks;
+
+import chess.domain.GameSituation;
+import chess.domain.Move;
+import chess.logic.ailogic.AILogic;
+import chess.logic.ailogic.YoungBrothersWaitNegamax;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks fixed depth search with AILogic. Time limit is set so high that
+ * iterative deepening always reaches given depth and AI is reset before every
+ * search so that transposition table and killer moves from earlier searches
+ * aren't used. With more than one thread search uses Lazy SMP helpers.
+ * Same fixed depth searches are also run with YoungBrothersWaitNegamax to
+ * compare split-point parallelism to Lazy SMP.
+ *
+ * @author sami
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({"start", "middlegame", "kiwipete", "endgame"})
+    public String position;
+
+    @Param({"3", "4"})
+    public int depth;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private GameSituation sit;
+    private AILogic ai;
+    private YoungBrothersWaitNegamax ybwc;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        sit = BenchmarkPositions.situationOf(position);
+        ai = new AILogic();
+        ai.setPlies(depth);
+        ai.setThreads(threads);
+        ai.setTimeLimit(TimeUnit.HOURS.toMillis(1));
+        ybwc = new YoungBrothersWaitNegamax();
+        ybwc.setSearchDepth(depth);
+        ybwc.setThreads(threads);
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        ai.reset();
+    }
+
+    @Benchmark
+    public Move findBestMove() {
+        return ai.findBestMove(sit);
+    }
+
+    @Benchmark
+    public Move youngBrothersWait() {
+        return ybwc.findBestMove(sit);
+    }
+}
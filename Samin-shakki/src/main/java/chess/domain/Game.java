@@ -110,8 +110,12 @@ public class Game {
                         } catch (Exception e) {
                         };
                         long start=System.currentTimeMillis();
+                        int mover = situation.getTurn() % 2;
                         input.makeBestMoveAccordingToAILogic();
                         //System.out.println("Movement took: " + (System.currentTimeMillis()-start));
+                        if (!isAIsTurn()) {
+                            input.getAis()[mover].ponder(situation);
+                        }
                         AIisComputing = false;
                     }
                 }
@@ -123,6 +127,9 @@ public class Game {
     public void stop() {
         continues = false;
         aiThread.interrupt();
+        for (int i = 0; i < 2; i++) {
+            input.getAis()[i].stopPondering();
+        }
     }
 
     public void restart() {
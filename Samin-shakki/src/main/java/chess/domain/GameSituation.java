@@ -1,15 +1,21 @@
 package chess.domain;
 
 import chess.logic.movementlogic.MovementLogic;
+import chess.domain.board.BitBoard;
 import chess.domain.board.ChessBoard;
+import chess.domain.board.ChessBoardCopier;
 import chess.domain.board.Klass;
+import chess.domain.board.Piece;
 import chess.logic.chessboardinitializers.ChessBoardInitializer;
 import chess.domain.board.Player;
 import chess.domain.board.Square;
+import static chess.domain.board.Klass.KING;
 import static chess.domain.board.Klass.PAWN;
+import static chess.domain.board.Player.getOpponent;
 import chess.logic.ailogic.ZobristHasher;
 import chess.logic.gamelogic.CheckingLogic;
 import chess.logic.gamelogic.LegalityChecker;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -76,6 +82,29 @@ public class GameSituation {
      */
     private int movesTillDraw;
 
+    /**
+     * Undo stack of moves made with makeMove. Record i consists of the packed
+     * move, captured piece, hash and movesTillDraw before the move, flags of
+     * moved piece before the move and bitboard of opposing pawns that could be
+     * captured en passant before the move.
+     */
+    private int[] undoMoves;
+    private Piece[] undoCaptured;
+    private long[] undoHashes;
+    private int[] undoMovesTillDraw;
+    private int[] undoFlags;
+    private long[] undoEnPassantable;
+    private int undoSize;
+
+    /**
+     * Squares whose contents change in move being made. Used to update hash.
+     */
+    private int[] changedSquares;
+    private int changedSquareCount;
+
+    private static final int HAD_MOVED = 1;
+    private static final int MOVED_TWO_SQUARES = 2;
+
     /**
      * Creates a new game with given movement logic and chessboard initializer.
      *
@@ -96,6 +125,52 @@ public class GameSituation {
         boardHash = hasher.hash(board);
         incrementCountOfCurrentBoardSituation();
         ais = new boolean[2];
+        initUndoStack(64);
+        changedSquares = new int[16];
+    }
+
+    /**
+     * Creates a copy of given game situation without initializing a board or
+     * hasher of its own. Original isn't changed so several threads can copy
+     * same situation at once.
+     *
+     * @param original game situation to be copied.
+     * @param movementLogic movement logic of the copy.
+     */
+    private GameSituation(GameSituation original, MovementLogic movementLogic) {
+        this.board = ChessBoardCopier.copy(original.board, movementLogic);
+        this.init = original.init;
+        turn = original.turn;
+        legalityChecker = new LegalityChecker(board);
+        checkLogic = new CheckingLogic(this);
+        chessBoardSituationCounter = new HashMap<>(original.chessBoardSituationCounter);
+        continues = original.continues;
+        movesTillDraw = original.movesTillDraw;
+        hasher = original.hasher;
+        boardHash = original.boardHash;
+        ais = original.ais.clone();
+        initUndoStack(64);
+        changedSquares = new int[16];
+    }
+
+    private void initUndoStack(int size) {
+        undoMoves = new int[size];
+        undoCaptured = new Piece[size];
+        undoHashes = new long[size];
+        undoMovesTillDraw = new int[size];
+        undoFlags = new int[size];
+        undoEnPassantable = new long[size];
+        undoSize = 0;
+    }
+
+    private void growUndoStack() {
+        int size = 2 * undoMoves.length;
+        undoMoves = Arrays.copyOf(undoMoves, size);
+        undoCaptured = Arrays.copyOf(undoCaptured, size);
+        undoHashes = Arrays.copyOf(undoHashes, size);
+        undoMovesTillDraw = Arrays.copyOf(undoMovesTillDraw, size);
+        undoFlags = Arrays.copyOf(undoFlags, size);
+        undoEnPassantable = Arrays.copyOf(undoEnPassantable, size);
     }
 
     /**
@@ -199,11 +274,15 @@ public class GameSituation {
      * Decreases the amount of times current board situation has been met by 1.
      */
     public void decrementCountOfCurrentBoardSituation() {
-        if (!chessBoardSituationCounter.containsKey(boardHash)) {
+        Integer count = chessBoardSituationCounter.get(boardHash);
+        if (count == null) {
             return;
         }
-        chessBoardSituationCounter.put(boardHash,
-                chessBoardSituationCounter.get(boardHash) - 1);
+        if (count <= 1) {
+            chessBoardSituationCounter.remove(boardHash);
+        } else {
+            chessBoardSituationCounter.put(boardHash, count - 1);
+        }
     }
 
     /**
@@ -281,6 +360,247 @@ public class GameSituation {
         boardHash = hasher.getHashBeforePromotion(boardHash, board, location);
     }
 
+    /**
+     * Makes given packed move on chessboard and saves what is needed to undo
+     * it on undo stack. Captured piece is set taken, rook is moved when
+     * castling and pawn is promoted to class saved in move. Pawns of opponent
+     * that could be captured en passant no longer can be as a turn has
+     * passed. Hash is updated incrementally by XORing out old contents of
+     * changed squares and XORing in new ones. Unlike moving pieces with
+     * MovementLogic, no new objects are created.
+     *
+     * @param move packed move to be made.
+     */
+    public void makeMove(int move) {
+        if (undoSize == undoMoves.length) {
+            growUndoStack();
+        }
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        Piece piece = board.getPiece(BitBoard.column(from), BitBoard.row(from));
+        int capturedSquare = PackedMove.isEnPassant(move)
+                ? BitBoard.squareIndex(BitBoard.column(to), BitBoard.row(from)) : to;
+        Piece captured = PackedMove.isCapture(move)
+                ? board.getPiece(BitBoard.column(capturedSquare), BitBoard.row(capturedSquare)) : null;
+
+        undoMoves[undoSize] = move;
+        undoCaptured[undoSize] = captured;
+        undoHashes[undoSize] = boardHash;
+        undoMovesTillDraw[undoSize] = movesTillDraw;
+        undoFlags[undoSize] = (piece.isHasBeenMoved() ? HAD_MOVED : 0)
+                | (piece.isMovedTwoSquaresLastTurn() ? MOVED_TWO_SQUARES : 0);
+        undoEnPassantable[undoSize] = clearEnPassantable(getOpponent(piece.getOwner()));
+        undoSize++;
+
+        collectChangedSquares(move, capturedSquare);
+        xorChangedSquares();
+
+        if (captured != null) {
+            captured.setTaken(true);
+            board.setPiece(BitBoard.column(capturedSquare), BitBoard.row(capturedSquare), null);
+        }
+        if (PackedMove.isCastling(move)) {
+            Piece rook = board.getPiece(BitBoard.column(rookFrom(move)), BitBoard.row(from));
+            movePiece(rook, rookFrom(move), rookTo(move));
+            rook.setHasBeenMoved(true);
+        }
+        movePiece(piece, from, to);
+        piece.setHasBeenMoved(true);
+        piece.setMovedTwoSquaresLastTurn(PackedMove.isDoublePush(move));
+        if (PackedMove.isPromotion(move)) {
+            piece.setKlass(PackedMove.promotion(move));
+            board.setPiece(BitBoard.column(to), BitBoard.row(to), piece);
+        }
+
+        if (captured != null || PackedMove.moved(move) == PAWN) {
+            movesTillDraw = 100;
+        } else {
+            movesTillDraw--;
+        }
+        xorChangedSquares();
+        incrementCountOfCurrentBoardSituation();
+    }
+
+    /**
+     * Passes turn of given player without moving a piece. Used by null move
+     * pruning of search. Pawns of opponent can no longer be captured en
+     * passant as a turn has passed. Hash doesn't change as it doesn't include
+     * player whose turn it is, and count of situation isn't incremented so
+     * that passing doesn't count as repetition.
+     *
+     * @param player player passing the turn.
+     */
+    public void makeNullMove(Player player) {
+        if (undoSize == undoMoves.length) {
+            growUndoStack();
+        }
+        undoMoves[undoSize] = PackedMove.NONE;
+        undoCaptured[undoSize] = null;
+        undoHashes[undoSize] = boardHash;
+        undoMovesTillDraw[undoSize] = movesTillDraw;
+        undoFlags[undoSize] = 0;
+        undoEnPassantable[undoSize] = clearEnPassantable(getOpponent(player));
+        undoSize++;
+    }
+
+    /**
+     * Undoes null move made with makeNullMove.
+     */
+    public void unmakeNullMove() {
+        undoSize--;
+        restoreEnPassantable(undoEnPassantable[undoSize]);
+        boardHash = undoHashes[undoSize];
+        movesTillDraw = undoMovesTillDraw[undoSize];
+    }
+
+    /**
+     * Checks if last move made was a null move.
+     *
+     * @return true if last move made passed the turn.
+     */
+    public boolean lastMoveWasNull() {
+        return undoSize > 0 && undoMoves[undoSize - 1] == PackedMove.NONE;
+    }
+
+    /**
+     * Returns last move made with makeMove that hasn't been undone.
+     *
+     * @return packed move or PackedMove.NONE if there is no such move.
+     */
+    public int lastMove() {
+        if (undoSize == 0) {
+            return PackedMove.NONE;
+        }
+        return undoMoves[undoSize - 1];
+    }
+
+    /**
+     * Undoes last move made with makeMove restoring chessboard, hash and
+     * movesTillDraw to what they were before it.
+     */
+    public void unmakeMove() {
+        decrementCountOfCurrentBoardSituation();
+        undoSize--;
+        int move = undoMoves[undoSize];
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        Piece piece = board.getPiece(BitBoard.column(to), BitBoard.row(to));
+
+        if (PackedMove.isPromotion(move)) {
+            piece.setKlass(PAWN);
+        }
+        movePiece(piece, to, from);
+        if (PackedMove.isCastling(move)) {
+            Piece rook = board.getPiece(BitBoard.column(rookTo(move)), BitBoard.row(from));
+            movePiece(rook, rookTo(move), rookFrom(move));
+            rook.setHasBeenMoved(false);
+        }
+        piece.setHasBeenMoved((undoFlags[undoSize] & HAD_MOVED) != 0);
+        piece.setMovedTwoSquaresLastTurn((undoFlags[undoSize] & MOVED_TWO_SQUARES) != 0);
+
+        Piece captured = undoCaptured[undoSize];
+        if (captured != null) {
+            captured.setTaken(false);
+            board.setPiece(captured.getColumn(), captured.getRow(), captured);
+            undoCaptured[undoSize] = null;
+        }
+        restoreEnPassantable(undoEnPassantable[undoSize]);
+
+        boardHash = undoHashes[undoSize];
+        movesTillDraw = undoMovesTillDraw[undoSize];
+    }
+
+    private void movePiece(Piece piece, int from, int to) {
+        board.setPiece(BitBoard.column(from), BitBoard.row(from), null);
+        piece.setColumn(BitBoard.column(to));
+        piece.setRow(BitBoard.row(to));
+        board.setPiece(BitBoard.column(to), BitBoard.row(to), piece);
+    }
+
+    private static int rookFrom(int move) {
+        int row = BitBoard.row(PackedMove.from(move));
+        if (PackedMove.to(move) < PackedMove.from(move)) {
+            return BitBoard.squareIndex(0, row);
+        }
+        return BitBoard.squareIndex(7, row);
+    }
+
+    private static int rookTo(int move) {
+        if (PackedMove.to(move) < PackedMove.from(move)) {
+            return PackedMove.to(move) + 1;
+        }
+        return PackedMove.to(move) - 1;
+    }
+
+    /**
+     * Saves squares whose hash may change when given move is made. Besides
+     * squares pieces move from and to, hash of both kings may change as
+     * castling rights can be lost.
+     */
+    private void collectChangedSquares(int move, int capturedSquare) {
+        changedSquareCount = 0;
+        addChangedSquare(PackedMove.from(move));
+        addChangedSquare(PackedMove.to(move));
+        addChangedSquare(capturedSquare);
+        if (PackedMove.isCastling(move)) {
+            addChangedSquare(rookFrom(move));
+            addChangedSquare(rookTo(move));
+        }
+        for (Player player : Player.values()) {
+            long kings = board.getBitBoard().getPieces(player, KING);
+            while (kings != 0) {
+                addChangedSquare(Long.numberOfTrailingZeros(kings));
+                kings &= kings - 1;
+            }
+        }
+    }
+
+    private void addChangedSquare(int square) {
+        for (int i = 0; i < changedSquareCount; i++) {
+            if (changedSquares[i] == square) {
+                return;
+            }
+        }
+        if (changedSquareCount == changedSquares.length) {
+            changedSquares = Arrays.copyOf(changedSquares, 2 * changedSquareCount);
+        }
+        changedSquares[changedSquareCount++] = square;
+    }
+
+    private void xorChangedSquares() {
+        for (int i = 0; i < changedSquareCount; i++) {
+            boardHash ^= hasher.squareHash(board, changedSquares[i]);
+        }
+    }
+
+    /**
+     * Makes player's pawns no longer possible to capture en passant.
+     *
+     * @return bitboard of squares of pawns that could be captured en passant.
+     */
+    private long clearEnPassantable(Player player) {
+        long enPassantable = 0;
+        long pawns = board.getBitBoard().getPieces(player, PAWN);
+        while (pawns != 0) {
+            int square = Long.numberOfTrailingZeros(pawns);
+            Piece pawn = board.getPiece(BitBoard.column(square), BitBoard.row(square));
+            if (pawn.isMovedTwoSquaresLastTurn()) {
+                pawn.setMovedTwoSquaresLastTurn(false);
+                enPassantable |= 1L << square;
+            }
+            pawns &= pawns - 1;
+        }
+        return enPassantable;
+    }
+
+    private void restoreEnPassantable(long enPassantable) {
+        while (enPassantable != 0) {
+            int square = Long.numberOfTrailingZeros(enPassantable);
+            board.getPiece(BitBoard.column(square), BitBoard.row(square)).setMovedTwoSquaresLastTurn(true);
+            enPassantable &= enPassantable - 1;
+        }
+    }
+
     /**
      * Sets the given chessBoard in the field board and updates LegalityChecker
      * to check that board instead of old board.
@@ -325,6 +645,7 @@ public class GameSituation {
         continues = true;
         init.initialize(board);
         chessBoardSituationCounter.clear();
+        undoSize = 0;
         reHashBoard(true);
         turn = 1;
     }
@@ -392,6 +713,18 @@ public class GameSituation {
         return isDrawForPlayer(player) || hasLost(player);
     }
 
+    /**
+     * Returns a deep copy of this game situation with its own chessboard and
+     * movement logic so that it can be searched in another thread. Hasher is
+     * shared so that hashes of copy equal hashes of this situation. Moves made
+     * before copying can't be unmade in the copy.
+     *
+     * @return deep copy of this game situation.
+     */
+    public GameSituation copy() {
+        return new GameSituation(this, new MovementLogic());
+    }
+
     /**
      * Clones current GameSituations.
      *
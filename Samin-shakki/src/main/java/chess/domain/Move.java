@@ -1,5 +1,6 @@
 package chess.domain;
 
+import chess.domain.board.Klass;
 import chess.domain.board.Square;
 import chess.domain.board.Piece;
 import java.util.Objects;
@@ -15,6 +16,10 @@ public class Move {
     private Piece piece;
     private Square from;
     private Square target;
+    /**
+     * Class moved pawn is promoted to or null if move isn't a promotion.
+     */
+    private Klass promotion;
 
     public Move(Piece piece, Square target) {
         this.piece = piece;
@@ -58,6 +63,14 @@ public class Move {
         this.target = target;
     }
 
+    public Klass getPromotion() {
+        return promotion;
+    }
+
+    public void setPromotion(Klass promotion) {
+        this.promotion = promotion;
+    }
+
     public int getTargetColumn() {
         return this.target.getColumn();
     }
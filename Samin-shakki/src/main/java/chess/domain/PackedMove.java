@@ -0,0 +1,217 @@
+package chess.domain;
+
+import chess.domain.board.BitBoard;
+import chess.domain.board.ChessBoard;
+import chess.domain.board.Klass;
+import static chess.domain.board.Klass.KING;
+import static chess.domain.board.Klass.PAWN;
+import static chess.domain.board.Klass.QUEEN;
+import chess.domain.board.Piece;
+import chess.domain.board.Square;
+
+/**
+ * This class offers static methods to pack a move into a single int so search
+ * doesn't need to create Move objects. Packed move contains following fields
+ * starting from lowest bits:
+ *
+ * from square (6 bits), target square (6 bits), class of moved piece (4 bits),
+ * class of captured piece (4 bits), class piece is promoted to (4 bits) and
+ * flags (4 bits).
+ *
+ * Squares are indexed like in BitBoard. Captured and promoted classes are
+ * saved as ordinal + 1 so that 0 means no capture or promotion. Value NONE is
+ * never a legal move as it would move a piece to the square it is on.
+ *
+ * @author sami
+ */
+public class PackedMove {
+
+    /**
+     * Value used when there is no move.
+     */
+    public static final int NONE = 0;
+    /**
+     * Flag for en passant captures.
+     */
+    public static final int EN_PASSANT = 1;
+    /**
+     * Flag for castling moves. Moved piece is king.
+     */
+    public static final int CASTLING = 2;
+    /**
+     * Flag for pawn moving two squares forward.
+     */
+    public static final int DOUBLE_PUSH = 4;
+
+    private static final Klass[] KLASSES = Klass.values();
+
+    private PackedMove() {
+    }
+
+    /**
+     * Packs given fields into an int.
+     *
+     * @param from index of square moved from.
+     * @param to index of square moved to.
+     * @param moved class of moved piece.
+     * @param captured class of captured piece or null.
+     * @param promotion class pawn is promoted to or null.
+     * @param flags flags of move.
+     * @return packed move.
+     */
+    public static int encode(int from, int to, Klass moved, Klass captured, Klass promotion, int flags) {
+        return from
+                | to << 6
+                | moved.ordinal() << 12
+                | (captured == null ? 0 : captured.ordinal() + 1) << 16
+                | (promotion == null ? 0 : promotion.ordinal() + 1) << 20
+                | flags << 24;
+    }
+
+    /**
+     * Packs move of piece from square to target on given board. Pawn reaching
+     * opposing end is promoted to queen.
+     *
+     * @param board board before move.
+     * @param from square moved from.
+     * @param to square moved to.
+     * @return packed move.
+     */
+    public static int encode(ChessBoard board, Square from, Square to) {
+        Piece piece = board.getPiece(from);
+        Klass captured = null;
+        Klass promotion = null;
+        int flags = 0;
+        if (board.squareIsOccupied(to)) {
+            captured = board.getPiece(to).getKlass();
+        }
+        if (piece.getKlass() == PAWN) {
+            if (Math.abs(from.getRow() - to.getRow()) == 2) {
+                flags |= DOUBLE_PUSH;
+            } else if (captured == null && from.getColumn() != to.getColumn()) {
+                flags |= EN_PASSANT;
+                captured = PAWN;
+            }
+            if (to.getRow() == 0 || to.getRow() == 7) {
+                promotion = QUEEN;
+            }
+        } else if (piece.getKlass() == KING && Math.abs(from.getColumn() - to.getColumn()) == 2) {
+            flags |= CASTLING;
+        }
+        return encode(BitBoard.squareIndex(from), BitBoard.squareIndex(to),
+                piece.getKlass(), captured, promotion, flags);
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    public static Klass moved(int move) {
+        return KLASSES[(move >>> 12) & 15];
+    }
+
+    /**
+     * Returns class of captured piece.
+     *
+     * @param move packed move.
+     * @return class of captured piece or null if move isn't a capture.
+     */
+    public static Klass captured(int move) {
+        int code = (move >>> 16) & 15;
+        return code == 0 ? null : KLASSES[code - 1];
+    }
+
+    /**
+     * Returns class that moved pawn is promoted to.
+     *
+     * @param move packed move.
+     * @return class of promotion or null if move isn't a promotion.
+     */
+    public static Klass promotion(int move) {
+        int code = (move >>> 20) & 15;
+        return code == 0 ? null : KLASSES[code - 1];
+    }
+
+    public static int flags(int move) {
+        return (move >>> 24) & 15;
+    }
+
+    public static boolean isCapture(int move) {
+        return ((move >>> 16) & 15) != 0;
+    }
+
+    public static boolean isPromotion(int move) {
+        return ((move >>> 20) & 15) != 0;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return (flags(move) & EN_PASSANT) != 0;
+    }
+
+    public static boolean isCastling(int move) {
+        return (flags(move) & CASTLING) != 0;
+    }
+
+    public static boolean isDoublePush(int move) {
+        return (flags(move) & DOUBLE_PUSH) != 0;
+    }
+
+    /**
+     * Checks if two packed moves move from same square to same target with
+     * same promotion. Captured piece may differ as same move can be made in
+     * different positions.
+     *
+     * @param move first packed move.
+     * @param other second packed move.
+     * @return true if moves are the same.
+     */
+    public static boolean sameMove(int move, int other) {
+        return (move & 0xF00FFF) == (other & 0xF00FFF);
+    }
+
+    public static Square fromSquare(int move) {
+        return new Square(BitBoard.column(from(move)), BitBoard.row(from(move)));
+    }
+
+    public static Square toSquare(int move) {
+        return new Square(BitBoard.column(to(move)), BitBoard.row(to(move)));
+    }
+
+    /**
+     * Creates Move object matching given packed move. Moved piece is taken
+     * from the board so board must be in the situation before move.
+     *
+     * @param move packed move.
+     * @param board board before move.
+     * @return matching Move.
+     */
+    public static Move toMove(int move, ChessBoard board) {
+        Square from = fromSquare(move);
+        Move result = new Move(board.getPiece(from), from, toSquare(move));
+        result.setPromotion(promotion(move));
+        return result;
+    }
+
+    /**
+     * Returns move in coordinate notation used by chess engines, for example
+     * e2e4 or a7a8q.
+     *
+     * @param move packed move.
+     * @return move as string.
+     */
+    public static String toString(int move) {
+        String result = squareName(from(move)) + squareName(to(move));
+        if (isPromotion(move)) {
+            result += promotion(move) == Klass.KNIGHT ? "n" : promotion(move).name().substring(0, 1).toLowerCase();
+        }
+        return result;
+    }
+
+    private static String squareName(int square) {
+        return "" + (char) ('a' + BitBoard.column(square)) + (8 - BitBoard.row(square));
+    }
+}
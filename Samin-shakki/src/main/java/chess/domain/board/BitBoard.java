@@ -0,0 +1,387 @@
+package chess.domain.board;
+
+import chess.logic.ailogic.GameSituationEvaluator;
+import chess.logic.ailogic.ZobristHasher;
+import java.util.Arrays;
+
+/**
+ * This class keeps track of pieces on chessboard using bitboards. Bitboard is
+ * a long where each bit represents one square on chessboard. Square (column,
+ * row) is represented by bit 8 * row + column so row 0 is stored in lowest 8
+ * bits. There is one bitboard for each combination of player and class making
+ * 12 bitboards in total. Class also keeps track of squares occupied by each
+ * player and by all pieces as well as which piece is located on each square.
+ * Running totals of material and positional values of each player's pieces
+ * for middlegame and endgame as well as game phase are updated as pieces are
+ * added and removed so that evaluation doesn't need to loop through pieces.
+ * Likewise a Zobrist key of pawns only is kept for pawn hash table.
+ *
+ * @author sami
+ */
+public class BitBoard {
+
+    /**
+     * Code used for squares that contain no piece.
+     */
+    public static final int EMPTY = -1;
+
+    private static final Klass[] KLASSES = Klass.values();
+    private static final Player[] PLAYERS = Player.values();
+
+    /**
+     * Bitboards for each player and class indexed by ordinals of player and
+     * class.
+     */
+    private long[][] pieces;
+    /**
+     * Squares occupied by each player indexed by ordinal of player.
+     */
+    private long[] occupied;
+    /**
+     * Squares occupied by any piece.
+     */
+    private long allPieces;
+    /**
+     * Code of piece located on each square or EMPTY. Code of piece is 6 *
+     * ordinal of owner + ordinal of class.
+     */
+    private int[] squares;
+    /**
+     * Count of changes made to this bitboard. Used to notice when values
+     * computed from bitboards are no longer up to date.
+     */
+    private int changes;
+    /**
+     * Sum of middlegame material and positional values of pieces of each
+     * player indexed by ordinal of player.
+     */
+    private int[] material;
+    /**
+     * Sum of endgame material and positional values of pieces of each player
+     * indexed by ordinal of player.
+     */
+    private int[] endgameMaterial;
+    /**
+     * Sum of phase weights of all pieces on board. Starting position has
+     * GameSituationEvaluator.MAX_PHASE and bare kings have zero.
+     */
+    private int phase;
+    /**
+     * XOR of ZobristHasher.pawnHash of every pawn on board.
+     */
+    private long pawnKey;
+
+    /**
+     * Creates a new empty BitBoard.
+     */
+    public BitBoard() {
+        pieces = new long[2][6];
+        occupied = new long[2];
+        material = new int[2];
+        endgameMaterial = new int[2];
+        squares = new int[64];
+        Arrays.fill(squares, EMPTY);
+    }
+
+    /**
+     * Returns index of bit representing given square.
+     *
+     * @param column column of square.
+     * @param row row of square.
+     * @return index of bit representing square (column, row).
+     */
+    public static int squareIndex(int column, int row) {
+        return 8 * row + column;
+    }
+
+    /**
+     * Returns index of bit representing given square.
+     *
+     * @param square square whose index is wanted.
+     * @return index of bit representing given square.
+     */
+    public static int squareIndex(Square square) {
+        return squareIndex(square.getColumn(), square.getRow());
+    }
+
+    /**
+     * Returns column of square represented by given bit index.
+     *
+     * @param index bit index of square.
+     * @return column of square.
+     */
+    public static int column(int index) {
+        return index & 7;
+    }
+
+    /**
+     * Returns row of square represented by given bit index.
+     *
+     * @param index bit index of square.
+     * @return row of square.
+     */
+    public static int row(int index) {
+        return index >>> 3;
+    }
+
+    /**
+     * Returns code used for pieces of given owner and class.
+     *
+     * @param owner owner of piece.
+     * @param klass class of piece.
+     * @return code of piece.
+     */
+    public static int pieceCode(Player owner, Klass klass) {
+        return 6 * owner.ordinal() + klass.ordinal();
+    }
+
+    /**
+     * Returns bitboard containing all pieces of chosen class owned by player.
+     *
+     * @param player owner of pieces.
+     * @param klass class of pieces.
+     * @return bitboard of player's pieces of given class.
+     */
+    public long getPieces(Player player, Klass klass) {
+        return pieces[player.ordinal()][klass.ordinal()];
+    }
+
+    /**
+     * Returns bitboard containing all squares occupied by player's pieces.
+     *
+     * @param player owner of pieces.
+     * @return bitboard of squares occupied by player.
+     */
+    public long getOccupied(Player player) {
+        return occupied[player.ordinal()];
+    }
+
+    public long getAllPieces() {
+        return allPieces;
+    }
+
+    public int getChanges() {
+        return changes;
+    }
+
+    /**
+     * Returns sum of middlegame material and positional values of player's
+     * pieces.
+     *
+     * @param player owner of pieces.
+     * @return material value of player's pieces in centipawns.
+     */
+    public int getMaterial(Player player) {
+        return material[player.ordinal()];
+    }
+
+    /**
+     * Returns sum of endgame material and positional values of player's
+     * pieces.
+     *
+     * @param player owner of pieces.
+     * @return endgame material value of player's pieces in centipawns.
+     */
+    public int getEndgameMaterial(Player player) {
+        return endgameMaterial[player.ordinal()];
+    }
+
+    /**
+     * Returns sum of phase weights of pieces on board. May exceed
+     * GameSituationEvaluator.MAX_PHASE after promotions.
+     *
+     * @return game phase.
+     */
+    public int getPhase() {
+        return phase;
+    }
+
+    /**
+     * Returns Zobrist key of pawns on board. Boards with same pawns of same
+     * players on same squares have same key regardless of other pieces.
+     *
+     * @return pawn key.
+     */
+    public long getPawnKey() {
+        return pawnKey;
+    }
+
+    /**
+     * Checks if square with given index contains a piece.
+     *
+     * @param index bit index of square.
+     * @return true if square is occupied.
+     */
+    public boolean isOccupied(int index) {
+        return squares[index] != EMPTY;
+    }
+
+    /**
+     * Returns code of piece on given square or EMPTY if square is empty.
+     *
+     * @param index bit index of square.
+     * @return code of piece on square.
+     */
+    public int pieceCodeAt(int index) {
+        return squares[index];
+    }
+
+    /**
+     * Returns class of piece on given square.
+     *
+     * @param index bit index of square.
+     * @return class of piece on square or null if square is empty.
+     */
+    public Klass klassAt(int index) {
+        if (squares[index] == EMPTY) {
+            return null;
+        }
+        return KLASSES[squares[index] % 6];
+    }
+
+    /**
+     * Returns owner of piece on given square.
+     *
+     * @param index bit index of square.
+     * @return owner of piece on square or null if square is empty.
+     */
+    public Player ownerAt(int index) {
+        if (squares[index] == EMPTY) {
+            return null;
+        }
+        return PLAYERS[squares[index] / 6];
+    }
+
+    /**
+     * Adds piece of given owner and class to chosen square. Square is assumed
+     * to be empty.
+     *
+     * @param owner owner of added piece.
+     * @param klass class of added piece.
+     * @param index bit index of square.
+     */
+    public void addPiece(Player owner, Klass klass, int index) {
+        long bit = 1L << index;
+        pieces[owner.ordinal()][klass.ordinal()] |= bit;
+        occupied[owner.ordinal()] |= bit;
+        allPieces |= bit;
+        squares[index] = pieceCode(owner, klass);
+        material[owner.ordinal()] += GameSituationEvaluator.squareValue(squares[index], index);
+        endgameMaterial[owner.ordinal()] += GameSituationEvaluator.endgameSquareValue(squares[index], index);
+        phase += GameSituationEvaluator.phaseWeight(klass);
+        if (klass == Klass.PAWN) {
+            pawnKey ^= ZobristHasher.pawnHash(owner, index);
+        }
+        changes++;
+    }
+
+    /**
+     * Removes piece located on chosen square if there is one.
+     *
+     * @param index bit index of square.
+     */
+    public void removePiece(int index) {
+        int code = squares[index];
+        if (code == EMPTY) {
+            return;
+        }
+        long mask = ~(1L << index);
+        pieces[code / 6][code % 6] &= mask;
+        occupied[code / 6] &= mask;
+        allPieces &= mask;
+        material[code / 6] -= GameSituationEvaluator.squareValue(code, index);
+        endgameMaterial[code / 6] -= GameSituationEvaluator.endgameSquareValue(code, index);
+        phase -= GameSituationEvaluator.phaseWeight(KLASSES[code % 6]);
+        if (code % 6 == Klass.PAWN.ordinal()) {
+            pawnKey ^= ZobristHasher.pawnHash(PLAYERS[code / 6], index);
+        }
+        squares[index] = EMPTY;
+        changes++;
+    }
+
+    /**
+     * Removes all pieces from this bitboard.
+     */
+    public void clear() {
+        for (int i = 0; i < 2; i++) {
+            Arrays.fill(pieces[i], 0);
+        }
+        Arrays.fill(occupied, 0);
+        Arrays.fill(material, 0);
+        Arrays.fill(endgameMaterial, 0);
+        phase = 0;
+        pawnKey = 0;
+        allPieces = 0;
+        Arrays.fill(squares, EMPTY);
+        changes++;
+    }
+
+    /**
+     * Makes this bitboard equal to other one without creating new objects.
+     *
+     * @param other bitboard to be copied.
+     */
+    public void copyFrom(BitBoard other) {
+        for (int i = 0; i < 2; i++) {
+            System.arraycopy(other.pieces[i], 0, pieces[i], 0, 6);
+        }
+        System.arraycopy(other.occupied, 0, occupied, 0, 2);
+        System.arraycopy(other.material, 0, material, 0, 2);
+        System.arraycopy(other.endgameMaterial, 0, endgameMaterial, 0, 2);
+        phase = other.phase;
+        pawnKey = other.pawnKey;
+        allPieces = other.allPieces;
+        System.arraycopy(other.squares, 0, squares, 0, 64);
+        changes++;
+    }
+
+    /**
+     * Clears this bitboard and adds every piece in given table that hasn't
+     * been taken.
+     *
+     * @param table table of pieces indexed by column and row.
+     */
+    public void rebuild(Piece[][] table) {
+        clear();
+        for (int column = 0; column < table.length; column++) {
+            for (int row = 0; row < table[column].length; row++) {
+                Piece piece = table[column][row];
+                if (piece != null && !piece.isTaken()) {
+                    addPiece(piece.getOwner(), piece.getKlass(), squareIndex(column, row));
+                }
+            }
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 3;
+        hash = 59 * hash + (int) (allPieces ^ (allPieces >>> 32));
+        hash = 59 * hash + Arrays.hashCode(squares);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final BitBoard other = (BitBoard) obj;
+        if (this.allPieces != other.allPieces) {
+            return false;
+        }
+        if (!Arrays.equals(this.occupied, other.occupied)) {
+            return false;
+        }
+        if (!Arrays.deepEquals(this.pieces, other.pieces)) {
+            return false;
+        }
+        return Arrays.equals(this.squares, other.squares);
+    }
+}
@@ -1,5 +1,9 @@
 package chess.domain.board;
 
+import static chess.domain.board.Klass.*;
+import static chess.domain.board.Player.getOpponent;
+import chess.logic.movementlogic.AttackTables;
+import chess.logic.movementlogic.MagicAttackTables;
 import chess.logic.movementlogic.MovementLogic;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -21,6 +25,11 @@ public class ChessBoard {
      * Table containing all the pieces on the game table
      */
     private Piece[][] table;
+    /**
+     * Bitboards containing all pieces in table that haven't been taken. Kept
+     * up to date by methods setPiece and setTable.
+     */
+    private BitBoard bitboard;
     /**
      * List of all pieces that white owns.
      */
@@ -45,6 +54,12 @@ public class ChessBoard {
      * Map containing positions of both kings.
      */
     private Map<Player, Piece> kings;
+    /**
+     * Bitboards of squares attacked by each player and count of bitboard
+     * changes when they were computed.
+     */
+    private long[] attacks;
+    private int[] attacksComputedAt;
     
     public final int columnAmount=8;
     public final int rowAmount=8;
@@ -69,12 +84,19 @@ public class ChessBoard {
      */
     private void initializeBoard() {
         table= new Piece[8][8];
+        bitboard = new BitBoard();
+        attacks = new long[2];
+        attacksComputedAt = new int[]{-1, -1};
     }
 
     public Piece[][] getTable() {
         return table;
     }
 
+    public BitBoard getBitBoard() {
+        return bitboard;
+    }
+
     public MovementLogic getMovementLogic() {
         return movementLogic;
     }
@@ -86,6 +108,20 @@ public class ChessBoard {
      */
     public void setTable(Piece[][] newBoard) {
         this.table = newBoard;
+        bitboard.rebuild(newBoard);
+    }
+
+    /**
+     * Sets the board given as parameter to field board and copies bitboards
+     * from given BitBoard instead of rebuilding them from the table. Given
+     * bitboards must match the table.
+     *
+     * @param newBoard Square[][] to be saved to field board.
+     * @param bitboards bitboards matching given table.
+     */
+    public void setTable(Piece[][] newBoard, BitBoard bitboards) {
+        this.table = newBoard;
+        bitboard.copyFrom(bitboards);
     }
 
     /**
@@ -112,6 +148,76 @@ public class ChessBoard {
         }
     }
 
+    /**
+     * Checks if any of player's pieces attacks given square. Instead of
+     * generating all squares player threatens, attacks are looked up in
+     * reverse from the square: square is attacked by a knight if a knight
+     * placed on it would attack one of player's knights and so on.
+     *
+     * @param square bit index of square like in BitBoard.
+     * @param player attacking player.
+     * @return true if player attacks square.
+     */
+    public boolean isSquareAttacked(int square, Player player) {
+        long all = bitboard.getAllPieces();
+        long queens = bitboard.getPieces(player, QUEEN);
+        return (AttackTables.pawnAttacks(getOpponent(player), square) & bitboard.getPieces(player, PAWN)) != 0
+                || (AttackTables.knightAttacks(square) & bitboard.getPieces(player, KNIGHT)) != 0
+                || (AttackTables.kingAttacks(square) & bitboard.getPieces(player, KING)) != 0
+                || (MagicAttackTables.bishopAttacks(square, all) & (bitboard.getPieces(player, BISHOP) | queens)) != 0
+                || (MagicAttackTables.rookAttacks(square, all) & (bitboard.getPieces(player, ROOK) | queens)) != 0;
+    }
+
+    public boolean isSquareAttacked(Square square, Player player) {
+        return isSquareAttacked(BitBoard.squareIndex(square), player);
+    }
+
+    /**
+     * Returns bitboard of all squares player's pieces attack. Result is
+     * computed from bitboards and saved until pieces on board change.
+     *
+     * @param player attacking player.
+     * @return bitboard of squares player attacks.
+     */
+    public long attackedSquares(Player player) {
+        int i = player.ordinal();
+        if (attacksComputedAt[i] != bitboard.getChanges()) {
+            attacks[i] = computeAttackedSquares(player);
+            attacksComputedAt[i] = bitboard.getChanges();
+        }
+        return attacks[i];
+    }
+
+    private long computeAttackedSquares(Player player) {
+        long all = bitboard.getAllPieces();
+        long result = 0;
+        long pieces = bitboard.getOccupied(player);
+        while (pieces != 0) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            switch (bitboard.klassAt(square)) {
+                case PAWN:
+                    result |= AttackTables.pawnAttacks(player, square);
+                    break;
+                case KNIGHT:
+                    result |= AttackTables.knightAttacks(square);
+                    break;
+                case BISHOP:
+                    result |= MagicAttackTables.bishopAttacks(square, all);
+                    break;
+                case ROOK:
+                    result |= MagicAttackTables.rookAttacks(square, all);
+                    break;
+                case QUEEN:
+                    result |= MagicAttackTables.queenAttacks(square, all);
+                    break;
+                default:
+                    result |= AttackTables.kingAttacks(square);
+            }
+            pieces &= pieces - 1;
+        }
+        return result;
+    }
+
     /**
      * Returns a list containing all pieces currently on board and owned by the
      * player.
@@ -136,11 +242,11 @@ public class ChessBoard {
     }
     
     public boolean squareIsOccupied(Square square) {
-        return getPiece(square)!=null && !getPiece(square).isTaken();
+        return bitboard.isOccupied(BitBoard.squareIndex(square));
     }
     
     public boolean squareIsOccupied(int col, int row) {
-        return getPiece(col, row)!=null && !getPiece(col, row).isTaken();
+        return bitboard.isOccupied(BitBoard.squareIndex(col, row));
     }
 
     public Piece getPiece(Square square) {
@@ -152,10 +258,23 @@ public class ChessBoard {
     }
     
     public void setPiece(Square coords, Piece piece) {
-        table[coords.getColumn()][coords.getRow()]=piece;
+        setPiece(coords.getColumn(), coords.getRow(), piece);
     }
-    
+
+    /**
+     * Places given piece on square (col, row) and updates bitboards
+     * accordingly. Taken pieces and null leave the square empty in bitboards.
+     *
+     * @param col column of square.
+     * @param row row of square.
+     * @param piece piece to be placed on square or null.
+     */
     public void setPiece(int col, int row, Piece piece) {
+        int index = BitBoard.squareIndex(col, row);
+        bitboard.removePiece(index);
+        if (piece != null && !piece.isTaken()) {
+            bitboard.addPiece(piece.getOwner(), piece.getKlass(), index);
+        }
         table[col][row]=piece;
     }
 
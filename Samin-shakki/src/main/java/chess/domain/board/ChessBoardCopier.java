@@ -5,6 +5,7 @@ import chess.domain.Move;
 import static chess.domain.board.Klass.KING;
 import static chess.domain.board.Klass.PAWN;
 import chess.logic.chessboardinitializers.ChessBoardInitializer;
+import chess.logic.movementlogic.MovementLogic;
 import static chess.logic.chessboardinitializers.ChessBoardInitializer.addPieceToOwner;
 import java.util.ArrayList;
 
@@ -30,8 +31,21 @@ public class ChessBoardCopier {
      * @return a deep copy of given ChessBoard.
      */
     public static ChessBoard copy(ChessBoard board) {
-        ChessBoard copy = new ChessBoard(board.getMovementLogic());
-        copy.setTable(copyPieceTable(board.getTable()));
+        return copy(board, board.getMovementLogic());
+    }
+
+    /**
+     * Returns a new ChessBoard that deeply equals the one given as parameter
+     * but uses given movement logic. Used when copy is searched in another
+     * thread, as movement logic isn't thread-safe.
+     *
+     * @param board chessboard to be copied.
+     * @param movementLogic movement logic of the copy.
+     * @return a deep copy of given ChessBoard.
+     */
+    public static ChessBoard copy(ChessBoard board, MovementLogic movementLogic) {
+        ChessBoard copy = new ChessBoard(movementLogic);
+        copy.setTable(copyPieceTable(board.getTable()), board.getBitBoard());
         setPieces(copy);
 
         return copy;
@@ -110,8 +124,9 @@ public class ChessBoardCopier {
         }
         sit.updateHashForUndoingMove(backUp, from, to);
 
-        sit.getChessBoard().setPiece(from, sit.getChessBoard().getPiece(to));
-        sit.getChessBoard().getPiece(from).makeDeeplyEqualTo(old);
+        Piece moved = sit.getChessBoard().getPiece(to);
+        moved.makeDeeplyEqualTo(old);
+        sit.getChessBoard().setPiece(from, moved);
 
         handleDestination(backUp, to, sit, from);
     }
@@ -218,6 +233,6 @@ public class ChessBoardCopier {
             }
         }
 
-        return true;
+        return cb1.getBitBoard().equals(cb2.getBitBoard());
     }
 }
@@ -0,0 +1,143 @@
+package chess.domain.datastructures;
+
+import chess.domain.PackedMove;
+import chess.domain.board.Player;
+import static chess.domain.datastructures.PackedTranspositionEntry.*;
+import java.util.Arrays;
+
+/**
+ * Transposition table saved in a single preallocated long array so probing and
+ * storing don't create objects. Table is divided into buckets of two slots and
+ * bucket of a situation is chosen by lowest bits of its key. Each slot takes
+ * two longs: key of situation xorred with packed entry and the packed entry.
+ *
+ * First slot of bucket is depth-preferred: it's only replaced by results of
+ * searches at least as deep or if it was saved during an earlier search.
+ * Results that can't replace it are saved in second slot that is always
+ * replaced.
+ *
+ * Key of a situation is Zobrist hash of its chessboard. Hash of chessboard
+ * doesn't contain player whose turn it is, so a constant is xorred to keys of
+ * situations where black is to move.
+ *
+ * Table can be shared by search threads without locking. Slots are written
+ * without synchronization, so another thread may overwrite a slot between
+ * writes of its two longs or a long may even be written in two halves (JLS
+ * 17.7). Saving key xorred with entry makes such slots look like they contain
+ * a different situation, so probing ignores them instead of returning an entry
+ * of another situation. Lost and stale entries only cost search time. Clear
+ * should only be called when no search is using the table.
+ *
+ * @author sami
+ */
+public class ArrayTranspositionTable implements TranspositionTable {
+
+    /**
+     * Size of table in megabytes if not given.
+     */
+    public static final int DEFAULT_SIZE_MB = 16;
+
+    private static final long BLACK_TO_MOVE = 0x9E3779B97F4A7C15L;
+    private static final int BUCKET_LONGS = 4;
+
+    private long[] table;
+    private int bucketMask;
+    private volatile int age;
+
+    public ArrayTranspositionTable() {
+        this(DEFAULT_SIZE_MB);
+    }
+
+    /**
+     * Creates a new table using at most given amount of memory. Amount of
+     * buckets is largest power of two that fits in it.
+     *
+     * @param megabytes size of table in megabytes.
+     */
+    public ArrayTranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Size must be at least 1 MB");
+        }
+        long buckets = Long.highestOneBit(((long) megabytes << 20) / (BUCKET_LONGS * Long.BYTES));
+        buckets = Math.min(buckets, Integer.highestOneBit(Integer.MAX_VALUE / BUCKET_LONGS));
+        this.table = new long[(int) buckets * BUCKET_LONGS];
+        this.bucketMask = (int) buckets - 1;
+    }
+
+    public int getBuckets() {
+        return bucketMask + 1;
+    }
+
+    public int getAge() {
+        return age;
+    }
+
+    private long keyOf(long hash, Player player) {
+        return player == Player.BLACK ? hash ^ BLACK_TO_MOVE : hash;
+    }
+
+    private int bucketOf(long key) {
+        return ((int) key & bucketMask) * BUCKET_LONGS;
+    }
+
+    @Override
+    public long probe(long hash, Player player) {
+        long key = keyOf(hash, player);
+        int i = bucketOf(key);
+        long entry = entryAt(i, key);
+        if (entry != EMPTY) {
+            return entry;
+        }
+        return entryAt(i + 2, key);
+    }
+
+    /**
+     * Returns entry of slot starting at given index if it belongs to given key.
+     * Each long is read only once so other threads can't change them between
+     * verification and use.
+     */
+    private long entryAt(int i, long key) {
+        long entry = table[i + 1];
+        if (entry != EMPTY && (table[i] ^ entry) == key) {
+            return entry;
+        }
+        return EMPTY;
+    }
+
+    /**
+     * Saves search result in depth-preferred slot if it is empty, contains
+     * same situation, was saved during an earlier search or has a shallower
+     * result. Otherwise result is saved in always-replace slot. If no best
+     * move is given, best move already saved for the situation is kept.
+     */
+    @Override
+    public void store(long hash, Player player, int height, int value, Type type, int move) {
+        long key = keyOf(hash, player);
+        int i = bucketOf(key);
+        int currentAge = age;
+        long deep = table[i + 1];
+        if (deep != EMPTY && (table[i] ^ deep) != key && age(deep) == currentAge && height(deep) > height) {
+            i += 2;
+        }
+        if (move == PackedMove.NONE) {
+            long old = entryAt(i, key);
+            if (old != EMPTY) {
+                move = move(old);
+            }
+        }
+        long entry = pack(value, move, height, type, currentAge);
+        table[i] = key ^ entry;
+        table[i + 1] = entry;
+    }
+
+    @Override
+    public void newSearch() {
+        age = (age + 1) % AGES;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(table, 0);
+        age = 0;
+    }
+}
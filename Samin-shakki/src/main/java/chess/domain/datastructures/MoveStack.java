@@ -0,0 +1,107 @@
+package chess.domain.datastructures;
+
+import chess.domain.PackedMove;
+
+/**
+ * This class offers preallocated lists of packed moves for each ply of search
+ * so that move generation doesn't need to create new objects. Moves of ply i
+ * are saved in their own int array which is reused every time moves for that
+ * ply are generated.
+ *
+ * @author sami
+ */
+public class MoveStack {
+
+    /**
+     * Amount of moves that can be saved for one ply. No legal chess position
+     * has more than 218 moves.
+     */
+    public static final int MAX_MOVES = 256;
+
+    private int[][] moves;
+    private int[] sizes;
+
+    /**
+     * Creates a new MoveStack with room for given amount of plies.
+     *
+     * @param plies amount of plies.
+     */
+    public MoveStack(int plies) {
+        moves = new int[plies][MAX_MOVES];
+        sizes = new int[plies];
+    }
+
+    public int getPlies() {
+        return sizes.length;
+    }
+
+    /**
+     * Removes all moves saved for given ply.
+     *
+     * @param ply ply to be cleared.
+     */
+    public void clear(int ply) {
+        sizes[ply] = 0;
+    }
+
+    /**
+     * Adds move to the end of list of given ply.
+     *
+     * @param ply ply move is added to.
+     * @param move packed move.
+     */
+    public void add(int ply, int move) {
+        moves[ply][sizes[ply]++] = move;
+    }
+
+    public int size(int ply) {
+        return sizes[ply];
+    }
+
+    public int get(int ply, int index) {
+        return moves[ply][index];
+    }
+
+    /**
+     * Swaps places of two moves in list of given ply. Used to order moves.
+     *
+     * @param ply ply whose moves are swapped.
+     * @param i index of first move.
+     * @param j index of second move.
+     */
+    public void swap(int ply, int i, int j) {
+        int temp = moves[ply][i];
+        moves[ply][i] = moves[ply][j];
+        moves[ply][j] = temp;
+    }
+
+    /**
+     * Removes move at given index of chosen ply by replacing it with last move
+     * of that ply. Order of moves isn't preserved.
+     *
+     * @param ply ply move is removed from.
+     * @param index index of removed move.
+     */
+    public void remove(int ply, int index) {
+        moves[ply][index] = moves[ply][--sizes[ply]];
+    }
+
+    /**
+     * Moves given move to chosen index if it is saved for given ply at chosen
+     * index or after it. Moves are compared with PackedMove.sameMove.
+     *
+     * @param ply ply whose moves are searched.
+     * @param move packed move to be found.
+     * @param index index move will be moved to.
+     * @return true if move was found.
+     */
+    public boolean moveToIndex(int ply, int move, int index) {
+        for (int i = index; i < sizes[ply]; i++) {
+            if (PackedMove.sameMove(moves[ply][i], move)) {
+                swap(ply, i, index);
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,84 @@
+package chess.domain.datastructures;
+
+/**
+ * This class offers static methods to pack a transposition table entry into a
+ * single long so storing search results doesn't create objects. Packed entry
+ * contains following fields starting from lowest bits:
+ *
+ * value (32 bits), best move (16 bits), height (8 bits), type (2 bits) and age
+ * of search that saved it (6 bits).
+ *
+ * Best move is saved without moved and captured classes and flags, so only
+ * from square, target square and promotion are kept. This is enough to find
+ * the move with PackedMove.sameMove. Type is saved as ordinal + 1 so that
+ * value EMPTY is never a stored entry.
+ *
+ * @author sami
+ */
+public class PackedTranspositionEntry {
+
+    /**
+     * Value returned when no entry is found.
+     */
+    public static final long EMPTY = 0;
+    /**
+     * Largest height that can be saved.
+     */
+    public static final int MAX_HEIGHT = 255;
+    /**
+     * Ages wrap around after this many searches.
+     */
+    public static final int AGES = 64;
+
+    private static final Type[] TYPES = Type.values();
+
+    private PackedTranspositionEntry() {
+    }
+
+    /**
+     * Packs given fields into a long.
+     *
+     * @param value value of the situation.
+     * @param move packed best move or PackedMove.NONE.
+     * @param height height from leaves of saved search.
+     * @param type type of value.
+     * @param age age of search saving the entry.
+     * @return packed entry.
+     */
+    public static long pack(int value, int move, int height, Type type, int age) {
+        long compressedMove = (move & 0xFFF) | ((move >>> 20) & 15) << 12;
+        return (value & 0xFFFFFFFFL)
+                | compressedMove << 32
+                | (long) Math.min(Math.max(height, 0), MAX_HEIGHT) << 48
+                | (long) (type.ordinal() + 1) << 56
+                | (long) (age & (AGES - 1)) << 58;
+    }
+
+    public static int value(long entry) {
+        return (int) entry;
+    }
+
+    /**
+     * Returns best move of entry containing from square, target square and
+     * promotion in their PackedMove positions.
+     *
+     * @param entry packed entry.
+     * @return partial packed move or PackedMove.NONE.
+     */
+    public static int move(long entry) {
+        int compressed = (int) (entry >>> 32) & 0xFFFF;
+        return (compressed & 0xFFF) | (compressed >>> 12) << 20;
+    }
+
+    public static int height(long entry) {
+        return (int) (entry >>> 48) & 0xFF;
+    }
+
+    public static Type type(long entry) {
+        return TYPES[(int) (entry >>> 56 & 3) - 1];
+    }
+
+    public static int age(long entry) {
+        return (int) (entry >>> 58) & (AGES - 1);
+    }
+}
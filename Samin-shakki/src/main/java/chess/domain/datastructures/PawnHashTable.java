@@ -0,0 +1,115 @@
+package chess.domain.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * Cache for pawn structure scores. Pawn structure changes rarely compared to
+ * other pieces, so huge numbers of positions searched share same pawns and
+ * their score only has to be computed once. Scores are identified by pawn key
+ * of BitBoard, a Zobrist hash of pawns only.
+ *
+ * Like ArrayTranspositionTable this table is a single preallocated long array
+ * where each slot takes two longs: key xorred with entry and the entry. Entry
+ * contains middlegame score in upper and endgame score in lower 32 bits. Table
+ * can be shared by search threads without locking as torn slots don't match
+ * their key. Each key has exactly one slot that is always replaced. Empty slot
+ * looks like zero scores saved for key zero, which is the key of boards
+ * without pawns whose scores are zero anyway.
+ *
+ * @author sami
+ */
+public class PawnHashTable {
+
+    /**
+     * Size of table in megabytes if not given.
+     */
+    public static final int DEFAULT_SIZE_MB = 1;
+    /**
+     * Returned by probe when no entry is saved for key.
+     */
+    public static final long MISSING = Long.MIN_VALUE;
+
+    private static final int SLOT_LONGS = 2;
+
+    private long[] table;
+    private int slotMask;
+
+    public PawnHashTable() {
+        this(DEFAULT_SIZE_MB);
+    }
+
+    /**
+     * Creates a new table using at most given amount of memory. Amount of
+     * slots is largest power of two that fits in it.
+     *
+     * @param megabytes size of table in megabytes.
+     */
+    public PawnHashTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Size must be at least 1 MB");
+        }
+        long slots = Long.highestOneBit(((long) megabytes << 20) / (SLOT_LONGS * Long.BYTES));
+        slots = Math.min(slots, Integer.highestOneBit(Integer.MAX_VALUE / SLOT_LONGS));
+        this.table = new long[(int) slots * SLOT_LONGS];
+        this.slotMask = (int) slots - 1;
+    }
+
+    public int getSlots() {
+        return slotMask + 1;
+    }
+
+    /**
+     * Packs middlegame and endgame scores into one entry.
+     *
+     * @param middlegame middlegame score.
+     * @param endgame endgame score.
+     * @return packed entry.
+     */
+    public static long pack(int middlegame, int endgame) {
+        return ((long) middlegame << 32) | (endgame & 0xFFFFFFFFL);
+    }
+
+    public static int middlegame(long entry) {
+        return (int) (entry >> 32);
+    }
+
+    public static int endgame(long entry) {
+        return (int) entry;
+    }
+
+    private int slotOf(long key) {
+        return ((int) key & slotMask) * SLOT_LONGS;
+    }
+
+    /**
+     * Returns entry saved for given pawn key. Each long is read only once so
+     * other threads can't change them between verification and use.
+     *
+     * @param key pawn key of board.
+     * @return packed entry or MISSING if none is saved.
+     */
+    public long probe(long key) {
+        int i = slotOf(key);
+        long entry = table[i + 1];
+        if ((table[i] ^ entry) == key) {
+            return entry;
+        }
+        return MISSING;
+    }
+
+    /**
+     * Saves scores of given pawn key replacing whatever was in its slot.
+     *
+     * @param key pawn key of board.
+     * @param entry packed scores.
+     */
+    public void store(long key, long entry) {
+        int i = slotOf(key);
+        table[i] = key ^ entry;
+        table[i + 1] = entry;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0);
+    }
+}
@@ -1,11 +1,43 @@
 package chess.domain.datastructures;
 
+import chess.domain.board.Player;
+
 /**
+ * Transposition tables save search results for game situations identified by
+ * Zobrist hash of chessboard and player whose turn it is. Results are saved as
+ * entries packed with PackedTranspositionEntry.
  *
  * @author sami
  */
 public interface TranspositionTable {
-    public abstract TranspositionEntry get (TranspositionKey key);
-    public abstract void put(TranspositionKey key, TranspositionEntry value);
+
+    /**
+     * Returns entry saved for given situation.
+     *
+     * @param hash Zobrist hash of chessboard.
+     * @param player player whose turn it is.
+     * @return packed entry or PackedTranspositionEntry.EMPTY if none is saved.
+     */
+    public abstract long probe(long hash, Player player);
+
+    /**
+     * Saves search result for given situation. Table may decide not to save it
+     * if it would replace more valuable results.
+     *
+     * @param hash Zobrist hash of chessboard.
+     * @param player player whose turn it is.
+     * @param height height from leaves of the search.
+     * @param value value found.
+     * @param type type of value.
+     * @param move best move found or PackedMove.NONE.
+     */
+    public abstract void store(long hash, Player player, int height, int value, Type type, int move);
+
+    /**
+     * Marks start of a new search making entries of earlier searches
+     * replaceable.
+     */
+    public abstract void newSearch();
+
     public abstract void clear();
 }
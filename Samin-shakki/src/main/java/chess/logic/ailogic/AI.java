@@ -11,4 +11,29 @@ public interface AI {
     public Move findBestMove(GameSituation situation);
     public void setTimeLimit(long time);
     public void reset();
+
+    /**
+     * Sets amount of threads used in search. AIs searching with one thread
+     * ignore it.
+     *
+     * @param threads amount of threads, at least one.
+     */
+    public default void setThreads(int threads) {
+    }
+
+    /**
+     * Lets AI use opponent's turn for searching. Called after AI's move has
+     * been made. AIs that don't ponder ignore it.
+     *
+     * @param situation game situation where it's opponent's turn.
+     */
+    public default void ponder(GameSituation situation) {
+    }
+
+    /**
+     * Stops search started by ponder and waits until it has ended. Called
+     * when game is stopped. Does nothing if AI isn't pondering.
+     */
+    public default void stopPondering() {
+    }
 }
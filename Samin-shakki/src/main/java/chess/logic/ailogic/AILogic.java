@@ -2,29 +2,26 @@ package chess.logic.ailogic;
 
 import chess.domain.GameSituation;
 import chess.domain.Move;
-import static chess.domain.board.ChessBoardCopier.copy;
+import chess.domain.PackedMove;
+import static chess.domain.PackedMove.NONE;
 import static chess.domain.board.Player.getOpponent;
 import static chess.logic.ailogic.GameSituationEvaluator.evaluateGameSituation;
+import static chess.logic.ailogic.GameSituationEvaluator.evaluateWithoutWinConditions;
 import chess.logic.movementlogic.MovementLogic;
 import chess.domain.datastructures.*;
 import chess.domain.board.*;
-import static chess.domain.board.Klass.PAWN;
-import static chess.domain.board.Klass.QUEEN;
-import static chess.logic.ailogic.GameSituationEvaluator.getValue;
-import chess.logic.gamelogic.CheckingLogic;
-import chess.logic.gamelogic.PromotionLogic;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
-import static chess.domain.board.ChessBoardCopier.undoMove;
 
 /**
  * This class is responsible for calculating AI's next move and then returning
  * it when asked for next move. All values are measured in centipawns that is
  * one hundredth of pawn's value. Uses negamax sped up with alpha-beta pruning
  * and transposition tables. Alpha-beta pruning also is sped up by principal
- * variation and killer move heuristics. Also tests captures before positional
- * moves.
+ * variation, killer move, counter move and history heuristics, which order
+ * moves picked in stages by MovePicker. Leaves are extended with quiescence
+ * search so that positions are evaluated only when no captures are pending.
  *
  * @see <a href="https://en.wikipedia.org/wiki/Negamax">Negamax</a>
  *
@@ -39,34 +36,91 @@ import static chess.domain.board.ChessBoardCopier.undoMove;
  * <a href="https://en.wikipedia.org/wiki/Transposition_table">Transposition
  * table</a>
  *
+ * @see
+ * <a href="https://www.chessprogramming.org/Quiescence_Search">Quiescence
+ * search</a>
+ *
  * @author sami
  */
 public class AILogic implements AI {
 
+    /**
+     * Maximum length of capture sequences searched by quiescence search.
+     */
+    private static final int QUIESCENCE_PLIES = 32;
+    /**
+     * Margin for positional changes when capture is delta pruned.
+     */
+    private static final int DELTA_MARGIN = 200;
+
+    /**
+     * History scores are halved when one of them grows over this limit so
+     * that recent cutoffs weigh more than old ones.
+     */
+    private static final int HISTORY_LIMIT = 1 << 20;
+    /**
+     * Half width of first aspiration window around value of previous
+     * iteration. Window is widened four times wider each time search fails
+     * outside it.
+     */
+    private static final int ASPIRATION_WINDOW = 50;
+    /**
+     * How many plies shallower null move is searched than a normal move.
+     */
+    private static final int NULL_MOVE_REDUCTION = 2;
+    /**
+     * Amount of moves searched to full depth in a node before late quiet
+     * moves are reduced.
+     */
+    private static final int FULL_DEPTH_MOVES = 4;
+    /**
+     * Lowest height where late moves are reduced.
+     */
+    private static final int REDUCTION_LIMIT = 3;
+
     private GameSituation sit;
     private MovementLogic ml;
-    private List<Move> bestMoves;
+    private List<Integer> bestMoves;
     private int[] bestValues;
-    private long timeLimit;
-    private long start;
+    private final TimeManager timeManager;
     private int plies = 10;
     private int lastPlies;
     private int searchDepth;
     private int oldestIndex;
-    private Pair<Integer, Move[]> lastPrincipalVariation;
-    private Move[] principalMoves;
-    private Move[] killerCandidates;
-    private Move[][] killerMoves;
-    private SimpleTranspositionTable transpositionTable;
-
-    private final int highestVictoryValue = GameSituationEvaluator.victory + plies;
-    List<Move> bestMovesFromCompleteLevels = new ArrayList<>();
+    private Pair<Integer, int[]> lastPrincipalVariation;
+    private int[] principalMoves;
+    private int[] killerCandidates;
+    private int[][] killerMoves;
+    private TranspositionTable transpositionTable;
+    private int[] hashMoves;
+    private MovePicker[] movePickers;
+    private int[][][] history;
+    private int[][] counterMoves;
+    private MoveStack quiescenceStack;
+    private int[][] quiescenceScores;
+    private final StaticExchangeEvaluator see = new StaticExchangeEvaluator();
+    private int threads = 1;
+    private AILogic[] helpers = new AILogic[0];
+    private AILogic owner;
+    private int firstDepth = 1;
+    private volatile boolean stopped;
+    private volatile boolean pondering;
+    private volatile Thread ponderThread;
+    private volatile GameSituation ponderSituation;
+    private int predictedMove = NONE;
+
+    private int highestVictoryValue = GameSituationEvaluator.victory + plies;
+    List<Integer> bestMovesFromCompleteLevels = new ArrayList<>();
     int bestValueFromCompleteLevels = -highestVictoryValue;
 
-    //Lossful transposition table currently disabled, lossless TBA
     private boolean usingTranspositionTable = true;
     private boolean usingPrincipalVariation = true;
     private boolean usingKillerMoves = true;
+    private boolean usingQuiescence = true;
+    private boolean usingPrincipalVariationSearch = true;
+    private boolean usingAspirationWindows = true;
+    private boolean usingNullMovePruning = true;
+    private boolean usingLateMoveReductions = true;
     private boolean randomized = false;
 
     private boolean debug = false;
@@ -75,23 +129,41 @@ public class AILogic implements AI {
     private boolean usingCompleteLevels = true;
 
     public AILogic() {
-        bestValues = new int[plies + 1];
+        this(new ArrayTranspositionTable());
+    }
+
+    private AILogic(TranspositionTable transpositionTable) {
         bestMoves = new ArrayList();
-        killerCandidates = new Move[plies];
-        killerMoves = new Move[plies][3];
+        searchDepth = 3;
+        timeManager = new TimeManager(1000);
+        this.transpositionTable = transpositionTable;
+        initSearchState();
+    }
+
+    private void initSearchState() {
+        highestVictoryValue = GameSituationEvaluator.victory + plies;
+        bestValues = new int[plies + 1];
+        killerCandidates = new int[plies];
+        killerMoves = new int[plies][3];
         lastPlies = 0;
         oldestIndex = 0;
-        principalMoves = new Move[plies];
-        searchDepth = 3;
-        timeLimit = 1000;
-        transpositionTable = new SimpleTranspositionTable();
+        principalMoves = new int[plies];
+        hashMoves = new int[plies + 1];
+        movePickers = new MovePicker[plies + 1];
+        for (int i = 0; i < movePickers.length; i++) {
+            movePickers[i] = new MovePicker();
+        }
+        history = new int[2][64][64];
+        counterMoves = new int[64][64];
+        quiescenceStack = new MoveStack(QUIESCENCE_PLIES);
+        quiescenceScores = new int[QUIESCENCE_PLIES][MoveStack.MAX_MOVES];
     }
 
     public int[] getBestValues() {
         return bestValues;
     }
 
-    public Move[] getKillerCandidates() {
+    public int[] getKillerCandidates() {
         return killerCandidates;
     }
 
@@ -99,8 +171,16 @@ public class AILogic implements AI {
         this.searchDepth = searchDepth;
     }
 
+    /**
+     * Sets maximum search depth. Tables indexed by ply are created again for
+     * new depth, so killer moves, history and principal variation of earlier
+     * searches are forgotten.
+     *
+     * @param plies maximum search depth in plies.
+     */
     public void setPlies(int plies) {
         this.plies = plies;
+        initSearchState();
     }
 
     public void setSituation(GameSituation sit) {
@@ -109,11 +189,15 @@ public class AILogic implements AI {
     }
 
     public void setStart(long start) {
-        this.start = start;
+        timeManager.restartAt(start);
     }
 
     public long getTimeLimit() {
-        return timeLimit;
+        return timeManager.getHardLimit();
+    }
+
+    public TimeManager getTimeManager() {
+        return timeManager;
     }
 
     public boolean isUsingTranspositionTable() {
@@ -124,6 +208,29 @@ public class AILogic implements AI {
         this.usingTranspositionTable = usingTranspositionTable;
     }
 
+    public TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
+
+    /**
+     * Sets transposition table used by this AI. Same table can be given to
+     * several AIs searching in separate threads.
+     *
+     * @param transpositionTable transposition table to be used.
+     */
+    public void setTranspositionTable(TranspositionTable transpositionTable) {
+        this.transpositionTable = transpositionTable;
+    }
+
+    /**
+     * Replaces transposition table with an empty one of given size.
+     *
+     * @param megabytes size of new transposition table in megabytes.
+     */
+    public void setTranspositionTableSize(int megabytes) {
+        this.transpositionTable = new ArrayTranspositionTable(megabytes);
+    }
+
     public boolean isUsingPrincipalVariation() {
         return usingPrincipalVariation;
     }
@@ -132,6 +239,60 @@ public class AILogic implements AI {
         this.usingPrincipalVariation = usingPrincipalVariation;
     }
 
+    public boolean isUsingQuiescence() {
+        return usingQuiescence;
+    }
+
+    public void setUsingQuiescence(boolean usingQuiescence) {
+        this.usingQuiescence = usingQuiescence;
+    }
+
+    public boolean isUsingPrincipalVariationSearch() {
+        return usingPrincipalVariationSearch;
+    }
+
+    public void setUsingPrincipalVariationSearch(boolean usingPrincipalVariationSearch) {
+        this.usingPrincipalVariationSearch = usingPrincipalVariationSearch;
+    }
+
+    public boolean isUsingAspirationWindows() {
+        return usingAspirationWindows;
+    }
+
+    public void setUsingAspirationWindows(boolean usingAspirationWindows) {
+        this.usingAspirationWindows = usingAspirationWindows;
+    }
+
+    public boolean isUsingNullMovePruning() {
+        return usingNullMovePruning;
+    }
+
+    public void setUsingNullMovePruning(boolean usingNullMovePruning) {
+        this.usingNullMovePruning = usingNullMovePruning;
+    }
+
+    public boolean isUsingLateMoveReductions() {
+        return usingLateMoveReductions;
+    }
+
+    public void setUsingLateMoveReductions(boolean usingLateMoveReductions) {
+        this.usingLateMoveReductions = usingLateMoveReductions;
+    }
+
+    public boolean isRandomized() {
+        return randomized;
+    }
+
+    /**
+     * Sets whether best move is chosen randomly among root moves proven to
+     * have the same highest value.
+     *
+     * @param randomized true if ties should be broken randomly.
+     */
+    public void setRandomized(boolean randomized) {
+        this.randomized = randomized;
+    }
+
     public boolean isUsingKillerMoves() {
         return usingKillerMoves;
     }
@@ -147,45 +308,129 @@ public class AILogic implements AI {
      * @param newTimeLimit new time limit for chosen ai.
      */
     public void setTimeLimit(long newTimeLimit) {
-        this.timeLimit = newTimeLimit;
+        timeManager.setMoveTime(newTimeLimit);
+    }
+
+    /**
+     * Allocates time for next move from remaining time on AI's clock.
+     *
+     * @param remaining remaining time on clock in milliseconds.
+     * @param increment time added to clock after each move in milliseconds.
+     */
+    public void setClock(long remaining, long increment) {
+        timeManager.allocate(remaining, increment);
+    }
+
+    /**
+     * Limits search to given amount of nodes instead of time. Only nodes of
+     * main search thread are counted, so results are reproducible when one
+     * thread is used.
+     *
+     * @param nodes maximum amount of nodes, zero for no limit.
+     */
+    public void setNodeLimit(long nodes) {
+        timeManager.setInfinite();
+        timeManager.setNodeLimit(nodes);
+    }
+
+    /**
+     * Makes searches end only when given depth has been searched regardless of
+     * time used.
+     *
+     * @param depth search depth in plies.
+     */
+    public void setFixedDepth(int depth) {
+        setPlies(depth);
+        timeManager.setInfinite();
+        timeManager.setNodeLimit(0);
+    }
+
+    /**
+     * Sets amount of threads used in search. Extra threads are helpers that
+     * search the same situation from their own copies of it with their own
+     * killer moves and principal variations. Only transposition table is
+     * shared, so helpers speed up search by filling it with results that main
+     * thread can use (Lazy SMP). Half of helpers start iterative deepening one
+     * ply deeper than others so threads don't search in lockstep.
+     *
+     * @param threads amount of threads including the calling thread.
+     */
+    @Override
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed");
+        }
+        this.threads = threads;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Stops current search as if time limit was reached. Can be called from
+     * another thread.
+     */
+    public void stop() {
+        stopped = true;
     }
 
     public void reset() {
-        bestValues = new int[plies + 1];
+        stopPondering();
         bestMoves.clear();
-        killerCandidates = new Move[plies];
-        killerMoves = new Move[plies][3];
-        lastPlies = 0;
-        oldestIndex = 0;
-        principalMoves = new Move[plies];
         transpositionTable.clear();
+        helpers = new AILogic[0];
+        initSearchState();
+    }
 
-        for (int i = 0; i < plies; i++) {
-            bestValues[i] = 0;
-            killerCandidates[i] = null;
-            principalMoves[i] = null;
-            for (int j = 0; j < 3; j++) {
-                killerMoves[i][j] = null;
-            }
+    /**
+     * Checks whether search should end. Helpers end when they are stopped or
+     * their main search's time is up. Time isn't up while pondering. Clock
+     * isn't read here but by time manager every few nodes, so this is cheap
+     * to call.
+     *
+     * @return true if search should end.
+     */
+    private boolean timeIsUp() {
+        if (stopped) {
+            return true;
+        }
+        if (owner != null) {
+            return owner.timeIsUp();
         }
-        bestValues[plies] = 0;
+        return !pondering && timeManager.isHardLimitReached();
     }
 
     /**
-     * Returns a random move with highest associated value.
+     * Checks whether next iteration of iterative deepening should be skipped
+     * because it most likely couldn't be completed in time. Helpers and
+     * pondering searches keep iterating until they are stopped.
+     */
+    private boolean softLimitIsReached() {
+        return owner == null && !pondering && timeManager.isSoftLimitReached();
+    }
+
+    /**
+     * Returns a random move with highest associated value. Chosen packed move
+     * is converted to a Move using pieces on current chessboard, so this
+     * should be called before the move is made.
      *
-     * @return random best move
+     * @return random best move or null if player has no legal moves.
      */
     public Move getBestMove() {
-        //return bestMoves.get(new Random().nextInt(bestMoves.size()));
-        //System.out.println("Number of as good choices: " + bestMoves.size());
-        if (usingCompleteLevels) {
+        int best;
+        if (usingCompleteLevels ? bestMovesFromCompleteLevels.isEmpty() : bestMoves.isEmpty()) {
+            return null;
+        } else if (usingCompleteLevels) {
             if (randomized) {
-                return bestMovesFromCompleteLevels.get(new Random().nextInt(bestMovesFromCompleteLevels.size()));
+                best = bestMovesFromCompleteLevels.get(new Random().nextInt(bestMovesFromCompleteLevels.size()));
+            } else {
+                best = bestMovesFromCompleteLevels.get(0);
             }
-            return bestMovesFromCompleteLevels.get(0);
+        } else {
+            best = bestMoves.get(0);
         }
-        return bestMoves.get(0);
+        return PackedMove.toMove(best, sit.getChessBoard());
     }
 
     /**
@@ -199,7 +444,9 @@ public class AILogic implements AI {
      * search, we can use those results to speed up search. If results are of
      * type alpha, we know our search will find values of at least that value.
      * For beta the opposite holds true and if type is exact, we can immediately
-     * return the value.
+     * return the value. Best move saved in the table is tested early even if
+     * saved search was shallower. Root is always searched so that best moves
+     * are known even if another thread has already stored its value.
      *
      * @param height Height from leaf nodes.
      * @param alpha current alpha value.
@@ -208,62 +455,228 @@ public class AILogic implements AI {
      * @return highest value associated with any move.
      */
     public int negaMax(int height, int alpha, int beta, Player maxingPlayer) {
+        return negaMax(searchDepth - height, height, alpha, beta, maxingPlayer);
+    }
+
+    /**
+     * Searches node like negaMax. Ply is distance from root, which is less
+     * than searchDepth - height below moves searched with reduced depth.
+     * Killer moves, principal variation, hash moves and move pickers are
+     * indexed by ply and mates are valued by it.
+     */
+    private int negaMax(int ply, int height, int alpha, int beta, Player maxingPlayer) {
         int ogAlpha = alpha;
-        if (System.currentTimeMillis() - start >= timeLimit) {
+        timeManager.countNode();
+        if (timeIsUp()) {
             return -123456789;
         }
-        TranspositionKey key = null;
+        if (height > 0) {
+            hashMoves[ply] = NONE;
+        }
 
         if (usingTranspositionTable) {
-            key = new TranspositionKey(maxingPlayer, sit.getBoardHash(), height, sit.getMovesTillDraw());
-
-            if (transpositionTable.containsKey(key)) {
-                TranspositionEntry entry = transpositionTable.get(key);
-                transpositionTable.makeSaved(key);
-                switch (entry.getType()) {
-                    case EXACT:
-                        return entry.getValue();
-
-                    case ALPHA:
-                        alpha = Math.max(alpha, entry.getValue());
-                        break;
-
-                    case BETA:
-                        beta = Math.min(beta, entry.getValue());
-                        break;
+            long entry = transpositionTable.probe(sit.getBoardHash(), maxingPlayer);
+
+            if (entry != PackedTranspositionEntry.EMPTY) {
+                if (height > 0) {
+                    hashMoves[ply] = PackedTranspositionEntry.move(entry);
                 }
-                if (alpha >= beta) {
-                    return entry.getValue();
+                if (PackedTranspositionEntry.height(entry) >= height && ply > 0) {
+                    int value = valueFromTable(PackedTranspositionEntry.value(entry), searchDepth - ply);
+                    switch (PackedTranspositionEntry.type(entry)) {
+                        case EXACT:
+                            return value;
+
+                        case ALPHA:
+                            alpha = Math.max(alpha, value);
+                            break;
+
+                        case BETA:
+                            beta = Math.min(beta, value);
+                            break;
+                    }
+                    if (alpha >= beta) {
+                        return value;
+                    }
                 }
             }
         }
         if (height == 0) {
-            int value = evaluateGameSituation(sit, maxingPlayer);
-            if (usingTranspositionTable) {
-                transpositionTable.put(key, new TranspositionEntry(height, value, Type.EXACT));
+            if (!usingQuiescence) {
+                return evaluateGameSituation(sit, maxingPlayer);
             }
-            return value;
-        } else if (CheckingLogic.checkMate(sit, maxingPlayer)) {
-            return -GameSituationEvaluator.victory - height;
+            return quiescence(ply, alpha, beta, maxingPlayer, 0);
+        }
+        if (nullMoveCausesCutoff(ply, height, beta, maxingPlayer)) {
+            return beta;
         }
-        return tryAllPossibleMoves(height, ogAlpha, alpha, maxingPlayer, beta);
+        return tryAllPossibleMoves(ply, height, ogAlpha, alpha, maxingPlayer, beta);
+    }
+
+    /**
+     * Checks if situation is so good for maxing player that even passing the
+     * turn would keep value at least beta. If so, a real move would most
+     * likely do so too and node can be pruned. Passing is searched with a
+     * null window and NULL_MOVE_REDUCTION plies shallower than a move.
+     *
+     * Null move isn't tried at root, when player is in check, right after
+     * another null move, near mate values or when player has only pawns and
+     * king left, as in pawn endings being forced to move (zugzwang) is common
+     * and passing would overestimate the situation.
+     *
+     * @param ply distance from root.
+     * @param height height from leaves.
+     * @param beta current beta value.
+     * @param maxingPlayer player whose turn it is.
+     * @return true if null move failed high.
+     */
+    private boolean nullMoveCausesCutoff(int ply, int height, int beta, Player maxingPlayer) {
+        if (!usingNullMovePruning || height <= NULL_MOVE_REDUCTION || ply == 0
+                || Math.abs(beta) > 20000 || sit.lastMoveWasNull()
+                || !hasPiecesOtherThanPawns(maxingPlayer)
+                || sit.getCheckLogic().checkIfChecked(maxingPlayer)) {
+            return false;
+        }
+        sit.makeNullMove(maxingPlayer);
+        int value = -negaMax(ply + 1, height - 1 - NULL_MOVE_REDUCTION, -beta, -beta + 1, getOpponent(maxingPlayer));
+        sit.unmakeNullMove();
+        return value >= beta && !timeIsUp();
+    }
+
+    private boolean hasPiecesOtherThanPawns(Player player) {
+        BitBoard bb = sit.getChessBoard().getBitBoard();
+        return (bb.getPieces(player, Klass.KNIGHT) | bb.getPieces(player, Klass.BISHOP)
+                | bb.getPieces(player, Klass.ROOK) | bb.getPieces(player, Klass.QUEEN)) != 0;
+    }
+
+    /**
+     * Searches only captures and promotions from a leaf of main search until
+     * position is quiet. Player may stand pat, that is accept static
+     * evaluation, instead of capturing, so evaluation is a lower bound of
+     * value. If player is in check, all legal moves are searched instead and
+     * standing pat isn't allowed. Captures are ordered by static exchange
+     * evaluation. Captures losing material are skipped and so are those
+     * whose exchange gain and DELTA_MARGIN couldn't raise alpha (delta
+     * pruning). Out of check only promotions to queen are searched, but in
+     * check every evasion is. Mates are valued by ply like in negaMax.
+     *
+     * Quiet positions are evaluated with evaluateGameSituation when
+     * quiescence search starts and without win conditions deeper.
+     *
+     * @param ply distance from root.
+     * @param alpha current alpha value.
+     * @param beta current beta value.
+     * @param player player whose turn it is.
+     * @param depth length of capture sequence so far.
+     * @return value of situation after pending captures.
+     */
+    private int quiescence(int ply, int alpha, int beta, Player player, int depth) {
+        timeManager.countNode();
+        if (depth == QUIESCENCE_PLIES || timeIsUp()) {
+            return evaluateWithoutWinConditions(sit, player);
+        }
+        boolean checked = sit.getCheckLogic().checkIfChecked(player);
+        int standPat = 0;
+        int best = -GameSituationEvaluator.victory;
+        if (checked) {
+            ml.legalMovementsByPlayer(player, sit.getChessBoard(), quiescenceStack, depth);
+            if (quiescenceStack.size(depth) == 0) {
+                return GameSituationEvaluator.valueWithoutLegalMoves(sit, player, searchDepth - ply);
+            }
+        } else {
+            standPat = depth == 0 ? evaluateGameSituation(sit, player)
+                    : evaluateWithoutWinConditions(sit, player);
+            if (standPat >= beta) {
+                return standPat;
+            }
+            best = standPat;
+            alpha = Math.max(alpha, standPat);
+            ml.legalCapturesByPlayer(player, sit.getChessBoard(), quiescenceStack, depth);
+        }
+
+        scoreCaptures(depth);
+        for (int i = 0; i < quiescenceStack.size(depth); i++) {
+            selectBestCapture(depth, i);
+            int move = quiescenceStack.get(depth, i);
+            if (!checked) {
+                if (PackedMove.isPromotion(move) && PackedMove.promotion(move) != Klass.QUEEN) {
+                    continue;
+                }
+                int exchange = quiescenceScores[depth][i];
+                if (exchange < 0) {
+                    break;
+                }
+                if (standPat + exchange + DELTA_MARGIN <= alpha) {
+                    continue;
+                }
+            }
+            sit.makeMove(move);
+            int value = -quiescence(ply + 1, -beta, -alpha, getOpponent(player), depth + 1);
+            sit.unmakeMove();
+            sit.setContinues(true);
+            if (timeIsUp()) {
+                return best;
+            }
+            best = Math.max(best, value);
+            alpha = Math.max(alpha, value);
+            if (alpha >= beta) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Saves static exchange evaluation of each move of given quiescence ply.
+     */
+    private void scoreCaptures(int ply) {
+        for (int i = 0; i < quiescenceStack.size(ply); i++) {
+            quiescenceScores[ply][i] = see.evaluate(sit.getChessBoard(), quiescenceStack.get(ply, i));
+        }
+    }
+
+    /**
+     * Moves move with highest static exchange evaluation among moves of given
+     * quiescence ply from given index onwards to that index. Ties are broken
+     * by least valuable moving piece.
+     */
+    private void selectBestCapture(int ply, int index) {
+        int bestIndex = index;
+        for (int i = index + 1; i < quiescenceStack.size(ply); i++) {
+            int score = quiescenceScores[ply][i];
+            int bestScore = quiescenceScores[ply][bestIndex];
+            if (score > bestScore || (score == bestScore
+                    && PackedMove.moved(quiescenceStack.get(ply, i)).ordinal()
+                    < PackedMove.moved(quiescenceStack.get(ply, bestIndex)).ordinal())) {
+                bestIndex = i;
+            }
+        }
+        quiescenceStack.swap(ply, index, bestIndex);
+        int score = quiescenceScores[ply][index];
+        quiescenceScores[ply][index] = quiescenceScores[ply][bestIndex];
+        quiescenceScores[ply][bestIndex] = score;
     }
 
     /**
      * Tries making all possible moves for maxing player and saves highest value
      * associated with a move in table bestValues. First initializes highest
      * value of current height (node) to -123456789 (acting as minus infinity).
-     * Then starts by testing principal variation that is best move for
-     * recursion depth based on earlier iterations followed by killer moves for
-     * this recursion depth. Third we try all captures and last all positional
-     * moves (rest). Also principal variation and killer moves won't be tested
-     * again to speed up search.
+     * Moves are picked by move picker of this ply in stages: principal move
+     * and best move from transposition table, winning captures, killer moves,
+     * counter move, quiet moves ordered by history and finally losing
+     * captures. Moves of later stages are only generated if no earlier move
+     * caused a cutoff. If no move could be picked, player has lost.
      *
-     * If tested move doesn't produce beta-cutoff, move is saved as candidate
-     * for being killer move. If beta-cutoff was reached, last killer candidate
-     * will be saved as new killer move assuming such exists.
+     * Quiet moves picked after FULL_DEPTH_MOVES are searched one ply
+     * shallower (late move reduction) unless node is root or player is in
+     * check, as good moves are usually picked early.
      *
+     * If a quiet move causes beta-cutoff, it is saved as killer move and
+     * counter move to opponent's previous move and its history score is
+     * increased. If search wasn't interrupted, highest value and move leading
+     * to it are saved in transposition table.
      *
+     * @param ply distance from root.
      * @param height recursion depth left (height from leaves).
      * @param ogAlpha original alpha value at this height.
      * @param alpha current alpha-value.
@@ -271,36 +684,84 @@ public class AILogic implements AI {
      * @param beta current beta-value.
      * @return highest value associated with all legal moves.
      */
-    public int tryAllPossibleMoves(int height, int ogAlpha, int alpha, Player maxingPlayer, int beta) {
+    public int tryAllPossibleMoves(int ply, int height, int ogAlpha, int alpha, Player maxingPlayer, int beta) {
+        int previous = sit.lastMove();
+        MovePicker picker = movePickers[ply];
+        picker.init(sit.getChessBoard(), ml, maxingPlayer,
+                usingPrincipalVariation ? principalMoves[ply] : NONE,
+                usingTranspositionTable ? hashMoves[ply] : NONE,
+                usingKillerMoves ? killerMoves[ply] : null,
+                previous == NONE ? NONE : counterMoves[PackedMove.from(previous)][PackedMove.to(previous)],
+                history[maxingPlayer.ordinal()]);
         bestValues[height] = -highestVictoryValue;
-        ChessBoard backUp = copy(sit.getChessBoard());
-        if (usingPrincipalVariation) {
-            alpha = testPrincipalMove(height, maxingPlayer, ogAlpha, alpha, beta, backUp);
+        int bestMove = NONE;
+        int move;
+        boolean reducing = usingLateMoveReductions && height >= REDUCTION_LIMIT && ply > 0
+                && !sit.getCheckLogic().checkIfChecked(maxingPlayer);
+
+        while (alpha < beta && !timeIsUp() && (move = picker.next()) != NONE) {
+            int oldBest = bestValues[height];
+            int reduction = reducing && picker.getPicked() > FULL_DEPTH_MOVES
+                    && !PackedMove.isCapture(move) && !PackedMove.isPromotion(move) ? 1 : 0;
+
+            alpha = testAMove(move, maxingPlayer, ply, height, ogAlpha, alpha, beta, reduction);
+            if (bestValues[height] > oldBest) {
+                bestMove = move;
+            }
+
+            if (alpha >= beta && !PackedMove.isCapture(move) && !PackedMove.isPromotion(move)) {
+                saveQuietCutoff(ply, height, maxingPlayer, move, previous);
+            }
         }
-        if (usingKillerMoves) {
-            alpha = testKillerMoves(height, maxingPlayer, ogAlpha, alpha, beta, backUp);
+        if (picker.getPicked() == 0 && !timeIsUp()) {
+            return GameSituationEvaluator.valueWithoutLegalMoves(sit, maxingPlayer, searchDepth - ply);
+        }
+        if (usingTranspositionTable && !timeIsUp()) {
+            addSituationToTranspositionTable(maxingPlayer, ply, height, ogAlpha, beta, bestMove);
         }
 
-        for (Move movement : sit.getChessBoard().getMovementLogic().possibleMovementsByPlayer(maxingPlayer, sit.getChessBoard())) {
-            if (alpha >= beta || System.currentTimeMillis() - start >= timeLimit) {
-                break;
-            }
+        return bestValues[height];
+    }
 
-            alpha = testAMove(movement.getPiece(), movement.getTarget(), movement.getFrom(), maxingPlayer, height, ogAlpha, alpha, beta, backUp);
+    /**
+     * Remembers quiet move that caused a beta-cutoff. Move is saved as killer
+     * move of its ply and as counter move to opponent's previous move, and its
+     * history score is increased by square of remaining depth so that cutoffs
+     * near root count more than ones near leaves.
+     *
+     * @param ply ply of node.
+     * @param height height from leaves.
+     * @param player player who made the move.
+     * @param move quiet packed move that caused cutoff.
+     * @param previous opponent's previous move or NONE.
+     */
+    private void saveQuietCutoff(int ply, int height, Player player, int move, int previous) {
+        if (usingKillerMoves) {
+            saveKillerMove(ply, move);
+        }
+        if (previous != NONE) {
+            counterMoves[PackedMove.from(previous)][PackedMove.to(previous)] = move;
+        }
+        int[][] scores = history[player.ordinal()];
+        scores[PackedMove.from(move)][PackedMove.to(move)] += height * height;
+        if (scores[PackedMove.from(move)][PackedMove.to(move)] > HISTORY_LIMIT) {
+            ageHistory();
+        }
+    }
 
-            if (alpha >= beta) {
-                if (usingKillerMoves) {
-                    saveNewKillerMove(height);
+    /**
+     * Halves all history scores. Called at the start of each search so that
+     * scores learned in earlier positions fade out gradually, and whenever a
+     * score exceeds HISTORY_LIMIT so that scores don't overflow.
+     */
+    private void ageHistory() {
+        for (int[][] scores : history) {
+            for (int[] fromSquare : scores) {
+                for (int to = 0; to < fromSquare.length; to++) {
+                    fromSquare[to] /= 2;
                 }
-                break;
-            }
-            if (usingKillerMoves) {
-                killerCandidates[searchDepth - height] = movement;
             }
-
         }
-
-        return bestValues[height];
     }
 
     /**
@@ -319,64 +780,34 @@ public class AILogic implements AI {
      * @param ogAlpha original alpha value for this depth.
      * @param maxingPlayer player whose turn it is.
      * @param beta current beta value.
-     * @param backUp backup of situation before moving chosen piece.
      * @param from square piece is located in before movement.
      * @return new alpha value of situation.
      */
-    public int tryMovingPiece(int height, int loopCount, Piece moved, Square from, int ogAlpha, int alpha, int beta, Player maxingPlayer, ChessBoard backUp) {
+    public int tryMovingPiece(int height, int loopCount, Piece moved, Square from, int ogAlpha, int alpha, int beta, Player maxingPlayer) {
+        int ply = searchDepth - height;
 
         for (Square possibility : ml.possibleMoves(moved, sit.getChessBoard())) {
 
-            if (System.currentTimeMillis() - start >= timeLimit) {
+            if (timeIsUp()) {
                 break;
             }
-            /*
-            if (!handledOnThisLoopThrough(loopCount, possibility, height, moved, sit.getChessBoard())) {
-                continue;
-            }
-             */
-            alpha = testAMove(moved, possibility, from, maxingPlayer, height, ogAlpha, alpha, beta, backUp);
+            int move = PackedMove.encode(sit.getChessBoard(), from, possibility);
+            alpha = testAMove(move, maxingPlayer, ply, height, ogAlpha, alpha, beta);
 
             if (alpha >= beta) {
                 if (usingKillerMoves) {
-                    saveNewKillerMove(height);
+                    saveNewKillerMove(ply);
                 }
                 break;
             }
             if (usingKillerMoves) {
-                killerCandidates[searchDepth - height] = new Move(moved, possibility);
+                killerCandidates[ply] = move;
             }
         }
 
         return alpha;
     }
 
-    /*
-    *First loop handles winning captures.
-    *Second handles neutral captures.
-    *Third considers losing captures.
-    *Last considers positional moves.
-     */
-    private boolean handledOnThisLoopThrough(int loopCount, Square possibility, int height,
-            Piece moved, ChessBoard board) {
-        if ((loopCount < 3 && !board.squareIsOccupied(possibility))
-                || (loopCount == 3 && board.squareIsOccupied(possibility))
-                || moveHasBeenTestedAlready(height, moved, possibility)) {
-            return false;
-        }
-
-        if (loopCount < 3) {
-            int movedVal = getValue(sit, moved);
-            int capVal = getValue(sit, board.getPiece(possibility));
-            if ((loopCount == 0 && capVal <= movedVal)
-                    || (loopCount == 1 && capVal != movedVal)
-                    || (loopCount == 2 && capVal >= movedVal)) {
-                return false;
-            }
-        }
-        return true;
-    }
-
     /**
      * Moves chosen piece to chosen square, checks if this changes alpha and
      * undoes move that was made.
@@ -388,127 +819,92 @@ public class AILogic implements AI {
      * @param height height from leaves.
      * @param ogAlpha original alpha value for this depth.
      * @param beta current beta-value.
-     * @param backUp backUp of situation before move is made.
      * @param from square where moved piece is located before move.
      * @return alpha value after testing chosen move.
      */
     public int testAMove(Piece piece, Square possibility, Square from,
-            Player maxingPlayer, int height, int ogAlpha, int alpha, int beta, ChessBoard backUp) {
-        if (System.currentTimeMillis() - start >= timeLimit) {
-            return alpha;
-        }
-
-        int movesTillDraw = sit.getMovesTillDraw();
-        ml.move(piece, possibility, sit);
-        if (piece.getKlass() == PAWN && piece.isAtOpposingEnd()) {
-            sit.decrementCountOfCurrentBoardSituation();
-            PromotionLogic.promote(sit, piece, QUEEN);
-            sit.incrementCountOfCurrentBoardSituation();
-        }
-        alpha = checkForChange(piece, from, possibility, height, maxingPlayer, ogAlpha, alpha, beta);
-        undoMove(backUp, sit, from, possibility, movesTillDraw);
-        sit.setContinues(true);
-        return alpha;
+            Player maxingPlayer, int height, int ogAlpha, int alpha, int beta) {
+        return testAMove(PackedMove.encode(sit.getChessBoard(), from, possibility),
+                maxingPlayer, searchDepth - height, height, ogAlpha, alpha, beta);
     }
 
     /**
-     * After testing principal variation the next likely moves to be best are
-     * killer moves so they are tested next. Killer moves are moves that caused
-     * a (alpha-)beta-cutoff in a node at same depth and they are changed every
-     * time new one is found.
+     * Makes chosen packed move, checks if this changes alpha and undoes move
+     * that was made. Move is made and undone with makeMove and unmakeMove of
+     * game situation so no backup of chessboard is needed.
      *
-     * @param backUp backup of situation on chessboard before move.
-     * @param height recursion depth left counted in turns.
-     * @param maxingPlayer player whose turn it is.
-     * @param alpha current alpha value.
-     * @param beta current beta value.
-     * @return alpha value after testing killer moves.
+     * @param move packed move to be tested.
+     * @param maxingPlayer player whose turn it is to move a piece.
+     * @param ply distance from root.
+     * @param height height from leaves.
+     * @param ogAlpha original alpha value for this depth.
+     * @param alpha current alpha-value.
+     * @param beta current beta-value.
+     * @return alpha value after testing chosen move.
      */
-    private int testKillerMoves(int height, Player maxingPlayer, int ogAlpha, int alpha, int beta, ChessBoard backUp) {
-        for (int i = 0; i < 3; i++) {
-            Move killer = killerMoves[searchDepth - height][i];
-            if (killer == null) {
-                continue;
-            }
-            Piece piece = killer.getPiece();
-            Square from = new Square(piece.getColumn(), piece.getRow());
-            Square to = killer.getTarget();
+    public int testAMove(int move, Player maxingPlayer, int ply, int height, int ogAlpha, int alpha, int beta) {
+        return testAMove(move, maxingPlayer, ply, height, ogAlpha, alpha, beta, 0);
+    }
 
-            if (piece.deepEquals(sit.getChessBoard().getPiece(from))) {
-                if (ml.possibleMoves(piece, sit.getChessBoard()).contains(to)) {
-                    alpha = testAMove(piece, to, from, maxingPlayer, height, ogAlpha, alpha, beta, backUp);
-                }
-            }
+    private int testAMove(int move, Player maxingPlayer, int ply, int height, int ogAlpha, int alpha, int beta, int reduction) {
+        if (timeIsUp()) {
+            return alpha;
         }
 
+        sit.makeMove(move);
+        alpha = checkForChange(move, ply, height, maxingPlayer, ogAlpha, alpha, beta, reduction);
+        sit.unmakeMove();
+        sit.setContinues(true);
         return alpha;
     }
 
     /**
-     * Tries making principal move first. Principal move is assumed to be best
-     * move because of earlier iteration thus testing it first should in most
-     * cases increase alpha value asap causing alpha-beta pruning to cut more
-     * branches.
+     * Checks if killer move candidate exists and is not already saved as
+     * principal variation or killer move before saving killer candidate as new
+     * killer move. Replaces oldest killer move with current killer candidate.
      *
-     * @param backUp backup of situation on chessboard before move.
-     * @param height recursion depth left in turns.
-     * @param maxingPlayer player whose turn it is.
-     * @param alpha current alpha value.
-     * @param beta current beta value.
-     * @return alpha value after testing principal move.
+     * @param ply distance from root.
      */
-    private int testPrincipalMove(int height, Player maxingPlayer, int ogAlpha, int alpha, int beta, ChessBoard backUp) {
-        if (principalMoves[searchDepth - height] != null) {
-            Piece piece = principalMoves[searchDepth - height].getPiece();
-            Square from = new Square(piece.getColumn(), piece.getRow());
-            Square to = principalMoves[searchDepth - height].getTarget();
-
-            if (piece.deepEquals(sit.getChessBoard().getPiece(from))) {
-                if (ml.possibleMoves(piece, sit.getChessBoard()).contains(to)) {
-                    alpha = testAMove(piece, to, from, maxingPlayer, height, ogAlpha, alpha, beta, backUp);
-                }
-            }
+    private void saveNewKillerMove(int ply) {
+        if (saveKillerMove(ply, killerCandidates[ply])) {
+            killerCandidates[ply] = NONE;
         }
-
-        return alpha;
     }
 
     /**
-     * Checks if killer move candidate exists and is not already saved as
-     * principal variation or killer move before saving killer candidate as new
-     * killer move. Replaces oldest killer move with current killer candidate.
+     * Saves given move as killer move of given ply unless it is already
+     * saved as principal variation or killer move. Replaces oldest killer
+     * move.
      *
-     * @param height height from leaves.
+     * @param ply distance from root.
+     * @param move packed move or NONE.
+     * @return true if move was saved.
      */
-    private void saveNewKillerMove(int height) {
-        if (killerCandidates[searchDepth - height] != null
-                && !moveHasBeenTestedAlready(height,
-                        killerCandidates[searchDepth - height].getPiece(),
-                        killerCandidates[searchDepth - height].getTarget())) {
-            killerMoves[searchDepth - height][oldestIndex] = killerCandidates[searchDepth - height];
-            oldestIndex = (oldestIndex + 1) % 3;
-            killerCandidates[searchDepth - height] = null;
+    private boolean saveKillerMove(int ply, int move) {
+        if (move == NONE || moveHasBeenTestedAlready(ply, move)) {
+            return false;
         }
+        killerMoves[ply][oldestIndex] = move;
+        oldestIndex = (oldestIndex + 1) % 3;
+        return true;
     }
 
     /**
      * Checks whether or not chosen move is already saved as killer move or in
-     * principal variation at current height.
+     * principal variation at given ply.
      *
-     * @param height height from leaves.
-     * @param piece piece being moved.
-     * @param possibility square piece is moved to.
+     * @param ply distance from root.
+     * @param move packed move.
      * @return true if move has been tested already.
      */
-    private boolean moveHasBeenTestedAlready(int height, Piece piece, Square possibility) {
-        Move tested = new Move(piece, possibility);
+    private boolean moveHasBeenTestedAlready(int ply, int move) {
         for (int i = 0; i < 3; i++) {
-            if (tested.equals(killerMoves[searchDepth - height][i])) {
+            if (PackedMove.sameMove(move, killerMoves[ply][i])) {
                 return true;
             }
         }
 
-        return tested.equals(principalMoves[searchDepth - height]);
+        return PackedMove.sameMove(move, principalMoves[ply]);
     }
 
     /**
@@ -516,72 +912,202 @@ public class AILogic implements AI {
      * negamax. Updates bestValue for depth and alpha value if necessary. In
      * negamax call alpha and beta are swapped and their signs are changed to
      * use formula max(a,b)=-min(-a,-b) thus preventing need of separate max and
-     * min methods. This is also why value is set to -negamax. Saves current
-     * board situation with given iteration depth left in transposition table
-     * for future use.
+     * min methods. This is also why value is set to -negamax.
+     *
+     * When principal variation search is used and alpha has already been
+     * raised by an earlier move at this depth, move is first searched with a
+     * null window (alpha, alpha + 1) which only proves whether it is better
+     * than alpha. Only if it is, move is searched again with the full window
+     * to find its exact value.
+     *
+     * If best move is chosen randomly, root move failing low exactly at
+     * alpha raised by an earlier move is searched again with window starting
+     * just below alpha to prove whether it is as good as best move.
      *
      * @param maxingPlayer player who's maxing value of situation this turn.
+     * @param ply distance from root.
      * @param height height in game tree.
      * @param alpha previous alpha value.
      * @param beta beta value.
      * @param ogAlpha original alpha value for this depth.
-     * @param piece piece that was moved.
-     * @param possibility square that piece was moved to.
+     * @param move packed move that was made.
      * @return new alpha value.
      */
-    public int checkForChange(Piece piece, Square from, Square possibility, int height, Player maxingPlayer, int ogAlpha, int alpha, int beta) {
+    public int checkForChange(int move, int ply, int height, Player maxingPlayer, int ogAlpha, int alpha, int beta) {
+        return checkForChange(move, ply, height, maxingPlayer, ogAlpha, alpha, beta, 0);
+    }
+
+    /**
+     * Checks if movement was legal and recurses forward like checkForChange.
+     * If reduction is given and move doesn't check opponent, move is first
+     * searched with a null window reduction plies shallower. Move is searched
+     * again normally only if reduced search shows it might be better than
+     * alpha.
+     */
+    private int checkForChange(int move, int ply, int height, Player maxingPlayer, int ogAlpha, int alpha, int beta, int reduction) {
 
         if (sit.getCheckLogic().checkIfChecked(maxingPlayer)) {
             return alpha;
         }
-        int value = -negaMax(height - 1, -beta, -alpha, getOpponent(maxingPlayer));
-
-        if (usingTranspositionTable) {
-            addSituationToTranspositionTable(maxingPlayer, height, value, ogAlpha, beta);
+        int value;
+        if (reduction > 0 && !sit.getCheckLogic().checkIfChecked(getOpponent(maxingPlayer))) {
+            value = -negaMax(ply + 1, height - 1 - reduction, -alpha - 1, -alpha, getOpponent(maxingPlayer));
+            if (value > alpha) {
+                value = searchChild(ply, height, maxingPlayer, ogAlpha, alpha, beta);
+            }
+        } else {
+            value = searchChild(ply, height, maxingPlayer, ogAlpha, alpha, beta);
+        }
+        boolean tie = false;
+        if (ply == 0 && randomized && alpha > ogAlpha && value == alpha) {
+            value = -negaMax(ply + 1, height - 1, -beta, -alpha + 1, getOpponent(maxingPlayer));
+            tie = value == alpha;
         }
 
         if (value >= bestValues[height]) {
-            keepTrackOfBestMoves(height, value, piece, from, possibility);
+            keepTrackOfBestMoves(ply, height, value, move, tie);
             bestValues[height] = value;
         }
         if (value > alpha) {
             alpha = value;
             if (usingPrincipalVariation) {
-                principalMoves[searchDepth - height] = new Move(piece, from, possibility);
+                principalMoves[ply] = move;
             }
         }
         return alpha;
     }
 
-    private void addSituationToTranspositionTable(Player maxingPlayer, int height, int value, int ogAlpha, int beta) {
-        TranspositionKey key = new TranspositionKey(maxingPlayer, sit.getBoardHash(), height, sit.getMovesTillDraw());
-        TranspositionEntry entry = new TranspositionEntry(height, value, Type.ALPHA);
+    /**
+     * Searches situation after a move to full depth. With principal variation
+     * search null window is tried first once alpha has been raised.
+     */
+    private int searchChild(int ply, int height, Player maxingPlayer, int ogAlpha, int alpha, int beta) {
+        Player opponent = getOpponent(maxingPlayer);
+        if (usingPrincipalVariationSearch && alpha > ogAlpha && beta - alpha > 1) {
+            int value = -negaMax(ply + 1, height - 1, -alpha - 1, -alpha, opponent);
+            if (value > alpha && value < beta) {
+                value = -negaMax(ply + 1, height - 1, -beta, -alpha, opponent);
+            }
+            return value;
+        }
+        return -negaMax(ply + 1, height - 1, -beta, -alpha, opponent);
+    }
+
+    /**
+     * Checks if movement of piece from square to possibility was legal and
+     * then recurses forward like checkForChange with packed move.
+     *
+     * @param piece piece that was moved.
+     * @param from square piece was moved from.
+     * @param possibility square that piece was moved to.
+     * @param height height in game tree.
+     * @param maxingPlayer player who's maxing value of situation this turn.
+     * @param ogAlpha original alpha value for this depth.
+     * @param alpha previous alpha value.
+     * @param beta beta value.
+     * @return new alpha value.
+     */
+    public int checkForChange(Piece piece, Square from, Square possibility, int height, Player maxingPlayer, int ogAlpha, int alpha, int beta) {
+        return checkForChange(encodeMadeMove(piece, from, possibility), searchDepth - height, height,
+                maxingPlayer, ogAlpha, alpha, beta);
+    }
 
-        if (bestValues[height] <= ogAlpha) {
-            entry.setType(Type.BETA);
-        } else if (bestValues[height] >= beta) {
-            entry.setType(Type.ALPHA);
-        } else {
-            entry.setType(Type.EXACT);
+    /**
+     * Packs move of piece that has already been made. If move was made with
+     * makeMove it is read from undo stack of game situation. Otherwise
+     * captured piece is looked up from opponent's pieces taken on target
+     * square so that captures aren't recorded as quiet moves.
+     */
+    int encodeMadeMove(Piece piece, Square from, Square possibility) {
+        int fromIndex = BitBoard.squareIndex(from);
+        int toIndex = BitBoard.squareIndex(possibility);
+        int last = sit.lastMove();
+        if (last != NONE && PackedMove.from(last) == fromIndex && PackedMove.to(last) == toIndex) {
+            return last;
+        }
+        Klass captured = null;
+        int flags = 0;
+        for (Piece taken : sit.getChessBoard().getPieces(getOpponent(piece.getOwner()))) {
+            if (taken.isTaken() && taken.getLocation().equals(possibility)) {
+                captured = taken.getKlass();
+            }
         }
-        transpositionTable.put(key, entry);
+        if (captured == null && piece.getKlass() == Klass.PAWN && from.getColumn() != possibility.getColumn()) {
+            captured = Klass.PAWN;
+            flags = PackedMove.EN_PASSANT;
+        }
+        return PackedMove.encode(fromIndex, toIndex, piece.getKlass(), captured, null, flags);
+    }
+
+    /**
+     * Saves highest value found at given height in transposition table. If it
+     * didn't exceed original alpha, real value is at most that. If it reached
+     * beta, real value is at least that. Otherwise value is exact.
+     */
+    private void addSituationToTranspositionTable(Player maxingPlayer, int ply, int height, int ogAlpha, int beta, int bestMove) {
+        transpositionTable.store(sit.getBoardHash(), maxingPlayer, height,
+                valueToTable(bestValues[height], searchDepth - ply), entryType(bestValues[height], ogAlpha, beta), bestMove);
+    }
+
+    /**
+     * Mate values grow by searchDepth - ply of the mated node, so they change
+     * when same situation is found at another ply or in a deeper search. Saved
+     * mate values are made relative to the saving node instead.
+     *
+     * @param value value of node.
+     * @param distance searchDepth - ply of node.
+     */
+    private static int valueToTable(int value, int distance) {
+        if (value > 20000) {
+            return value - distance;
+        } else if (value < -20000) {
+            return value + distance;
+        }
+        return value;
+    }
+
+    /**
+     * Turns mate value saved relative to a node back into value of current
+     * search at node whose searchDepth - ply is given distance.
+     */
+    private static int valueFromTable(int value, int distance) {
+        if (value > 20000) {
+            return value + distance;
+        } else if (value < -20000) {
+            return value - distance;
+        }
+        return value;
+    }
+
+    private static Type entryType(int value, int ogAlpha, int beta) {
+        if (value <= ogAlpha) {
+            return Type.BETA;
+        } else if (value >= beta) {
+            return Type.ALPHA;
+        }
+        return Type.EXACT;
     }
 
     /**
      * Saves best first moves in an arraylist and if better move is found clears
-     * the list of previous moves.
+     * the list of previous moves. Move with the same value as best one is
+     * saved only if it is a proven tie, as value of a move that failed low is
+     * just an upper bound.
      *
+     * @param ply distance from root.
      * @param height depth in game tree.
      * @param value value of situation.
-     * @param piece piece that was moved.
-     * @param possibility square piece was moved to.
+     * @param move packed move that was made.
+     * @param tie true if value was searched with a window below it.
      */
-    private void keepTrackOfBestMoves(int height, int value, Piece piece, Square from, Square possibility) {
-        if (height == searchDepth && System.currentTimeMillis() < start + timeLimit) {
+    private void keepTrackOfBestMoves(int ply, int height, int value, int move, boolean tie) {
+        if (ply == 0 && !timeIsUp()) {
             if (value > bestValues[height]) {
                 bestMoves.clear();
+                bestMoves.add(move);
+            } else if (tie) {
+                bestMoves.add(move);
             }
-            bestMoves.add(new Move(piece, from, possibility));
         }
     }
 
@@ -591,15 +1117,103 @@ public class AILogic implements AI {
      * alpha-beta thus looping over search depths from 1 to wanted depth. If
      * value of best move so far has greater absolute value than 20000, we know
      * that either player will inevitably win the game in i moves and thus
-     * there's no need to loop further.
+     * there's no need to loop further. If more than one thread is used, helper
+     * threads search copies of the situation until this search has ended.
      *
      * @param situation game situation at the beginning of AI's turn.
      */
     public void findBestMoves(GameSituation situation) {
-        start = System.currentTimeMillis();
+        timeManager.start();
+        stopped = false;
+        pondering = false;
+        runSearch(situation);
+    }
+
+    private void runSearch(GameSituation situation) {
+        transpositionTable.newSearch();
+        Thread[] helperThreads = startHelpers(situation);
+        search(situation);
+        stopHelpers(helperThreads);
+    }
+
+    /**
+     * Starts a thread for each helper to search its own copy of given
+     * situation until time of this search is up. Helpers are created again if
+     * amount of threads or plies has changed.
+     *
+     * @param situation situation to be searched.
+     * @return started helper threads.
+     */
+    private Thread[] startHelpers(GameSituation situation) {
+        if (helpers.length != threads - 1 || (helpers.length > 0 && helpers[0].plies != plies)) {
+            helpers = new AILogic[threads - 1];
+            for (int i = 0; i < helpers.length; i++) {
+                helpers[i] = new AILogic(transpositionTable);
+                helpers[i].owner = this;
+                helpers[i].plies = plies;
+                helpers[i].initSearchState();
+                helpers[i].firstDepth = 1 + (i + 1) % 2;
+            }
+        }
+        Thread[] helperThreads = new Thread[helpers.length];
+        for (int i = 0; i < helpers.length; i++) {
+            AILogic helper = helpers[i];
+            helper.stopped = false;
+            helper.usingTranspositionTable = usingTranspositionTable;
+            helper.usingPrincipalVariation = usingPrincipalVariation;
+            helper.usingKillerMoves = usingKillerMoves;
+            helper.usingQuiescence = usingQuiescence;
+            helper.usingPrincipalVariationSearch = usingPrincipalVariationSearch;
+            helper.usingAspirationWindows = usingAspirationWindows;
+            helper.usingNullMovePruning = usingNullMovePruning;
+            helper.usingLateMoveReductions = usingLateMoveReductions;
+            GameSituation copy = situation.copy();
+            helperThreads[i] = new Thread(() -> helper.search(copy), "search-helper-" + (i + 1));
+            helperThreads[i].setDaemon(true);
+            helperThreads[i].start();
+        }
+        return helperThreads;
+    }
+
+    /**
+     * Stops helpers and waits until every helper thread has ended so that no
+     * helper is still using transposition table when next search starts. If
+     * calling thread is interrupted while waiting, waiting continues and
+     * interrupt status is restored after all helpers have been joined.
+     *
+     * @param helperThreads helper threads to be stopped.
+     */
+    private void stopHelpers(Thread[] helperThreads) {
+        for (AILogic helper : helpers) {
+            helper.stop();
+        }
+        boolean interrupted = false;
+        for (Thread helperThread : helperThreads) {
+            while (true) {
+                try {
+                    helperThread.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Searches given situation with iterative deepening starting from depth
+     * firstDepth until time is up, maximum depth is reached or a win is
+     * found.
+     *
+     * @param situation situation to be searched.
+     */
+    private void search(GameSituation situation) {
         sit = situation;
-        transpositionTable.makePairsUnsaved();
         ml = sit.getChessBoard().getMovementLogic();
+        ageHistory();
 
         bestMovesFromCompleteLevels = new ArrayList<>();
         bestValueFromCompleteLevels = -highestVictoryValue;
@@ -607,18 +1221,18 @@ public class AILogic implements AI {
         if (usingPrincipalVariation) {
             salvageLastPrincipalVariation();
         }
-        int i = 1;
+        int i = firstDepth;
         for (; i <= plies; i++) {
             searchDepth = i;
-            negaMax(i, -highestVictoryValue, highestVictoryValue, situation.whoseTurn());
+            searchRoot(i, situation.whoseTurn());
             lastPlies++;
-            if (System.currentTimeMillis() - start >= timeLimit) {
+            if (timeIsUp()) {
                 break;
             }
 
             bestMovesFromCompleteLevels = new ArrayList<>(bestMoves);
             bestValueFromCompleteLevels = bestValues[i];
-            if (Math.abs(bestValues[i]) > 20000) {
+            if (Math.abs(bestValues[i]) > 20000 || softLimitIsReached()) {
                 break;
             }
 
@@ -634,17 +1248,181 @@ public class AILogic implements AI {
         }
     }
 
+    /**
+     * Searches root to given depth. After first iteration root is searched
+     * with an aspiration window around value of previous complete iteration
+     * as most likely value is close to it and narrow window causes more
+     * cutoffs. If value falls outside window, side of window it failed on is
+     * widened and root is searched again until value is inside window. Mate
+     * values and first iteration are searched with full window.
+     *
+     * @param depth search depth.
+     * @param player player whose turn it is.
+     * @return value of root.
+     */
+    private int searchRoot(int depth, Player player) {
+        int previous = bestValueFromCompleteLevels;
+        if (!usingAspirationWindows || depth == firstDepth || Math.abs(previous) > 20000) {
+            return negaMax(0, depth, -highestVictoryValue, highestVictoryValue, player);
+        }
+        int delta = ASPIRATION_WINDOW;
+        int alpha = previous - delta;
+        int beta = previous + delta;
+        while (true) {
+            int value = negaMax(0, depth, alpha, beta, player);
+            if (timeIsUp()) {
+                return value;
+            }
+            if (value <= alpha && alpha > -highestVictoryValue) {
+                delta *= 4;
+                alpha = Math.max(previous - delta, -highestVictoryValue);
+            } else if (value >= beta && beta < highestVictoryValue) {
+                delta *= 4;
+                beta = Math.min(previous + delta, highestVictoryValue);
+            } else {
+                return value;
+            }
+        }
+    }
+
     /*
-    Find best move for current player in this game situation.
+    Find best move for current player in this game situation. If AI has been
+    pondering this situation, pondering search is continued instead.
      */
     public Move findBestMove(GameSituation situation) {
         if (debug) {
             System.out.println("Finding best move for " + situation.whoseTurn());
         }
-        findBestMoves(situation);
+        if (isPonderHit(situation)) {
+            finishPondering(situation);
+        } else {
+            stopPondering();
+            findBestMoves(situation);
+        }
         return getBestMove();
     }
 
+    /**
+     * Starts searching on opponent's time. Opponent's reply is predicted to be
+     * best move saved in transposition table for given situation, which the
+     * search that chose AI's last move filled while refuting it. Situation
+     * after predicted reply is searched in another thread without time limit
+     * until findBestMove or reset is called. Does nothing if no legal reply is
+     * predicted.
+     *
+     * @param situation game situation after AI's move when it's opponent's
+     * turn.
+     */
+    @Override
+    public void ponder(GameSituation situation) {
+        stopPondering();
+        int move = predictReply(situation);
+        if (move == NONE) {
+            return;
+        }
+        predictedMove = move;
+        ponderSituation = situation.copy();
+        ponderSituation.makeMove(move);
+        ponderSituation.setTurn(situation.getTurn() + 1);
+
+        timeManager.start();
+        stopped = false;
+        pondering = true;
+        GameSituation searched = ponderSituation;
+        ponderThread = new Thread(() -> runSearch(searched), "ponder");
+        ponderThread.setDaemon(true);
+        ponderThread.start();
+    }
+
+    /**
+     * Returns legal reply of opponent whose turn it is in given situation
+     * that is most likely according to last search. Principal moves aren't
+     * used, as principal move of a ply is overwritten in any node of that ply
+     * that raises alpha, also below root moves that are refuted later.
+     */
+    private int predictReply(GameSituation situation) {
+        int candidate = NONE;
+        if (usingTranspositionTable) {
+            long entry = transpositionTable.probe(situation.getBoardHash(), situation.whoseTurn());
+            if (entry != PackedTranspositionEntry.EMPTY) {
+                candidate = PackedTranspositionEntry.move(entry);
+            }
+        }
+        if (candidate == NONE) {
+            return NONE;
+        }
+        MoveStack replies = new MoveStack(1);
+        situation.getChessBoard().getMovementLogic()
+                .legalMovementsByPlayer(situation.whoseTurn(), situation.getChessBoard(), replies, 0);
+        if (!replies.moveToIndex(0, candidate, 0)) {
+            return NONE;
+        }
+        return replies.get(0, 0);
+    }
+
+    /**
+     * Ponder hit happens when opponent made predicted reply, so given
+     * situation is the one being searched.
+     */
+    private boolean isPonderHit(GameSituation situation) {
+        return ponderThread != null
+                && situation.getTurn() == ponderSituation.getTurn()
+                && situation.getBoardHash() == ponderSituation.getBoardHash();
+    }
+
+    /**
+     * Turns pondering search into a normal one. Time spent pondering counts
+     * towards time limit, but at least half of time limit is left for search
+     * after ponder hit, so search ends immediately only if it has already
+     * reached maximum depth or found a win.
+     */
+    private void finishPondering(GameSituation situation) {
+        long hit = System.currentTimeMillis();
+        long searchStart = hit - timeManager.elapsed();
+        timeManager.restartAt(Math.max(searchStart, hit - timeManager.getHardLimit() / 2));
+        pondering = false;
+        joinPonderThread();
+        sit = situation;
+        ml = sit.getChessBoard().getMovementLogic();
+    }
+
+    /**
+     * Stops pondering and discards its results. Transposition table entries
+     * found while pondering are kept as they are valid in any search.
+     */
+    @Override
+    public void stopPondering() {
+        if (ponderThread == null) {
+            return;
+        }
+        stop();
+        joinPonderThread();
+        pondering = false;
+    }
+
+    private void joinPonderThread() {
+        try {
+            ponderThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ponderThread = null;
+        ponderSituation = null;
+    }
+
+    public boolean isPondering() {
+        return ponderThread != null;
+    }
+
+    /**
+     * Returns opponent's reply that was predicted when pondering last started.
+     *
+     * @return packed move or NONE if AI hasn't pondered.
+     */
+    public int getPredictedMove() {
+        return predictedMove;
+    }
+
     /**
      * Sets matching part of last principal variation as start for current one.
      * So current principal variation will be moves in last one minus the moves
@@ -663,9 +1441,9 @@ public class AILogic implements AI {
                     }
                 } else {
                     for (int j = 0; j < 3; j++) {
-                        killerMoves[i][j] = null;
+                        killerMoves[i][j] = NONE;
                     }
-                    principalMoves[i] = null;
+                    principalMoves[i] = NONE;
                 }
             }
         }
@@ -1,13 +1,14 @@
 package chess.logic.ailogic;
 
+import chess.domain.board.BitBoard;
 import chess.domain.board.Klass;
 import chess.domain.board.Piece;
 import chess.domain.GameSituation;
 import chess.domain.board.Player;
+import chess.domain.datastructures.PawnHashTable;
 import static chess.domain.board.Player.getOpponent;
-import static chess.domain.board.Klass.*;
-import java.util.HashMap;
-import java.util.Map;
+import chess.logic.movementlogic.AttackTables;
+import chess.logic.movementlogic.MagicAttackTables;
 
 /**
  * This class offers method evaluateGameSituation which is used to evaluate the
@@ -15,102 +16,199 @@ import java.util.Map;
  * Hans Berliner. All values are measured in centipawns (one hundredth of pawn's
  * value).
  *
+ * Every term has separate middlegame and endgame values that are blended by
+ * game phase. Phase is counted from remaining knights, bishops, rooks and
+ * queens so that it is MAX_PHASE in starting position and zero when only kings
+ * and pawns remain. This way for example king is kept safe in the corner while
+ * there's material on board and brought to center in endgame.
+ *
+ * @see <a href="https://www.chessprogramming.org/Tapered_Eval">Tapered
+ * evaluation</a>
+ *
  * @author sami
  */
 public class GameSituationEvaluator {
 
-    private static Map<Klass, Integer> values;
-    private static Map<Klass, Integer[][]> positionalValues;
-    private static final int mobilityWeight = 10;
-    public static final int victory = 123456789;
-
-    private static void initValues() {
-        values = new HashMap();
-        values.put(PAWN, 100);
-        values.put(KNIGHT, 320);
-        values.put(BISHOP, 333);
-        values.put(ROOK, 510);
-        values.put(QUEEN, 880);
-        values.put(KING, 40000);
-    }
-
-    private static void initPositionValues() {
-        positionalValues = new HashMap();
-        initBishopPositionalValues();
-        initKingPositionalValues();
-        initKnightPositionalValues();
-        initPawnPositionalValues();
-        initQueenPositionalValues();
-        initRookPositionalValues();
-    }
-
-    private static void initBishopPositionalValues() {
-        Integer[][] bishopValues = {{-20, - 10, -10, -10, -10, -10, -10, -20},
+    /**
+     * Phase of starting position.
+     */
+    public static final int MAX_PHASE = 24;
+    /**
+     * Middlegame material values indexed by ordinal of class.
+     */
+    private static final int[] values = {100, 320, 333, 510, 880, 40000};
+    /**
+     * Endgame material values indexed by ordinal of class.
+     */
+    private static final int[] endgameValues = {130, 300, 330, 540, 920, 40000};
+    /**
+     * How much each piece of given class counts towards game phase indexed by
+     * ordinal of class.
+     */
+    private static final int[] phaseWeights = {0, 1, 1, 2, 4, 0};
+    /**
+     * Middlegame positional values of each class indexed by ordinal of class,
+     * row and column from black's point of view. White's values are mirrored.
+     */
+    private static final int[][][] positionalValues = {
+        {{0, 0, 0, 0, 0, 0, 0, 0},
+        {5, 10, 10, -20, -20, 10, 10, 5},
+        {5, -5, -10, 0, 0, -10, -5, 5}, {0, 0, 0, 20, 20, 0, 0, 0},
+        {5, 5, 10, 25, 25, 10, 5, 5}, {10, 10, 20, 30, 30, 20, 10, 10},
+        {50, 50, 50, 50, 50, 50, 50, 50}, {0, 0, 0, 0, 0, 0, 0, 0}},
+        {{-50, -40, -30, -30, -30, -30, -40, -50},
+        {-40, -20, 0, 5, 5, 0, -20, -40}, {-30, 5, 10, 15, 15, 10, 5, -30},
+        {-30, 0, 15, 20, 20, 15, 0, -30}, {-30, 5, 15, 20, 20, 15, 5, -30},
+        {-30, 0, 10, 15, 15, 10, 0, -30}, {-40, -20, 0, 0, 0, 0, -20, -40},
+        {-50, -40, -30, -30, -30, -30, -40, -50}},
+        {{-20, - 10, -10, -10, -10, -10, -10, -20},
         {-10, 5, 0, 0, 0, 0, 5, -10}, {-10, 10, 10, 10, 10, 10, 10, -10},
         {-10, 0, 10, 10, 10, 10, 0, -10}, {-10, 5, 5, 10, 10, 5, 5, -10},
         {-10, 0, 5, 10, 10, 5, 0, -10}, {-10, 0, 0, 0, 0, 0, 0, -10},
-        {-20, - 10, -10, -10, -10, -10, -10, -20}};
-        positionalValues.put(BISHOP, bishopValues);
-    }
-
-    private static void initKingPositionalValues() {
-        Integer[][] kingValues = {{20, 30, 10, 0, 0, 10, 30, 20},
+        {-20, - 10, -10, -10, -10, -10, -10, -20}},
+        {{0, 0, 0, 5, 5, 0, 0, 0},
+        {-5, 0, 0, 0, 0, 0, 0, -5}, {-5, 0, 0, 0, 0, 0, 0, -5},
+        {-5, 0, 0, 0, 0, 0, 0, -5}, {-5, 0, 0, 0, 0, 0, 0, -5},
+        {-5, 0, 0, 0, 0, 0, 0, -5}, {5, 10, 10, 10, 10, 10, 10, 5},
+        {0, 0, 0, 0, 0, 0, 0, 0}},
+        {{-20, -10, -10, -5, -5, -10, -10, -20},
+        {-10, 0, 5, 0, 0, 0, 0, -10}, {-10, 5, 5, 5, 5, 5, 0, -10},
+        {0, 0, 5, 5, 5, 5, 0, -5}, {-5, 0, 5, 5, 5, 5, 0, -5},
+        {-10, 0, 5, 5, 5, 5, 0, - 10}, {-10, 0, 0, 0, 0, 0, 0, -10},
+        {-20, -10, -10, -5, -5, -10, -10, -20}},
+        {{20, 30, 10, 0, 0, 10, 30, 20},
         {20, 20, 0, 0, 0, 0, 20, 20}, {-10, -20, -20, -20, -20, -20, -20, -10},
         {-20, -30, -30, -40, -40, -30, -30, -20}, {-30, -40, -40, -50, -50, -40, -40, -30},
         {-30, -40, -40, -50, -50, -40, -40, -30}, {-30, -40, -40, -50, -50, -40, -40, -30},
-        {-30, -40, -40, -50, -50, -40, -40, -30}};
-        positionalValues.put(KING, kingValues);
+        {-30, -40, -40, -50, -50, -40, -40, -30}}};
+    /**
+     * Endgame positional values indexed like middlegame ones. Pawns gain
+     * value as they advance and king is rewarded for being central.
+     * Other classes use their middlegame tables.
+     */
+    private static final int[][][] endgamePositionalValues = {
+        {{0, 0, 0, 0, 0, 0, 0, 0},
+        {0, 0, 0, 0, 0, 0, 0, 0}, {5, 5, 5, 5, 5, 5, 5, 5},
+        {10, 10, 10, 10, 10, 10, 10, 10}, {20, 20, 20, 20, 20, 20, 20, 20},
+        {35, 35, 35, 35, 35, 35, 35, 35}, {60, 60, 60, 60, 60, 60, 60, 60},
+        {0, 0, 0, 0, 0, 0, 0, 0}},
+        positionalValues[1], positionalValues[2], positionalValues[3], positionalValues[4],
+        {{-50, -40, -30, -20, -20, -30, -40, -50},
+        {-30, -20, -10, 0, 0, -10, -20, -30}, {-30, -10, 20, 30, 30, 20, -10, -30},
+        {-30, -10, 30, 40, 40, 30, -10, -30}, {-30, -10, 30, 40, 40, 30, -10, -30},
+        {-30, -10, 20, 30, 30, 20, -10, -30}, {-30, -30, 0, 0, 0, 0, -30, -30},
+        {-50, -30, -30, -30, -30, -30, -30, -50}}};
+    /**
+     * Material value plus positional value of each piece on each square
+     * indexed by piece code of BitBoard and bit index of square.
+     */
+    private static final int[][] squareValues = new int[12][64];
+    /**
+     * Endgame material value plus positional value of each piece on each
+     * square indexed like squareValues.
+     */
+    private static final int[][] endgameSquareValues = new int[12][64];
+    /**
+     * Value of each safe square a piece attacks indexed by ordinal of class.
+     * Pawns and king get no mobility bonus as pawn structure and king safety
+     * matter more for them than freedom of movement.
+     */
+    private static final int[] mobilityWeights = {0, 8, 7, 4, 2, 0};
+    /**
+     * Endgame mobility weights indexed by ordinal of class. Rooks and queens
+     * gain activity as board empties.
+     */
+    private static final int[] endgameMobilityWeights = {0, 6, 7, 6, 4, 0};
+    public static final int victory = 123456789;
+    /**
+     * Cache of pawn structure scores shared by all searches. Scores only
+     * depend on pawns and pawn keys are same for all boards, so any thread
+     * may use entries saved by others.
+     */
+    private static final PawnHashTable pawnHashTable = new PawnHashTable();
+
+    /**
+     * Tables are initialized when class is loaded so that evaluation can be
+     * used by several search threads at once.
+     */
+    static {
+        for (Player player : Player.values()) {
+            for (Klass klass : Klass.values()) {
+                for (int square = 0; square < 64; square++) {
+                    int code = BitBoard.pieceCode(player, klass);
+                    int column = BitBoard.column(square);
+                    int row = BitBoard.row(square);
+                    squareValues[code][square] = values[klass.ordinal()]
+                            + positionalValue(positionalValues, player, klass, column, row);
+                    endgameSquareValues[code][square] = endgameValues[klass.ordinal()]
+                            + positionalValue(endgamePositionalValues, player, klass, column, row);
+                }
+            }
+        }
     }
 
-    private static void initKnightPositionalValues() {
-        Integer[][] knightValues = {{-50, -40, -30, -30, -30, -30, -40, -50},
-        {-40, -20, 0, 5, 5, 0, -20, -40}, {-30, 5, 10, 15, 15, 10, 5, -30},
-        {-30, 0, 15, 20, 20, 15, 0, -30}, {-30, 5, 15, 20, 20, 15, 5, -30},
-        {-30, 0, 10, 15, 15, 10, 0, -30}, {-40, -20, 0, 0, 0, 0, -20, -40},
-        {-50, -40, -30, -30, -30, -30, -40, -50}};
-        positionalValues.put(KNIGHT, knightValues);
+    private static int positionalValue(int[][][] tables, Player player, Klass klass, int column, int row) {
+        if (player == Player.BLACK) {
+            return tables[klass.ordinal()][row][column];
+        }
+        return tables[klass.ordinal()][7 - row][7 - column];
     }
 
-    private static void initPawnPositionalValues() {
-        Integer[][] pawnValues = {{0, 0, 0, 0, 0, 0, 0, 0},
-        {5, 10, 10, -20, -20, 10, 10, 5},
-        {5, -5, -10, 0, 0, -10, -5, 5}, {0, 0, 0, 20, 20, 0, 0, 0},
-        {5, 5, 10, 25, 25, 10, 5, 5}, {10, 10, 20, 30, 30, 20, 10, 10},
-        {50, 50, 50, 50, 50, 50, 50, 50}, {0, 0, 0, 0, 0, 0, 0, 0}};
-        positionalValues.put(PAWN, pawnValues);
+    /**
+     * Returns material value plus positional value of piece with given code
+     * on given square. BitBoard keeps running totals of these for both
+     * players.
+     *
+     * @param pieceCode piece code of BitBoard.
+     * @param square bit index of square.
+     * @return value of piece on square in centipawns.
+     */
+    public static int squareValue(int pieceCode, int square) {
+        return squareValues[pieceCode][square];
     }
 
-    private static void initQueenPositionalValues() {
-        Integer[][] queenValues = {{-20, -10, -10, -5, -5, -10, -10, -20},
-        {-10, 0, 5, 0, 0, 0, 0, -10}, {-10, 5, 5, 5, 5, 5, 0, -10},
-        {0, 0, 5, 5, 5, 5, 0, -5}, {-5, 0, 5, 5, 5, 5, 0, -5},
-        {-10, 0, 5, 5, 5, 5, 0, - 10}, {-10, 0, 0, 0, 0, 0, 0, -10},
-        {-20, -10, -10, -5, -5, -10, -10, -20}};
-        positionalValues.put(QUEEN, queenValues);
+    /**
+     * Returns endgame material value plus positional value of piece with
+     * given code on given square.
+     *
+     * @param pieceCode piece code of BitBoard.
+     * @param square bit index of square.
+     * @return endgame value of piece on square in centipawns.
+     */
+    public static int endgameSquareValue(int pieceCode, int square) {
+        return endgameSquareValues[pieceCode][square];
     }
 
-    private static void initRookPositionalValues() {
-        Integer[][] rookValues = {{0, 0, 0, 5, 5, 0, 0, 0},
-        {-5, 0, 0, 0, 0, 0, 0, -5}, {-5, 0, 0, 0, 0, 0, 0, -5},
-        {-5, 0, 0, 0, 0, 0, 0, -5}, {-5, 0, 0, 0, 0, 0, 0, -5},
-        {-5, 0, 0, 0, 0, 0, 0, -5}, {5, 10, 10, 10, 10, 10, 10, 5},
-        {0, 0, 0, 0, 0, 0, 0, 0}};
-        positionalValues.put(ROOK, rookValues);
+    /**
+     * Returns how much piece of given class counts towards game phase.
+     *
+     * @param klass class of piece.
+     * @return phase weight of class.
+     */
+    public static int phaseWeight(Klass klass) {
+        return phaseWeights[klass.ordinal()];
     }
 
-    private static int getPositionalValue(Piece piece) {
-        if (piece.getOwner() == Player.BLACK) {
-            return positionalValues.get(piece.getKlass())[piece.getRow()][piece.getColumn()];
-        }
-        return positionalValues.get(piece.getKlass())[7 - piece.getRow()][7 - piece.getColumn()];
+    /**
+     * Blends middlegame and endgame values by game phase. Phase higher than
+     * MAX_PHASE, possible after promotions, counts as MAX_PHASE.
+     *
+     * @param middlegame value in middlegame.
+     * @param endgame value in endgame.
+     * @param phase game phase.
+     * @return interpolated value.
+     */
+    public static int taper(int middlegame, int endgame, int phase) {
+        phase = Math.min(phase, MAX_PHASE);
+        return (middlegame * phase + endgame * (MAX_PHASE - phase)) / MAX_PHASE;
     }
 
     /**
      * Calculates value of given game situation from given player's point of
      * view. Uses multiple helper functions to calculate different partial
-     * values like mobility (amount of possible moves player can make) or
+     * values like mobility (safe squares attacked by player's pieces),
      * material value of situation (flat material value of owned pieces plus
-     * their positional values).
+     * their positional values), pawn structure or king safety.
      *
      * @param sit current game situation
      * @param player player from whose point of view value is calculated.
@@ -129,47 +227,196 @@ public class GameSituationEvaluator {
     }
     
     public static int evaluateWithoutWinConditions(GameSituation sit, Player player) {
+        BitBoard bb = sit.getChessBoard().getBitBoard();
+        long own = activity(bb, player);
+        long enemy = activity(bb, getOpponent(player));
         int value=0;
         value += materialValue(sit, player);
-        value += mobilityValue(sit, player);
+        value += mobility(own) - mobility(enemy);
+        value += pawnStructureValue(sit, player);
+        value += kingSafetyValue(bb, player, own, enemy);
         return value;
     }
 
+    /**
+     * Returns value of situation where given player has no legal moves.
+     * Player is checkmated if its king is checked and stalemated otherwise.
+     * Mates found closer to root of search are worth more.
+     *
+     * @param sit game situation.
+     * @param player player who has no legal moves.
+     * @param height height from leaves of search.
+     * @return -victory - height if player is checkmated, zero if stalemated.
+     */
+    public static int valueWithoutLegalMoves(GameSituation sit, Player player, int height) {
+        if (sit.getCheckLogic().checkIfChecked(player)) {
+            return -victory - height;
+        }
+        return 0;
+    }
+
+    /**
+     * Returns material and positional value of given player's pieces minus
+     * those of opponent blended by game phase. Values are read from running
+     * totals kept by bitboard of chessboard, so this takes constant time.
+     *
+     * @param situation game situation.
+     * @param player player from whose point of view value is calculated.
+     * @return material value of situation.
+     */
     public static int materialValue(GameSituation situation, Player player) {
-        if (values == null) {
-            initValues();
+        BitBoard bb = situation.getChessBoard().getBitBoard();
+        Player opponent = getOpponent(player);
+        return taper(bb.getMaterial(player) - bb.getMaterial(opponent),
+                bb.getEndgameMaterial(player) - bb.getEndgameMaterial(opponent), bb.getPhase());
+    }
+
+    /**
+     * Returns mobility of given player's pieces minus that of opponent.
+     * Mobility is counted from attack masks instead of generating moves: each
+     * piece gets weight of its class for every square it attacks that isn't
+     * occupied by own piece or attacked by enemy pawn. Middlegame and endgame
+     * weights are blended by game phase.
+     *
+     * @param sit game situation.
+     * @param player player from whose point of view value is calculated.
+     * @return mobility value of situation.
+     */
+    public static int mobilityValue(GameSituation sit, Player player) {
+        BitBoard bb = sit.getChessBoard().getBitBoard();
+        return mobility(activity(bb, player)) - mobility(activity(bb, getOpponent(player)));
+    }
+
+    /**
+     * Computes attack mask of each knight, bishop, rook and queen of given
+     * player once and counts both mobility and attacks on enemy king zone
+     * from it.
+     *
+     * @param bb bitboard of chessboard.
+     * @param player owner of pieces.
+     * @return tapered mobility in high and king attack penalty in low 32 bits.
+     */
+    private static long activity(BitBoard bb, Player player) {
+        long safe = ~bb.getOccupied(player) & ~pawnAttacks(bb, getOpponent(player));
+        long zone = KingSafetyEvaluator.kingZone(bb, getOpponent(player));
+        int middlegame = 0;
+        int endgame = 0;
+        int attackers = 0;
+        int units = 0;
+        for (Klass klass : Klass.values()) {
+            if (mobilityWeights[klass.ordinal()] == 0) {
+                continue;
+            }
+            long pieces = bb.getPieces(player, klass);
+            while (pieces != 0) {
+                long attacks = attacks(bb, klass, Long.numberOfTrailingZeros(pieces));
+                int squares = Long.bitCount(attacks & safe);
+                middlegame += mobilityWeights[klass.ordinal()] * squares;
+                endgame += endgameMobilityWeights[klass.ordinal()] * squares;
+                int attacked = Long.bitCount(attacks & zone);
+                if (attacked > 0) {
+                    attackers++;
+                    units += KingSafetyEvaluator.attackUnits(klass, attacked);
+                }
+                pieces &= pieces - 1;
+            }
         }
+        return ((long) taper(middlegame, endgame, bb.getPhase()) << 32)
+                | KingSafetyEvaluator.attackPenalty(attackers, units);
+    }
+
+    private static int mobility(long activity) {
+        return (int) (activity >> 32);
+    }
 
-        if (positionalValues == null) {
-            initPositionValues();
+    private static int kingAttackPenalty(long activity) {
+        return (int) activity;
+    }
+
+    /**
+     * Returns pawn structure value of situation for given player. Score is
+     * read from pawn hash table by pawn key of board and computed with
+     * PawnStructureEvaluator only if it isn't found.
+     *
+     * @param sit game situation.
+     * @param player player from whose point of view value is calculated.
+     * @return pawn structure value of situation.
+     */
+    public static int pawnStructureValue(GameSituation sit, Player player) {
+        BitBoard bb = sit.getChessBoard().getBitBoard();
+        long key = bb.getPawnKey();
+        long entry = pawnHashTable.probe(key);
+        if (entry == PawnHashTable.MISSING) {
+            entry = PawnStructureEvaluator.evaluate(bb);
+            pawnHashTable.store(key, entry);
         }
+        int value = taper(PawnHashTable.middlegame(entry), PawnHashTable.endgame(entry), bb.getPhase());
+        return player == Player.WHITE ? value : -value;
+    }
 
-        int value = situation.getChessBoard().getPieces(player).stream()
-                .filter(piece -> !piece.isTaken())
-                .mapToInt(piece -> values.get(piece.getKlass()) + getPositionalValue(piece))
-                .sum();
+    /**
+     * Returns king safety of given player minus that of opponent. King safety
+     * only has middlegame value, so it fades out as material leaves board.
+     *
+     * @param sit game situation.
+     * @param player player from whose point of view value is calculated.
+     * @return king safety value of situation.
+     */
+    public static int kingSafetyValue(GameSituation sit, Player player) {
+        BitBoard bb = sit.getChessBoard().getBitBoard();
+        return kingSafetyValue(bb, player, activity(bb, player), activity(bb, getOpponent(player)));
+    }
 
-        value -= situation.getChessBoard().getPieces(getOpponent(player)).stream()
-                .filter(piece -> !piece.isTaken())
-                .mapToInt(piece -> values.get(piece.getKlass()) + getPositionalValue(piece))
-                .sum();
-        return value;
+    private static int kingSafetyValue(BitBoard bb, Player player, long own, long enemy) {
+        int value = KingSafetyEvaluator.evaluate(bb, player, kingAttackPenalty(enemy))
+                - KingSafetyEvaluator.evaluate(bb, getOpponent(player), kingAttackPenalty(own));
+        return taper(value, 0, bb.getPhase());
     }
 
-    public static int mobilityValue(GameSituation sit, Player player) {
-        int value = sit.getChessBoard().getPieces(player).stream()
-                .filter(p -> !p.isTaken())
-                .mapToInt(p -> {
-                    return sit.getChessBoard().getMovementLogic().possibleMoves(p, sit.getChessBoard()).size();
-                }).sum();
+    /**
+     * Returns king safety of given player without opponent's.
+     *
+     * @param bb bitboard of chessboard.
+     * @param player owner of king.
+     * @return middlegame king safety score of player, zero or negative.
+     */
+    static int kingSafety(BitBoard bb, Player player) {
+        return KingSafetyEvaluator.evaluate(bb, player, kingAttackPenalty(activity(bb, getOpponent(player))));
+    }
 
-        value -= sit.getChessBoard().getPieces(getOpponent(player)).stream()
-                .filter(p -> !p.isTaken())
-                .mapToInt(p -> {
-                    return sit.getChessBoard().getMovementLogic().possibleMoves(p, sit.getChessBoard()).size();
-                }).sum();
+    private static long pawnAttacks(BitBoard bb, Player player) {
+        long attacks = 0;
+        long pawns = bb.getPieces(player, Klass.PAWN);
+        while (pawns != 0) {
+            attacks |= AttackTables.pawnAttacks(player, Long.numberOfTrailingZeros(pawns));
+            pawns &= pawns - 1;
+        }
+        return attacks;
+    }
 
-        return mobilityWeight * value;
+    private static long attacks(BitBoard bb, Klass klass, int square) {
+        switch (klass) {
+            case KNIGHT:
+                return AttackTables.knightAttacks(square);
+            case BISHOP:
+                return MagicAttackTables.bishopAttacks(square, bb.getAllPieces());
+            case ROOK:
+                return MagicAttackTables.rookAttacks(square, bb.getAllPieces());
+            case QUEEN:
+                return MagicAttackTables.queenAttacks(square, bb.getAllPieces());
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Returns material value of given class without positional value.
+     *
+     * @param klass class of piece.
+     * @return value of piece of given class in centipawns.
+     */
+    public static int pieceValue(Klass klass) {
+        return values[klass.ordinal()];
     }
 
     /**
@@ -179,8 +426,14 @@ public class GameSituationEvaluator {
      * @return value of piece
      */
     public static int getValue(GameSituation sit, Piece piece) {
-        int value = values.get(piece.getKlass()) + getPositionalValue(piece);
-        value += mobilityWeight * sit.getChessBoard().getMovementLogic().possibleMoves(piece, sit.getChessBoard()).size();
-        return value;
+        BitBoard bb = sit.getChessBoard().getBitBoard();
+        Player owner = piece.getOwner();
+        int klass = piece.getKlass().ordinal();
+        int code = BitBoard.pieceCode(owner, piece.getKlass());
+        int square = BitBoard.squareIndex(piece.getColumn(), piece.getRow());
+        long safe = ~bb.getOccupied(owner) & ~pawnAttacks(bb, getOpponent(owner));
+        int squares = Long.bitCount(attacks(bb, piece.getKlass(), square) & safe);
+        return taper(squareValues[code][square] + mobilityWeights[klass] * squares,
+                endgameSquareValues[code][square] + endgameMobilityWeights[klass] * squares, bb.getPhase());
     }
 }
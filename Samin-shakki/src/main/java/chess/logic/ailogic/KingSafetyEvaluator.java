@@ -0,0 +1,155 @@
+package chess.logic.ailogic;
+
+import chess.domain.board.BitBoard;
+import chess.domain.board.Klass;
+import static chess.domain.board.Klass.*;
+import chess.domain.board.Player;
+import static chess.domain.board.Player.getOpponent;
+import chess.logic.movementlogic.AttackTables;
+
+/**
+ * This class evaluates safety of king from bitboards. King zone is king's
+ * square and squares next to it. Every enemy knight, bishop, rook and queen
+ * attacking king zone adds attack units by its class for each square of zone
+ * it attacks. If at least two pieces attack the zone, units are turned into a
+ * penalty from a table that grows faster than linearly, so coordinated attacks
+ * are feared much more than a single piece near king.
+ *
+ * Missing pawns in front of king are also penalized: each column next to or
+ * under king without own pawn one or two squares in front of king costs
+ * SHIELD, and without any own pawn OPEN_COLUMN. Column without any pawns costs
+ * OPEN_COLUMN twice.
+ *
+ * Attack masks of pieces are computed only once per evaluation by
+ * GameSituationEvaluator, which counts mobility and hits on king zone from
+ * the same masks. This class only turns those hits into a penalty. Values are
+ * middlegame values as king safety doesn't matter when there's little
+ * material left.
+ *
+ * @see <a href="https://www.chessprogramming.org/King_Safety">King safety</a>
+ *
+ * @author sami
+ */
+public class KingSafetyEvaluator {
+
+    private static final int SHIELD = 12;
+    private static final int OPEN_COLUMN = 15;
+    /**
+     * Attack units for each square of king zone attacked indexed by ordinal of
+     * class.
+     */
+    private static final int[] ATTACK_UNITS = {0, 2, 2, 3, 5, 0};
+    /**
+     * Penalty in centipawns indexed by attack units.
+     */
+    private static final int[] SAFETY_TABLE = new int[100];
+    private static final int MAX_SAFETY_PENALTY = 500;
+
+    private static final long[] COLUMNS = new long[8];
+    /**
+     * Squares one or two rows in front of king on its and adjacent columns
+     * indexed by ordinal of owner and square of king.
+     */
+    private static final long[][] SHIELD_ZONE = new long[2][64];
+
+    static {
+        for (int units = 0; units < SAFETY_TABLE.length; units++) {
+            SAFETY_TABLE[units] = Math.min(MAX_SAFETY_PENALTY, units * units / 2);
+        }
+        for (int column = 0; column < 8; column++) {
+            for (int row = 0; row < 8; row++) {
+                COLUMNS[column] |= 1L << BitBoard.squareIndex(column, row);
+            }
+        }
+        for (Player player : Player.values()) {
+            for (int square = 0; square < 64; square++) {
+                for (int distance = 1; distance <= 2; distance++) {
+                    int row = BitBoard.row(square) + distance * player.getDirection();
+                    if (row >= 0 && row < 8) {
+                        SHIELD_ZONE[player.ordinal()][square] |= (0xFFL << (8 * row))
+                                & (COLUMNS[BitBoard.column(square)] | AttackTables.kingAttacks(square));
+                    }
+                }
+            }
+        }
+    }
+
+    private KingSafetyEvaluator() {
+    }
+
+    /**
+     * Returns king zone of given player: square of king and squares next to
+     * it. Returns empty set if player has no king.
+     *
+     * @param bb bitboard of chessboard.
+     * @param player owner of king.
+     * @return king zone as bitboard.
+     */
+    static long kingZone(BitBoard bb, Player player) {
+        long king = bb.getPieces(player, KING);
+        if (king == 0) {
+            return 0;
+        }
+        return AttackTables.kingAttacks(Long.numberOfTrailingZeros(king)) | king;
+    }
+
+    /**
+     * Returns attack units of a piece attacking given number of squares of
+     * enemy king zone.
+     *
+     * @param klass class of attacking piece.
+     * @param attacked number of squares of king zone attacked.
+     * @return attack units.
+     */
+    static int attackUnits(Klass klass, int attacked) {
+        return ATTACK_UNITS[klass.ordinal()] * attacked;
+    }
+
+    /**
+     * Returns penalty for attacks on king zone. Single attacker is not
+     * penalized.
+     *
+     * @param attackers number of pieces attacking king zone.
+     * @param units sum of attack units of those pieces.
+     * @return penalty in centipawns, zero or positive.
+     */
+    static int attackPenalty(int attackers, int units) {
+        if (attackers < 2) {
+            return 0;
+        }
+        return SAFETY_TABLE[Math.min(units, SAFETY_TABLE.length - 1)];
+    }
+
+    /**
+     * Evaluates safety of given player's king. Returns zero if player has no
+     * king.
+     *
+     * @param bb bitboard of chessboard.
+     * @param player owner of king.
+     * @param attackPenalty penalty for enemy attacks on king zone.
+     * @return middlegame king safety score of player, zero or negative.
+     */
+    public static int evaluate(BitBoard bb, Player player, int attackPenalty) {
+        long king = bb.getPieces(player, KING);
+        if (king == 0) {
+            return 0;
+        }
+        return -attackPenalty - shieldPenalty(bb, player, Long.numberOfTrailingZeros(king));
+    }
+
+    private static int shieldPenalty(BitBoard bb, Player player, int king) {
+        long own = bb.getPieces(player, PAWN);
+        long all = own | bb.getPieces(getOpponent(player), PAWN);
+        long shield = own & SHIELD_ZONE[player.ordinal()][king];
+        int penalty = 0;
+        int kingColumn = BitBoard.column(king);
+        for (int column = Math.max(0, kingColumn - 1); column <= Math.min(7, kingColumn + 1); column++) {
+            if ((own & COLUMNS[column]) == 0) {
+                penalty += (all & COLUMNS[column]) == 0 ? 2 * OPEN_COLUMN : OPEN_COLUMN;
+            } else if ((shield & COLUMNS[column]) == 0) {
+                penalty += SHIELD;
+            }
+        }
+        return penalty;
+    }
+}
@@ -0,0 +1,355 @@
+package chess.logic.ailogic;
+
+import chess.domain.PackedMove;
+import static chess.domain.PackedMove.NONE;
+import chess.domain.board.BitBoard;
+import chess.domain.board.ChessBoard;
+import static chess.domain.board.Klass.PAWN;
+import chess.domain.board.Player;
+import chess.domain.datastructures.MoveStack;
+import chess.logic.movementlogic.MovementLogic;
+
+/**
+ * This class hands out legal moves of one node of search in the order they
+ * are most likely to cause a beta-cutoff. Moves are picked in stages:
+ *
+ * 1. principal move and best move from transposition table,
+ * 2. captures that don't lose material according to static exchange
+ * evaluation, most valuable victim first and least valuable attacker breaking
+ * ties (MVV-LVA),
+ * 3. killer moves,
+ * 4. counter move, that is quiet move that last refuted opponent's previous
+ * move,
+ * 5. other quiet moves, highest history score first,
+ * 6. captures losing material, best exchange first.
+ *
+ * Captures and quiet moves are generated separately and only when a stage
+ * needs them, so if an early move causes a cutoff remaining moves are never
+ * generated or scored. Moves are also sorted lazily by selecting best
+ * remaining move when one is needed. Moves given for first stages are only
+ * picked if they are legal and none is picked twice.
+ *
+ * @see <a href="https://www.chessprogramming.org/Move_Ordering">Move
+ * ordering</a>
+ *
+ * @author sami
+ */
+public class MovePicker {
+
+    private static final int SPECIAL = 0;
+    private static final int GOOD_CAPTURES = 1;
+    private static final int KILLERS = 2;
+    private static final int COUNTER = 3;
+    private static final int QUIETS = 4;
+    private static final int BAD_CAPTURES = 5;
+    private static final int DONE = 6;
+
+    private static final int CAPTURE_PLY = 0;
+    private static final int QUIET_PLY = 1;
+
+    private final MoveStack moves;
+    private final int[][] scores;
+    private final int[] special;
+    private final StaticExchangeEvaluator see = new StaticExchangeEvaluator();
+    private int[] picked;
+    private int specialCount;
+    private int pickedCount;
+    private boolean capturesGenerated;
+    private boolean quietsGenerated;
+
+    private ChessBoard board;
+    private MovementLogic ml;
+    private Player player;
+    private int[] killers;
+    private int counter;
+    private int[][] history;
+    private int stage;
+    private int index;
+    private int captureIndex;
+
+    public MovePicker() {
+        moves = new MoveStack(2);
+        scores = new int[2][MoveStack.MAX_MOVES];
+        special = new int[2];
+        picked = new int[special.length + 4];
+    }
+
+    /**
+     * Starts picking moves of a new node. Given moves are compared to legal
+     * moves with PackedMove.sameMove so moves from transposition table that
+     * only contain squares and promotion can be given.
+     *
+     * @param board chessboard of node.
+     * @param ml movement logic used to generate moves.
+     * @param player player whose moves are picked.
+     * @param principal principal move of node or NONE.
+     * @param hash best move from transposition table or NONE.
+     * @param killers killer moves of node's ply, may contain NONE or be null.
+     * @param counter counter move to opponent's previous move or NONE.
+     * @param history history scores of player indexed by from and to squares.
+     */
+    public void init(ChessBoard board, MovementLogic ml, Player player, int principal, int hash,
+            int[] killers, int counter, int[][] history) {
+        this.board = board;
+        this.ml = ml;
+        this.player = player;
+        this.special[0] = principal;
+        this.special[1] = hash;
+        this.killers = killers;
+        if (killers != null && picked.length < special.length + killers.length + 1) {
+            picked = new int[special.length + killers.length + 1];
+        }
+        this.counter = counter;
+        this.history = history;
+        this.stage = SPECIAL;
+        this.index = 0;
+        this.captureIndex = 0;
+        this.pickedCount = 0;
+        this.specialCount = 0;
+        this.capturesGenerated = false;
+        this.quietsGenerated = false;
+    }
+
+    /**
+     * Returns next move to be searched.
+     *
+     * @return packed move or NONE if all legal moves have been picked.
+     */
+    public int next() {
+        while (stage != DONE) {
+            int move = pickFromStage();
+            if (move != NONE) {
+                return move;
+            }
+            stage++;
+            index = 0;
+        }
+        return NONE;
+    }
+
+    /**
+     * Returns how many moves have been picked from this node so far.
+     *
+     * @return amount of picked moves.
+     */
+    public int getPicked() {
+        return pickedCount;
+    }
+
+    private int pickFromStage() {
+        switch (stage) {
+            case SPECIAL:
+                while (index < special.length) {
+                    int move = findSpecial(special[index++]);
+                    if (move != NONE) {
+                        return move;
+                    }
+                }
+                return NONE;
+            case GOOD_CAPTURES:
+                if (index++ == 0) {
+                    generateCaptures();
+                    scoreCaptures();
+                }
+                return pickGoodCapture();
+            case KILLERS:
+                while (killers != null && index < killers.length) {
+                    int move = findQuiet(killers[index++]);
+                    if (move != NONE) {
+                        return move;
+                    }
+                }
+                return NONE;
+            case COUNTER:
+                if (index++ == 0) {
+                    return findQuiet(counter);
+                }
+                return NONE;
+            case QUIETS:
+                if (index == 0) {
+                    generateQuiets();
+                    scoreQuiets();
+                }
+                return pickQuiet();
+            case BAD_CAPTURES:
+                return pickBadCapture();
+            default:
+                return NONE;
+        }
+    }
+
+    /**
+     * Finds legal move matching given move from captures or quiet moves
+     * depending on what kind of move it is on board. Move is marked as picked
+     * so that it isn't returned again.
+     */
+    private int findSpecial(int move) {
+        if (move == NONE || alreadyPicked(move)) {
+            return NONE;
+        }
+        int ply;
+        if (isTactical(move)) {
+            generateCaptures();
+            ply = CAPTURE_PLY;
+        } else {
+            generateQuiets();
+            ply = QUIET_PLY;
+        }
+        for (int i = 0; i < moves.size(ply); i++) {
+            if (PackedMove.sameMove(moves.get(ply, i), move)) {
+                return markPicked(moves.get(ply, i));
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Finds legal quiet move matching given killer or counter move. Captures
+     * aren't searched as they have been picked already by their exchange
+     * value.
+     */
+    private int findQuiet(int move) {
+        if (move == NONE || isTactical(move)) {
+            return NONE;
+        }
+        return findSpecial(move);
+    }
+
+    private boolean isTactical(int move) {
+        BitBoard bb = board.getBitBoard();
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        return bb.isOccupied(to) || PackedMove.promotion(move) != null
+                || (bb.klassAt(from) == PAWN && BitBoard.column(from) != BitBoard.column(to));
+    }
+
+    private boolean alreadyPicked(int move) {
+        for (int i = 0; i < specialCount; i++) {
+            if (PackedMove.sameMove(picked[i], move)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Counts given move as picked. Only principal, hash, killer and counter
+     * moves need to be remembered as they are picked before the batch they
+     * belong to.
+     */
+    private int markPicked(int move) {
+        if (stage != GOOD_CAPTURES && stage <= COUNTER) {
+            picked[specialCount++] = move;
+        }
+        pickedCount++;
+        return move;
+    }
+
+    private void generateCaptures() {
+        if (!capturesGenerated) {
+            ml.legalCapturesByPlayer(player, board, moves, CAPTURE_PLY);
+            capturesGenerated = true;
+        }
+    }
+
+    private void generateQuiets() {
+        if (!quietsGenerated) {
+            ml.legalQuietsByPlayer(player, board, moves, QUIET_PLY);
+            quietsGenerated = true;
+        }
+    }
+
+    private void scoreCaptures() {
+        for (int i = 0; i < moves.size(CAPTURE_PLY); i++) {
+            scores[CAPTURE_PLY][i] = see.evaluate(board, moves.get(CAPTURE_PLY, i));
+        }
+    }
+
+    private void scoreQuiets() {
+        for (int i = 0; i < moves.size(QUIET_PLY); i++) {
+            int move = moves.get(QUIET_PLY, i);
+            scores[QUIET_PLY][i] = history[PackedMove.from(move)][PackedMove.to(move)];
+        }
+    }
+
+    /**
+     * Picks next capture that doesn't lose material by MVV-LVA. Picked
+     * captures are swapped to the front of capture list so losing captures
+     * are left after capture index.
+     */
+    private int pickGoodCapture() {
+        while (true) {
+            int best = -1;
+            int bestKey = Integer.MIN_VALUE;
+            for (int i = captureIndex; i < moves.size(CAPTURE_PLY); i++) {
+                if (scores[CAPTURE_PLY][i] < 0) {
+                    continue;
+                }
+                int key = mvvLva(moves.get(CAPTURE_PLY, i));
+                if (key > bestKey) {
+                    bestKey = key;
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                return NONE;
+            }
+            swap(CAPTURE_PLY, captureIndex, best);
+            int move = moves.get(CAPTURE_PLY, captureIndex++);
+            if (!alreadyPicked(move)) {
+                return markPicked(move);
+            }
+        }
+    }
+
+    private int pickBadCapture() {
+        int move = pickBest(CAPTURE_PLY, captureIndex);
+        captureIndex = index;
+        return move;
+    }
+
+    private int pickQuiet() {
+        return pickBest(QUIET_PLY, index);
+    }
+
+    private static int mvvLva(int move) {
+        int victim = 0;
+        if (PackedMove.isCapture(move)) {
+            victim += GameSituationEvaluator.pieceValue(PackedMove.captured(move));
+        }
+        if (PackedMove.isPromotion(move)) {
+            victim += GameSituationEvaluator.pieceValue(PackedMove.promotion(move));
+        }
+        return 8 * victim - PackedMove.moved(move).ordinal();
+    }
+
+    /**
+     * Picks move with highest score from given list starting from given
+     * position and skips moves already picked in earlier stages. Position
+     * after picked move is left in index.
+     */
+    private int pickBest(int ply, int position) {
+        index = position;
+        while (index < moves.size(ply)) {
+            int best = index;
+            for (int i = index + 1; i < moves.size(ply); i++) {
+                if (scores[ply][i] > scores[ply][best]) {
+                    best = i;
+                }
+            }
+            swap(ply, index, best);
+            int move = moves.get(ply, index++);
+            if (!alreadyPicked(move)) {
+                return markPicked(move);
+            }
+        }
+        return NONE;
+    }
+
+    private void swap(int ply, int i, int j) {
+        moves.swap(ply, i, j);
+        int score = scores[ply][i];
+        scores[ply][i] = scores[ply][j];
+        scores[ply][j] = score;
+    }
+}
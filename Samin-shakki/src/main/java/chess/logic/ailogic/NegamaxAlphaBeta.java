@@ -2,13 +2,9 @@ package chess.logic.ailogic;
 
 import chess.domain.GameSituation;
 import chess.domain.Move;
-import chess.domain.board.ChessBoard;
-import chess.domain.board.ChessBoardCopier;
-import static chess.domain.board.Klass.PAWN;
-import static chess.domain.board.Klass.QUEEN;
+import chess.domain.PackedMove;
 import chess.domain.board.Player;
-import chess.logic.gamelogic.CheckingLogic;
-import chess.logic.gamelogic.PromotionLogic;
+import chess.domain.datastructures.MoveStack;
 import static java.lang.Integer.max;
 
 /**
@@ -19,7 +15,11 @@ public class NegamaxAlphaBeta implements AI {
 
     private GameSituation sit;
     private Move bestMove;
+    private MoveStack moves;
     private int searchDepth = 3;
+    private int threads = 1;
+    private int bestValue;
+    private ParallelRootSearch rootSearch;
     private int highestVictory = GameSituationEvaluator.victory + 3;
     private boolean alphaBeta = true;
 
@@ -32,37 +32,33 @@ public class NegamaxAlphaBeta implements AI {
         this.alphaBeta = alphaBeta;
     }
 
+    public int getBestValue() {
+        return bestValue;
+    }
+
     int negaMax(int depth, Player player, int alpha, int beta) {
         if (depth == 0) {
             return GameSituationEvaluator.evaluateGameSituation(sit, player);
-        } else if (CheckingLogic.checkMate(sit, player)) {
-            return -123456789 - depth;
         }
 
         int best = Integer.MIN_VALUE;
-        int movesTillDraw = sit.getMovesTillDraw();
-        ChessBoard backUp = ChessBoardCopier.copy(sit.getChessBoard());
-
-        for (Move m : sit.getChessBoard().getMovementLogic().possibleMovementsByPlayer(player, sit.getChessBoard())) {
-            sit.getChessBoard().getMovementLogic().move(m.getPiece(), m.getTarget(), sit);
-
-            if (CheckingLogic.checkIfChecked(sit.getChessBoard(), player)) {
-                ChessBoardCopier.undoMove(backUp, sit, m.getFrom(), m.getTarget(), movesTillDraw);
-                continue;
-            }
-
-            if (m.getPiece().getKlass() == PAWN && m.getPiece().isAtOpposingEnd()) {
-                PromotionLogic.promote(sit, m.getPiece(), QUEEN);
-            }
+        int ply = searchDepth - depth;
+        sit.getChessBoard().getMovementLogic().legalMovementsByPlayer(player, sit.getChessBoard(), moves, ply);
+        if (moves.size(ply) == 0) {
+            return GameSituationEvaluator.valueWithoutLegalMoves(sit, player, depth);
+        }
 
+        for (int i = 0; i < moves.size(ply); i++) {
+            int move = moves.get(ply, i);
+            sit.makeMove(move);
             int comp = -negaMax(depth - 1, Player.getOpponent(player), -beta, -alpha);
+            sit.unmakeMove();
             if (comp > best) {
                 best = comp;
                 if (depth == searchDepth) {
-                    bestMove = m;
+                    bestMove = PackedMove.toMove(move, sit.getChessBoard());
                 }
             }
-            ChessBoardCopier.undoMove(backUp, sit, m.getFrom(), m.getTarget(), movesTillDraw);
             if (alphaBeta) {
                 alpha = max(alpha, comp);
                 if (alpha >= beta) {
@@ -75,16 +71,63 @@ public class NegamaxAlphaBeta implements AI {
 
     @Override
     public Move findBestMove(GameSituation sit) {
+        if (threads > 1) {
+            return findBestMoveInParallel(sit);
+        }
         this.sit = sit;
-        int best = negaMax(searchDepth, sit.whoseTurn(), -highestVictory, highestVictory);
-        System.out.println("Best val: " + best);
+        this.moves = new MoveStack(searchDepth);
+        bestValue = negaMax(searchDepth, sit.whoseTurn(), -highestVictory, highestVictory);
+        System.out.println("Best val: " + bestValue);
         return bestMove;
     }
 
+    /**
+     * Searches root moves in parallel. Each root move is searched by its own
+     * worker from a copy of situation with best value found so far as alpha.
+     */
+    private Move findBestMoveInParallel(GameSituation sit) {
+        if (rootSearch == null || rootSearch.getThreads() != threads) {
+            if (rootSearch != null) {
+                rootSearch.shutdown();
+            }
+            rootSearch = new ParallelRootSearch(threads);
+        }
+        bestValue = rootSearch.search(sit, -highestVictory, highestVictory,
+                GameSituationEvaluator.valueWithoutLegalMoves(sit, sit.whoseTurn(), searchDepth),
+                this::searchRootMove);
+        if (rootSearch.getBestMove() == PackedMove.NONE) {
+            return null;
+        }
+        return PackedMove.toMove(rootSearch.getBestMove(), sit.getChessBoard());
+    }
+
+    private int searchRootMove(GameSituation child, int alpha, int beta) {
+        NegamaxAlphaBeta worker = new NegamaxAlphaBeta();
+        worker.setSearchDepth(searchDepth);
+        worker.alphaBeta = alphaBeta;
+        worker.sit = child;
+        worker.moves = new MoveStack(searchDepth);
+        return -worker.negaMax(searchDepth - 1, Player.getOpponent(child.whoseTurn()), -beta, -alpha);
+    }
+
     @Override
     public void setTimeLimit(long time) {
     }
 
+    /**
+     * Sets amount of threads used in search. With more than one thread root
+     * moves are searched in parallel, each with best value found so far as alpha.
+     *
+     * @param threads amount of threads.
+     */
+    @Override
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed");
+        }
+        this.threads = threads;
+    }
+
     @Override
     public void reset() {
     }
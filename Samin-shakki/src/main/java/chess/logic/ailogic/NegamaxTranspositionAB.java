@@ -2,30 +2,30 @@ package chess.logic.ailogic;
 
 import chess.domain.GameSituation;
 import chess.domain.Move;
-import chess.domain.board.ChessBoard;
-import chess.domain.board.ChessBoardCopier;
-import static chess.domain.board.Klass.PAWN;
-import static chess.domain.board.Klass.QUEEN;
+import chess.domain.PackedMove;
 import chess.domain.board.Player;
-import chess.domain.datastructures.LossfulTranspositionTable;
-import chess.logic.gamelogic.CheckingLogic;
-import chess.logic.gamelogic.PromotionLogic;
+import chess.domain.datastructures.ArrayTranspositionTable;
+import chess.domain.datastructures.MoveStack;
+import chess.domain.datastructures.PackedTranspositionEntry;
+import chess.domain.datastructures.TranspositionTable;
+import chess.domain.datastructures.Type;
 import static java.lang.Integer.max;
 
 /**
- *Negamax with alphabeta-pruning and simple(lossless) transposition table.
+ * Negamax with alphabeta-pruning and transposition table. Results of searches
+ * below root are saved in the table with best move found, which is tried
+ * first when the situation is met again.
+ *
  * @author sami
- * 
- * 
- * Simple lossless transposition table TODO
  */
 public class NegamaxTranspositionAB implements AI {
 
     private GameSituation sit;
     private Move bestMove;
+    private MoveStack moves;
     private int searchDepth = 3;
     private boolean alphaBeta = true;
-    private LossfulTranspositionTable cache;
+    private TranspositionTable cache = new ArrayTranspositionTable();
 
     public void setSearchDepth(int searchDepth) {
         this.searchDepth = searchDepth;
@@ -40,44 +40,70 @@ public class NegamaxTranspositionAB implements AI {
             return GameSituationEvaluator.evaluateGameSituation(sit, player);
         }
 
-        int best = Integer.MIN_VALUE;
-        ChessBoard backUp = ChessBoardCopier.copy(sit.getChessBoard());
-        int movesTillDraw=sit.getMovesTillDraw();
         int ogAlpha = alpha;
-
-        for (Move m : sit.getChessBoard().getMovementLogic().possibleMovementsByPlayer(player, sit.getChessBoard())) {
-            sit.getChessBoard().getMovementLogic().move(m.getPiece(), m.getTarget(), sit);
-
-            if (CheckingLogic.checkIfChecked(sit.getChessBoard(), player)) {
-                ChessBoardCopier.undoMove(backUp, sit, m.getFrom(), m.getTarget(),movesTillDraw);
-                continue;
+        long entry = cache.probe(sit.getBoardHash(), player);
+        if (entry != PackedTranspositionEntry.EMPTY && depth < searchDepth
+                && PackedTranspositionEntry.height(entry) >= depth) {
+            int value = PackedTranspositionEntry.value(entry);
+            switch (PackedTranspositionEntry.type(entry)) {
+                case EXACT:
+                    return value;
+                case ALPHA:
+                    alpha = max(alpha, value);
+                    break;
+                case BETA:
+                    beta = Math.min(beta, value);
+                    break;
             }
-
-            if (m.getPiece().getKlass() == PAWN && m.getPiece().isAtOpposingEnd()) {
-                PromotionLogic.promote(sit, m.getPiece(), QUEEN);
+            if (alphaBeta && alpha >= beta) {
+                return value;
             }
+        }
+
+        int best = Integer.MIN_VALUE;
+        int bestPacked = PackedMove.NONE;
+        int ply = searchDepth - depth;
+        sit.getChessBoard().getMovementLogic().legalMovementsByPlayer(player, sit.getChessBoard(), moves, ply);
+        if (entry != PackedTranspositionEntry.EMPTY) {
+            moves.moveToIndex(ply, PackedTranspositionEntry.move(entry), 0);
+        }
 
+        for (int i = 0; i < moves.size(ply); i++) {
+            int move = moves.get(ply, i);
+            sit.makeMove(move);
             int comp = -negaMax(depth - 1, Player.getOpponent(player), -beta, -alpha);
+            sit.unmakeMove();
             if (comp > best) {
                 best = comp;
+                bestPacked = move;
                 if (depth == searchDepth) {
-                    bestMove = m;
+                    bestMove = PackedMove.toMove(move, sit.getChessBoard());
                 }
             }
             if (alphaBeta) {
                 alpha = max(alpha, comp);
-                ChessBoardCopier.undoMove(backUp, sit, m.getFrom(), m.getTarget(),movesTillDraw);
                 if (alpha >= beta) {
                     break;
                 }
             }
         }
+        if (bestPacked != PackedMove.NONE) {
+            Type type = Type.EXACT;
+            if (alphaBeta && best <= ogAlpha) {
+                type = Type.BETA;
+            } else if (alphaBeta && best >= beta) {
+                type = Type.ALPHA;
+            }
+            cache.store(sit.getBoardHash(), player, depth, best, type, bestPacked);
+        }
         return best;
     }
 
     @Override
     public Move findBestMove(GameSituation sit) {
         this.sit = sit;
+        this.moves = new MoveStack(searchDepth);
+        cache.newSearch();
         int best = negaMax(searchDepth, sit.whoseTurn(), Integer.MIN_VALUE, Integer.MAX_VALUE);
         System.out.println("Best val: " + best);
         return bestMove;
@@ -89,5 +115,6 @@ public class NegamaxTranspositionAB implements AI {
 
     @Override
     public void reset() {
+        cache.clear();
     }
 }
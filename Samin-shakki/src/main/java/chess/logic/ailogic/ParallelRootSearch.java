@@ -0,0 +1,139 @@
+package chess.logic.ailogic;
+
+import chess.domain.GameSituation;
+import chess.domain.PackedMove;
+import chess.domain.datastructures.MoveStack;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Searches root moves of a game situation in parallel. Each root move is a
+ * task searching its own copy of the situation. Best value found so far is
+ * shared atomically and given to tasks starting after it as lower bound, so
+ * that alpha-beta searches can prune with it.
+ *
+ * Value of a task is exact only if it is higher than lower bound it got, so
+ * only such values can make a move best. First legal move is best until then.
+ * Which of equally valued moves is chosen may vary between runs.
+ *
+ * @author sami
+ */
+class ParallelRootSearch {
+
+    /**
+     * Search of one root move.
+     */
+    interface MoveSearch {
+
+        /**
+         * Searches situation after a root move.
+         *
+         * @param child copy of root situation with root move made.
+         * @param alpha lower bound from root player's view.
+         * @param beta upper bound from root player's view.
+         * @return value of the move for root player.
+         */
+        int search(GameSituation child, int alpha, int beta);
+    }
+
+    private final int threads;
+    private final ExecutorService pool;
+    private final AtomicInteger lowerBound = new AtomicInteger();
+    private int bestMove;
+    private int bestIndex;
+    private int bestValue;
+
+    ParallelRootSearch(int threads) {
+        this.threads = threads;
+        this.pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "root-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    int getThreads() {
+        return threads;
+    }
+
+    int getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * Stops threads of this search once running tasks are done.
+     */
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Searches all legal root moves with given search and waits until all of
+     * them are done.
+     *
+     * @param sit root situation. It is only read by tasks and is unchanged
+     * after search.
+     * @param alpha initial lower bound.
+     * @param beta upper bound.
+     * @param noMoves value returned if there are no legal moves.
+     * @param search search of a root move.
+     * @return value of best move or noMoves.
+     */
+    int search(GameSituation sit, int alpha, int beta, int noMoves, MoveSearch search) {
+        MoveStack moves = new MoveStack(1);
+        sit.getChessBoard().getMovementLogic().legalMovementsByPlayer(sit.whoseTurn(), sit.getChessBoard(), moves, 0);
+        bestMove = PackedMove.NONE;
+        bestIndex = Integer.MAX_VALUE;
+        bestValue = Integer.MIN_VALUE;
+        if (moves.size(0) == 0) {
+            return noMoves;
+        }
+        bestMove = moves.get(0, 0);
+        lowerBound.set(alpha);
+
+        List<Callable<Void>> tasks = new ArrayList<>(moves.size(0));
+        for (int i = 0; i < moves.size(0); i++) {
+            int index = i;
+            int move = moves.get(0, i);
+            tasks.add(() -> {
+                searchMove(sit, index, move, beta, search);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> future : pool.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException(ex.getCause());
+        }
+        return bestValue;
+    }
+
+    private void searchMove(GameSituation sit, int index, int move, int beta, MoveSearch search) {
+        GameSituation child = sit.copy();
+        child.makeMove(move);
+        int alphaUsed = lowerBound.get();
+        int value = search.search(child, alphaUsed, beta);
+        if (value > alphaUsed) {
+            lowerBound.accumulateAndGet(value, Math::max);
+            update(index, move, value);
+        }
+    }
+
+    private synchronized void update(int index, int move, int value) {
+        if (value > bestValue || (value == bestValue && index < bestIndex)) {
+            bestValue = value;
+            bestIndex = index;
+            bestMove = move;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package chess.logic.ailogic;
+
+import chess.domain.board.BitBoard;
+import static chess.domain.board.Klass.PAWN;
+import chess.domain.board.Player;
+import static chess.domain.board.Player.getOpponent;
+import chess.domain.datastructures.PawnHashTable;
+import chess.logic.movementlogic.AttackTables;
+
+/**
+ * This class evaluates pawn structure from pawn bitboards. Pawns are
+ * penalized for being
+ *
+ * 1. doubled, that is having own pawn in front of them on same column,
+ * 2. isolated, that is having no own pawns on adjacent columns,
+ * 3. backward, that is having no own pawns on adjacent columns level with or
+ * behind them and square in front of them attacked by enemy pawn,
+ *
+ * and rewarded for being passed, that is having no enemy pawns in front of them
+ * on same or adjacent columns. Passed pawn bonus grows as pawn advances.
+ *
+ * Score only depends on pawns so it is cached in pawn hash table by
+ * GameSituationEvaluator. Scores are packed with PawnHashTable.pack from
+ * white's point of view.
+ *
+ * @see <a href="https://www.chessprogramming.org/Pawn_Structure">Pawn
+ * structure</a>
+ *
+ * @author sami
+ */
+public class PawnStructureEvaluator {
+
+    private static final int DOUBLED = 10;
+    private static final int DOUBLED_ENDGAME = 20;
+    private static final int ISOLATED = 10;
+    private static final int ISOLATED_ENDGAME = 15;
+    private static final int BACKWARD = 8;
+    private static final int BACKWARD_ENDGAME = 10;
+    /**
+     * Passed pawn bonuses indexed by rank of pawn counted from owner's side so
+     * that starting rank of pawns is 1.
+     */
+    private static final int[] PASSED = {0, 5, 10, 15, 25, 40, 60, 0};
+    private static final int[] PASSED_ENDGAME = {0, 10, 20, 35, 55, 85, 120, 0};
+
+    /**
+     * Squares on adjacent columns indexed by column.
+     */
+    private static final long[] ADJACENT_COLUMNS = new long[8];
+    /**
+     * Squares in front of pawn on same column indexed by ordinal of owner and
+     * square of pawn.
+     */
+    private static final long[][] FRONT = new long[2][64];
+    /**
+     * Squares in front of pawn on same and adjacent columns.
+     */
+    private static final long[][] PASSED_SPAN = new long[2][64];
+    /**
+     * Squares on adjacent columns level with or behind pawn.
+     */
+    private static final long[][] SUPPORT = new long[2][64];
+
+    static {
+        for (int column = 0; column < 8; column++) {
+            for (int row = 0; row < 8; row++) {
+                if (column > 0) {
+                    ADJACENT_COLUMNS[column] |= 1L << BitBoard.squareIndex(column - 1, row);
+                }
+                if (column < 7) {
+                    ADJACENT_COLUMNS[column] |= 1L << BitBoard.squareIndex(column + 1, row);
+                }
+            }
+        }
+        for (Player player : Player.values()) {
+            for (int square = 0; square < 64; square++) {
+                initSpans(player, square);
+            }
+        }
+    }
+
+    private static void initSpans(Player player, int square) {
+        int column = BitBoard.column(square);
+        int direction = player.getDirection();
+        for (int row = 0; row < 8; row++) {
+            long rowSquares = 0xFFL << (8 * row);
+            long adjacent = rowSquares & ADJACENT_COLUMNS[column];
+            if ((row - BitBoard.row(square)) * direction > 0) {
+                FRONT[player.ordinal()][square] |= 1L << BitBoard.squareIndex(column, row);
+                PASSED_SPAN[player.ordinal()][square] |= adjacent | 1L << BitBoard.squareIndex(column, row);
+            } else {
+                SUPPORT[player.ordinal()][square] |= adjacent;
+            }
+        }
+    }
+
+    private PawnStructureEvaluator() {
+    }
+
+    /**
+     * Evaluates pawn structure on given bitboard.
+     *
+     * @param bb bitboard of chessboard.
+     * @return middlegame and endgame scores from white's point of view packed
+     * with PawnHashTable.pack.
+     */
+    public static long evaluate(BitBoard bb) {
+        long white = evaluate(bb, Player.WHITE);
+        long black = evaluate(bb, Player.BLACK);
+        return PawnHashTable.pack(PawnHashTable.middlegame(white) - PawnHashTable.middlegame(black),
+                PawnHashTable.endgame(white) - PawnHashTable.endgame(black));
+    }
+
+    private static long evaluate(BitBoard bb, Player player) {
+        long own = bb.getPieces(player, PAWN);
+        long enemy = bb.getPieces(getOpponent(player), PAWN);
+        int middlegame = 0;
+        int endgame = 0;
+        long pawns = own;
+        while (pawns != 0) {
+            int square = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+            boolean doubled = (own & FRONT[player.ordinal()][square]) != 0;
+            if (doubled) {
+                middlegame -= DOUBLED;
+                endgame -= DOUBLED_ENDGAME;
+            }
+            if ((own & ADJACENT_COLUMNS[BitBoard.column(square)]) == 0) {
+                middlegame -= ISOLATED;
+                endgame -= ISOLATED_ENDGAME;
+            } else if (isBackward(player, square, own, enemy)) {
+                middlegame -= BACKWARD;
+                endgame -= BACKWARD_ENDGAME;
+            }
+            if (!doubled && (enemy & PASSED_SPAN[player.ordinal()][square]) == 0) {
+                int rank = player == Player.WHITE ? 7 - BitBoard.row(square) : BitBoard.row(square);
+                middlegame += PASSED[rank];
+                endgame += PASSED_ENDGAME[rank];
+            }
+        }
+        return PawnHashTable.pack(middlegame, endgame);
+    }
+
+    private static boolean isBackward(Player player, int square, long own, long enemy) {
+        if ((own & SUPPORT[player.ordinal()][square]) != 0) {
+            return false;
+        }
+        int stop = square + 8 * player.getDirection();
+        return stop >= 0 && stop < 64 && (AttackTables.pawnAttacks(player, stop) & enemy) != 0;
+    }
+}
@@ -2,13 +2,9 @@ package chess.logic.ailogic;
 
 import chess.domain.GameSituation;
 import chess.domain.Move;
-import chess.domain.board.ChessBoard;
-import chess.domain.board.ChessBoardCopier;
-import static chess.domain.board.Klass.PAWN;
-import static chess.domain.board.Klass.QUEEN;
+import chess.domain.PackedMove;
 import chess.domain.board.Player;
-import chess.logic.gamelogic.CheckingLogic;
-import chess.logic.gamelogic.PromotionLogic;
+import chess.domain.datastructures.MoveStack;
 
 /**
  *
@@ -18,42 +14,47 @@ public class SimpleNegamax implements AI {
 
     private GameSituation sit;
     private Move bestMove;
+    private MoveStack moves;
     private final int plies = 10;
     private int searchDepth = 3;
+    private int threads = 1;
+    private int bestValue;
+    private ParallelRootSearch rootSearch;
 
     public void setSearchDepth(int searchDepth) {
         this.searchDepth = searchDepth;
     }
 
+    public int getBestValue() {
+        return bestValue;
+    }
+
     int negaMax(int depth, Player player) {
         if (depth == 0) {
             return GameSituationEvaluator.evaluateGameSituation(sit, player);
         }
 
         int best = Integer.MIN_VALUE;
-        int movesTillDraw = sit.getMovesTillDraw();
-        ChessBoard backUp = ChessBoardCopier.copy(sit.getChessBoard());
-
-        for (Move m : sit.getChessBoard().getMovementLogic().possibleMovementsByPlayer(player, sit.getChessBoard())) {
-            sit.getChessBoard().getMovementLogic().move(m.getPiece(), m.getTarget(), sit);
-
-            if (CheckingLogic.checkIfChecked(sit.getChessBoard(), player)) {
-                ChessBoardCopier.undoMove(backUp, sit, m.getFrom(), m.getTarget(), movesTillDraw);
-                continue;
-            }
-
-            if (m.getPiece().getKlass() == PAWN && m.getPiece().isAtOpposingEnd()) {
-                PromotionLogic.promote(sit, m.getPiece(), QUEEN);
-            }
+        int ply = searchDepth - depth;
+        sit.getChessBoard().getMovementLogic().legalMovementsByPlayer(player, sit.getChessBoard(), moves, ply);
+        if (moves.size(ply) == 0) {
+            return GameSituationEvaluator.valueWithoutLegalMoves(sit, player, depth);
+        }
+        if (depth == searchDepth) {
+            bestMove = PackedMove.toMove(moves.get(ply, 0), sit.getChessBoard());
+        }
 
+        for (int i = 0; i < moves.size(ply); i++) {
+            int move = moves.get(ply, i);
+            sit.makeMove(move);
             int comp = -negaMax(depth - 1, Player.getOpponent(player));
+            sit.unmakeMove();
             if (comp > best) {
                 best = comp;
                 if (depth == searchDepth) {
-                    bestMove = m;
+                    bestMove = PackedMove.toMove(move, sit.getChessBoard());
                 }
             }
-            ChessBoardCopier.undoMove(backUp, sit, m.getFrom(), m.getTarget(), movesTillDraw);
         }
 
         return best;
@@ -61,16 +62,62 @@ public class SimpleNegamax implements AI {
 
     @Override
     public Move findBestMove(GameSituation sit) {
+        if (threads > 1) {
+            return findBestMoveInParallel(sit);
+        }
         this.sit = sit;
-        int best = negaMax(searchDepth, sit.whoseTurn());
-        System.out.println("Best val: " + best);
+        this.moves = new MoveStack(searchDepth);
+        bestValue = negaMax(searchDepth, sit.whoseTurn());
+        System.out.println("Best val: " + bestValue);
         return bestMove;
     }
 
+    /**
+     * Searches root moves in parallel. Each root move is searched by its own
+     * worker from a copy of situation.
+     */
+    private Move findBestMoveInParallel(GameSituation sit) {
+        if (rootSearch == null || rootSearch.getThreads() != threads) {
+            if (rootSearch != null) {
+                rootSearch.shutdown();
+            }
+            rootSearch = new ParallelRootSearch(threads);
+        }
+        bestValue = rootSearch.search(sit, Integer.MIN_VALUE, Integer.MAX_VALUE,
+                GameSituationEvaluator.valueWithoutLegalMoves(sit, sit.whoseTurn(), searchDepth),
+                this::searchRootMove);
+        if (rootSearch.getBestMove() == PackedMove.NONE) {
+            return null;
+        }
+        return PackedMove.toMove(rootSearch.getBestMove(), sit.getChessBoard());
+    }
+
+    private int searchRootMove(GameSituation child, int alpha, int beta) {
+        SimpleNegamax worker = new SimpleNegamax();
+        worker.setSearchDepth(searchDepth);
+        worker.sit = child;
+        worker.moves = new MoveStack(searchDepth);
+        return -worker.negaMax(searchDepth - 1, Player.getOpponent(child.whoseTurn()));
+    }
+
     @Override
     public void setTimeLimit(long time) {
     }
 
+    /**
+     * Sets amount of threads used in search. With more than one thread root
+     * moves are searched in parallel.
+     *
+     * @param threads amount of threads.
+     */
+    @Override
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed");
+        }
+        this.threads = threads;
+    }
+
     @Override
     public void reset() {
     }
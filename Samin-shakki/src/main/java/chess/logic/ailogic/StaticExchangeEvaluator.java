@@ -0,0 +1,135 @@
+package chess.logic.ailogic;
+
+import chess.domain.PackedMove;
+import chess.domain.board.BitBoard;
+import chess.domain.board.ChessBoard;
+import chess.domain.board.Klass;
+import static chess.domain.board.Klass.*;
+import chess.domain.board.Player;
+import static chess.domain.board.Player.getOpponent;
+import chess.logic.movementlogic.AttackTables;
+import chess.logic.movementlogic.MagicAttackTables;
+
+/**
+ * This class calculates static exchange evaluation (SEE) of captures, that is
+ * material won or lost when both players keep capturing on target square of
+ * the capture with their least valuable piece attacking it. Either player may
+ * stop capturing when continuing would lose material. Attackers are found
+ * from bitboards and sliding pieces behind a piece that has captured are
+ * found when their line opens. Pins are ignored. Values are material values
+ * of GameSituationEvaluator in centipawns. Gains of the exchange are kept in a
+ * buffer of the instance, so an instance may be used by one thread at a time.
+ *
+ * @see
+ * <a href="https://www.chessprogramming.org/Static_Exchange_Evaluation">Static
+ * exchange evaluation</a>
+ *
+ * @author sami
+ */
+public class StaticExchangeEvaluator {
+
+    private static final Klass[] CAPTURE_ORDER = {PAWN, KNIGHT, BISHOP, ROOK, QUEEN, KING};
+
+    private final int[] gain = new int[32];
+
+    /**
+     * Calculates static exchange evaluation of given move on board before the
+     * move is made.
+     *
+     * @param board chessboard.
+     * @param move packed move.
+     * @return material gained by player making the move in centipawns.
+     */
+    public int evaluate(ChessBoard board, int move) {
+        return evaluate(board.getBitBoard(), move);
+    }
+
+    /**
+     * Calculates static exchange evaluation of given move on bitboard before
+     * the move is made. Moves that aren't captures or promotions are
+     * evaluated as well, so SEE of a quiet move is negative if the piece can
+     * be taken on its target square.
+     *
+     * @param bb bitboard of chessboard.
+     * @param move packed move.
+     * @return material gained by player making the move in centipawns.
+     */
+    public int evaluate(BitBoard bb, int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        Player side = bb.ownerAt(from);
+        long occupied = bb.getAllPieces() & ~(1L << from);
+
+        if (PackedMove.isEnPassant(move)) {
+            occupied &= ~(1L << BitBoard.squareIndex(BitBoard.column(to), BitBoard.row(from)));
+        }
+        gain[0] = 0;
+        if (PackedMove.isCapture(move)) {
+            gain[0] = GameSituationEvaluator.pieceValue(PackedMove.captured(move));
+        }
+        Klass onTarget = PackedMove.moved(move);
+        if (PackedMove.isPromotion(move)) {
+            onTarget = PackedMove.promotion(move);
+            gain[0] += GameSituationEvaluator.pieceValue(onTarget) - GameSituationEvaluator.pieceValue(PAWN);
+        }
+
+        long attackers = attackersTo(bb, to, occupied);
+        int depth = 0;
+        while (true) {
+            side = getOpponent(side);
+            long own = attackers & bb.getOccupied(side) & occupied;
+            if (own == 0) {
+                break;
+            }
+            Klass attacker = null;
+            long attackerBit = 0;
+            for (Klass klass : CAPTURE_ORDER) {
+                long pieces = own & bb.getPieces(side, klass);
+                if (pieces != 0) {
+                    attacker = klass;
+                    attackerBit = pieces & -pieces;
+                    break;
+                }
+            }
+            if (attacker == KING && (attackers & bb.getOccupied(getOpponent(side)) & occupied) != 0) {
+                break;
+            }
+            depth++;
+            gain[depth] = GameSituationEvaluator.pieceValue(onTarget) - gain[depth - 1];
+            if (Math.max(-gain[depth - 1], gain[depth]) < 0) {
+                depth--;
+                break;
+            }
+            if (depth == gain.length - 1) {
+                break;
+            }
+            occupied &= ~attackerBit;
+            attackers = attackersTo(bb, to, occupied);
+            onTarget = attacker;
+        }
+        while (depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+            depth--;
+        }
+        return gain[0];
+    }
+
+    /**
+     * Returns pieces of both players attacking given square when only given
+     * squares are occupied. Pieces on unoccupied squares are excluded.
+     */
+    private static long attackersTo(BitBoard bb, int square, long occupied) {
+        long queens = bb.getPieces(Player.WHITE, QUEEN) | bb.getPieces(Player.BLACK, QUEEN);
+        long bishops = bb.getPieces(Player.WHITE, BISHOP) | bb.getPieces(Player.BLACK, BISHOP) | queens;
+        long rooks = bb.getPieces(Player.WHITE, ROOK) | bb.getPieces(Player.BLACK, ROOK) | queens;
+        long attackers = (AttackTables.pawnAttacks(Player.BLACK, square) & bb.getPieces(Player.WHITE, PAWN))
+                | (AttackTables.pawnAttacks(Player.WHITE, square) & bb.getPieces(Player.BLACK, PAWN))
+                | (AttackTables.knightAttacks(square)
+                & (bb.getPieces(Player.WHITE, KNIGHT) | bb.getPieces(Player.BLACK, KNIGHT)))
+                | (AttackTables.kingAttacks(square)
+                & (bb.getPieces(Player.WHITE, KING) | bb.getPieces(Player.BLACK, KING)))
+                | (MagicAttackTables.bishopAttacks(square, occupied) & bishops)
+                | (MagicAttackTables.rookAttacks(square, occupied) & rooks);
+        return attackers & occupied;
+    }
+}
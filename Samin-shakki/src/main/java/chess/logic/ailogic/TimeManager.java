@@ -0,0 +1,180 @@
+package chess.logic.ailogic;
+
+/**
+ * This class decides how long a search may last. Search has two limits: after
+ * soft limit no new iteration of iterative deepening is started as it most
+ * likely couldn't be completed, and at hard limit search is aborted. Limits
+ * can be given as a fixed time per move or allocated from remaining time on
+ * clock and increment. Search can also be limited to a fixed amount of nodes
+ * instead of time for reproducible results.
+ *
+ * Clock is read only once every CHECK_INTERVAL nodes instead of on every call
+ * so that checking whether time is up is cheap in the hot path of search.
+ * Node counts are only touched by the thread searching, while start time and
+ * limits may be changed by another thread during search.
+ *
+ * @author sami
+ */
+public class TimeManager {
+
+    /**
+     * Amount of nodes searched between reading the clock.
+     */
+    public static final int CHECK_INTERVAL = 1024;
+    /**
+     * Amount of moves remaining time is assumed to be divided between.
+     */
+    private static final int MOVES_TO_GO = 30;
+    /**
+     * Shortest time allocated for a move in milliseconds.
+     */
+    private static final long MINIMUM_TIME = 10;
+
+    private volatile long start;
+    private volatile long softLimit;
+    private volatile long hardLimit;
+    private long nodeLimit;
+    private long nodes;
+    private long nextCheck;
+    private volatile boolean hardLimitReached;
+
+    /**
+     * Creates a new TimeManager with given fixed time per move.
+     *
+     * @param moveTime time per move in milliseconds.
+     */
+    public TimeManager(long moveTime) {
+        setMoveTime(moveTime);
+    }
+
+    /**
+     * Sets fixed time per move. Search may use all of it, but no new iteration
+     * is started after half of it has passed as next iteration usually takes
+     * longer than all earlier ones together.
+     *
+     * @param moveTime time per move in milliseconds.
+     */
+    public void setMoveTime(long moveTime) {
+        hardLimit = moveTime;
+        softLimit = moveTime / 2;
+    }
+
+    /**
+     * Allocates time for next move from remaining time on clock. Soft limit is
+     * an even share of remaining time plus most of increment and hard limit
+     * four times that, but never more than half of remaining time.
+     *
+     * @param remaining remaining time on clock in milliseconds.
+     * @param increment time added to clock after each move in milliseconds.
+     */
+    public void allocate(long remaining, long increment) {
+        long soft = remaining / MOVES_TO_GO + increment * 3 / 4;
+        hardLimit = Math.max(MINIMUM_TIME, Math.min(4 * soft, remaining / 2));
+        softLimit = Math.min(soft, hardLimit);
+    }
+
+    /**
+     * Removes time limits so that search ends only when it reaches its depth
+     * or node limit.
+     */
+    public void setInfinite() {
+        hardLimit = Long.MAX_VALUE;
+        softLimit = Long.MAX_VALUE;
+    }
+
+    /**
+     * Limits search to given amount of nodes. Zero means no limit.
+     *
+     * @param nodeLimit maximum amount of nodes searched.
+     */
+    public void setNodeLimit(long nodeLimit) {
+        this.nodeLimit = nodeLimit;
+    }
+
+    public long getNodeLimit() {
+        return nodeLimit;
+    }
+
+    public long getHardLimit() {
+        return hardLimit;
+    }
+
+    public long getSoftLimit() {
+        return softLimit;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Starts timing a new search from now.
+     */
+    public void start() {
+        nodes = 0;
+        nextCheck = CHECK_INTERVAL;
+        restartAt(System.currentTimeMillis());
+    }
+
+    /**
+     * Sets time search is considered to have started at without resetting
+     * node count and checks clock immediately. Node count isn't read, so this
+     * can be called by another thread while search is running. Node limit is
+     * checked on next clock check of search.
+     *
+     * @param start start time in milliseconds.
+     */
+    public void restartAt(long start) {
+        this.start = start;
+        hardLimitReached = elapsed() >= hardLimit;
+    }
+
+    /**
+     * Counts a searched node and reads clock if enough nodes have been
+     * searched since last time.
+     *
+     * @return true if search should be aborted.
+     */
+    public boolean countNode() {
+        nodes++;
+        if (nodes >= nextCheck || (nodeLimit > 0 && nodes >= nodeLimit)) {
+            nextCheck = nodes + CHECK_INTERVAL;
+            checkClock();
+        }
+        return hardLimitReached;
+    }
+
+    private void checkClock() {
+        hardLimitReached = elapsed() >= hardLimit || (nodeLimit > 0 && nodes >= nodeLimit);
+    }
+
+    /**
+     * Returns whether search should be aborted as of last clock check.
+     *
+     * @return true if hard limit has been reached.
+     */
+    public boolean isHardLimitReached() {
+        return hardLimitReached;
+    }
+
+    /**
+     * Checks whether a new iteration of iterative deepening should be
+     * started. Clock is read every time as this is called only between
+     * iterations.
+     *
+     * @return true if no new iteration should be started.
+     */
+    public boolean isSoftLimitReached() {
+        checkClock();
+        return hardLimitReached || elapsed() >= softLimit;
+    }
+
+    /**
+     * Returns time passed since start of search.
+     *
+     * @return elapsed time in milliseconds.
+     */
+    public long elapsed() {
+        return System.currentTimeMillis() - start;
+    }
+}
@@ -0,0 +1,350 @@
+package chess.logic.ailogic;
+
+import chess.domain.GameSituation;
+import chess.domain.Move;
+import chess.domain.PackedMove;
+import chess.domain.board.Player;
+import static chess.domain.board.Player.getOpponent;
+import chess.domain.datastructures.MoveStack;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed depth negamax with alpha-beta pruning parallelized by Young Brothers
+ * Wait Concept. In each node first move (eldest brother) is searched serially
+ * to get a good alpha value. Then the rest of the moves are forked as
+ * ForkJoinTasks sharing a split point. Each task reads alpha of split point
+ * when it starts. Found values raise alpha of split point and a value reaching
+ * beta marks split point cut off, so that tasks of it and all split points
+ * below it stop searching.
+ *
+ * Tasks search with workers, each owning a copy of the game situation and
+ * move lists. Workers are reused during a search: a task takes a free worker
+ * or copies a new one, makes moves leading from root to its move, searches
+ * and unmakes them before freeing the worker.
+ *
+ * Nodes whose children would be searched shallower than minimum split depth,
+ * root included, search all moves serially, as starting a task for each of
+ * them would cost more than is gained. Value of the search doesn't depend on
+ * amount of threads, but if several moves have the same value, which of them
+ * is chosen may vary between runs.
+ *
+ * @see
+ * <a href="https://www.chessprogramming.org/Young_Brothers_Wait_Concept">Young
+ * Brothers Wait Concept</a>
+ *
+ * @author sami
+ */
+public class YoungBrothersWaitNegamax implements AI {
+
+    private static final int NO_VALUE = Integer.MIN_VALUE;
+
+    private ForkJoinPool pool;
+    private int threads = 1;
+    private int searchDepth = 3;
+    private int minSplitDepth = 2;
+    private int highestVictory = GameSituationEvaluator.victory + 3;
+    private int bestMove;
+    private int bestValue;
+    private GameSituation root;
+    private final Deque<Worker> freeWorkers = new ConcurrentLinkedDeque<>();
+
+    public void setSearchDepth(int searchDepth) {
+        this.searchDepth = searchDepth;
+        highestVictory = GameSituationEvaluator.victory + searchDepth;
+    }
+
+    /**
+     * Sets smallest height of a node whose moves after the first one are
+     * searched in parallel.
+     *
+     * @param minSplitDepth minimum split depth, at least 2.
+     */
+    public void setMinSplitDepth(int minSplitDepth) {
+        if (minSplitDepth < 2) {
+            throw new IllegalArgumentException("Minimum split depth must be at least 2");
+        }
+        this.minSplitDepth = minSplitDepth;
+    }
+
+    public int getBestValue() {
+        return bestValue;
+    }
+
+    /**
+     * Finds best move for player whose turn it is. Search is run in a
+     * ForkJoinPool with as many threads as set.
+     *
+     * @param sit game situation to be searched. Other threads search copies
+     * of it made before search and it is unchanged after search.
+     * @return best move or null if there are no legal moves.
+     */
+    @Override
+    public Move findBestMove(GameSituation sit) {
+        if (pool == null || pool.getParallelism() != threads) {
+            if (pool != null) {
+                pool.shutdown();
+            }
+            pool = new ForkJoinPool(threads);
+        }
+        root = sit.copy();
+        freeWorkers.clear();
+        bestValue = pool.invoke(ForkJoinTask.adapt(() -> searchRoot(new Worker(sit))));
+        if (bestMove == PackedMove.NONE) {
+            return null;
+        }
+        return PackedMove.toMove(bestMove, sit.getChessBoard());
+    }
+
+    /**
+     * Searches root like any other node but remembers best move. Only values
+     * higher than alpha used in search of the move are exact, so moves whose
+     * search failed low can't be chosen.
+     */
+    private int searchRoot(Worker worker) {
+        GameSituation sit = worker.sit;
+        MoveStack moves = worker.moves;
+        Player player = sit.whoseTurn();
+        bestMove = PackedMove.NONE;
+        sit.getChessBoard().getMovementLogic().legalMovementsByPlayer(player, sit.getChessBoard(), moves, 0);
+        if (moves.size(0) == 0) {
+            return GameSituationEvaluator.valueWithoutLegalMoves(sit, player, searchDepth);
+        }
+        bestMove = moves.get(0, 0);
+        int best = searchMove(worker, 0, searchDepth, player, bestMove, -highestVictory, highestVictory, null);
+        if (searchDepth < minSplitDepth) {
+            for (int i = 1; i < moves.size(0); i++) {
+                int move = moves.get(0, i);
+                int value = searchMove(worker, 0, searchDepth, player, move, best, highestVictory, null);
+                if (value > best) {
+                    best = value;
+                    bestMove = move;
+                }
+            }
+            return best;
+        }
+        if (moves.size(0) == 1) {
+            return best;
+        }
+        SplitPoint split = new SplitPoint(null, best, highestVictory);
+        List<SiblingTask> tasks = forkSiblings(worker, 0, searchDepth, player, split);
+        for (SiblingTask task : tasks) {
+            int value = task.getRawResult();
+            if (value != NO_VALUE && value > task.alphaUsed && value > best) {
+                best = value;
+                bestMove = task.move;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Searches given node. Eldest brother is searched first and if it doesn't
+     * cause a cutoff, rest of moves are searched serially or in parallel
+     * depending on height of the node.
+     *
+     * @param worker worker whose situation is in this node.
+     * @param ply distance of node from root.
+     * @param depth height from leaves.
+     * @param player player whose turn it is.
+     * @param alpha current alpha value.
+     * @param beta current beta value.
+     * @param split closest split point above this node or null.
+     * @return value of node or anything if search was aborted.
+     */
+    private int negaMax(Worker worker, int ply, int depth, Player player, int alpha, int beta, SplitPoint split) {
+        GameSituation sit = worker.sit;
+        MoveStack moves = worker.moves;
+        if (depth == 0) {
+            return GameSituationEvaluator.evaluateGameSituation(sit, player);
+        }
+        sit.getChessBoard().getMovementLogic().legalMovementsByPlayer(player, sit.getChessBoard(), moves, ply);
+        if (moves.size(ply) == 0) {
+            return GameSituationEvaluator.valueWithoutLegalMoves(sit, player, depth);
+        }
+        int best = searchMove(worker, ply, depth, player, moves.get(ply, 0), alpha, beta, split);
+        alpha = Math.max(alpha, best);
+        if (alpha >= beta || isAborted(split)) {
+            return best;
+        }
+
+        if (depth < minSplitDepth) {
+            for (int i = 1; i < moves.size(ply); i++) {
+                int value = searchMove(worker, ply, depth, player, moves.get(ply, i), alpha, beta, split);
+                if (isAborted(split)) {
+                    return best;
+                }
+                best = Math.max(best, value);
+                alpha = Math.max(alpha, value);
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+            return best;
+        }
+
+        SplitPoint node = new SplitPoint(split, alpha, beta);
+        for (SiblingTask task : forkSiblings(worker, ply, depth, player, node)) {
+            best = Math.max(best, task.getRawResult());
+        }
+        return best;
+    }
+
+    private int searchMove(Worker worker, int ply, int depth, Player player, int move, int alpha, int beta, SplitPoint split) {
+        worker.sit.makeMove(move);
+        worker.line[ply] = move;
+        int value = -negaMax(worker, ply + 1, depth - 1, getOpponent(player), -beta, -alpha, split);
+        worker.sit.unmakeMove();
+        return value;
+    }
+
+    /**
+     * Searches all moves of given ply except the first one as tasks of given
+     * split point and waits until they are done. Each task gets moves leading
+     * from root to its move.
+     */
+    private List<SiblingTask> forkSiblings(Worker worker, int ply, int depth, Player player, SplitPoint split) {
+        MoveStack moves = worker.moves;
+        List<SiblingTask> tasks = new ArrayList<>(moves.size(ply) - 1);
+        for (int i = 1; i < moves.size(ply); i++) {
+            int[] line = Arrays.copyOf(worker.line, ply + 1);
+            line[ply] = moves.get(ply, i);
+            tasks.add(new SiblingTask(line, depth - 1, getOpponent(player), split));
+        }
+        ForkJoinTask.invokeAll(tasks);
+        return tasks;
+    }
+
+    private static boolean isAborted(SplitPoint split) {
+        return split != null && split.isAborted();
+    }
+
+    /**
+     * Situation and move lists of one search. Line contains moves made from
+     * root to the node searched.
+     */
+    private class Worker {
+
+        private final GameSituation sit;
+        private final MoveStack moves = new MoveStack(searchDepth);
+        private final int[] line = new int[searchDepth];
+
+        Worker(GameSituation sit) {
+            this.sit = sit;
+        }
+    }
+
+    /**
+     * Task searching one younger brother with a free worker. Returns NO_VALUE
+     * if split point was cut off.
+     */
+    private class SiblingTask extends RecursiveTask<Integer> {
+
+        private final int[] line;
+        private final int move;
+        private final int depth;
+        private final Player player;
+        private final SplitPoint split;
+        private int alphaUsed;
+
+        SiblingTask(int[] line, int depth, Player player, SplitPoint split) {
+            this.line = line;
+            this.move = line[line.length - 1];
+            this.depth = depth;
+            this.player = player;
+            this.split = split;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (split.isAborted()) {
+                return NO_VALUE;
+            }
+            Worker worker = freeWorkers.poll();
+            if (worker == null) {
+                worker = new Worker(root.copy());
+            }
+            for (int i = 0; i < line.length; i++) {
+                worker.sit.makeMove(line[i]);
+                worker.line[i] = line[i];
+            }
+            alphaUsed = split.getAlpha();
+            int value = -negaMax(worker, line.length, depth, player, -split.beta, -alphaUsed, split);
+            for (int i = 0; i < line.length; i++) {
+                worker.sit.unmakeMove();
+            }
+            freeWorkers.push(worker);
+            if (split.isAborted()) {
+                return NO_VALUE;
+            }
+            split.update(value);
+            return value;
+        }
+    }
+
+    /**
+     * Node whose younger brothers are searched in parallel. Alpha is shared by
+     * its tasks. Split point is aborted if it or any split point above it has
+     * been cut off.
+     */
+    private static class SplitPoint {
+
+        private final SplitPoint parent;
+        private final AtomicInteger alpha;
+        private final int beta;
+        private volatile boolean cutoff;
+
+        SplitPoint(SplitPoint parent, int alpha, int beta) {
+            this.parent = parent;
+            this.alpha = new AtomicInteger(alpha);
+            this.beta = beta;
+        }
+
+        int getAlpha() {
+            return alpha.get();
+        }
+
+        void update(int value) {
+            alpha.accumulateAndGet(value, Math::max);
+            if (value >= beta) {
+                cutoff = true;
+            }
+        }
+
+        boolean isAborted() {
+            for (SplitPoint split = this; split != null; split = split.parent) {
+                if (split.cutoff) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    @Override
+    public void setTimeLimit(long time) {
+    }
+
+    @Override
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed");
+        }
+        this.threads = threads;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    @Override
+    public void reset() {
+    }
+}
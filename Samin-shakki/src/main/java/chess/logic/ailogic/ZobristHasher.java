@@ -1,5 +1,6 @@
 package chess.logic.ailogic;
 
+import chess.domain.board.BitBoard;
 import chess.domain.board.ChessBoard;
 import chess.domain.board.Klass;
 import chess.domain.board.Player;
@@ -7,7 +8,6 @@ import chess.domain.board.Square;
 import static chess.domain.board.Klass.*;
 import chess.domain.board.Piece;
 import java.util.Random;
-import java.util.Set;
 
 /**
  * This class is used to hash chessboard situations by Zobrist-hashing. Hashes
@@ -18,6 +18,23 @@ import java.util.Set;
  */
 public class ZobristHasher {
 
+    /**
+     * Hashes of pawns indexed by ordinal of owner and bit index of square used
+     * for pawn keys of BitBoard. Unlike square hashes these are shared by all
+     * hashers and generated from a fixed seed so that pawn keys of every board
+     * can be used with the same pawn hash table.
+     */
+    private static final long[][] PAWN_HASHES = new long[2][64];
+
+    static {
+        Random random = new Random(0x5DEECE66DL);
+        for (int i = 0; i < 2; i++) {
+            for (int j = 0; j < 64; j++) {
+                PAWN_HASHES[i][j] = random.nextLong();
+            }
+        }
+    }
+
     private long[][] squareHashes;
 
     /**
@@ -25,7 +42,8 @@ public class ZobristHasher {
      * random long value. Assumes no same hashes were received as chance is
      * miniscule. 14 different kinds of pieces can be on each square as empty
      * square and king that can castle vs king that can't are their own
-     * alternatives. Indices for different pieces are 0 for empty and 13 for
+     * alternatives. King can castle if neither it nor a rook at either end of
+     * its row has moved. Indices for different pieces are 0 for empty and 13 for
      * king that can castle. Then 1-6 for white and 7-12 for black pieces. 1 is
      * pawn, 2 is rook, 3 is knight, 4 is bishop, 5 is queen and 6 is king.
      */
@@ -39,6 +57,18 @@ public class ZobristHasher {
         }
     }
 
+    /**
+     * Returns hash of pawn of given owner on given square. Pawn key of board is
+     * XOR of these values for every pawn on board.
+     *
+     * @param owner owner of pawn.
+     * @param square index of square like in BitBoard.
+     * @return hash value of pawn.
+     */
+    public static long pawnHash(Player owner, int square) {
+        return PAWN_HASHES[owner.ordinal()][square];
+    }
+
     /**
      * Returns index associated with piece that square contains. This index can
      * then be used to check hash of given square on given board.
@@ -48,15 +78,19 @@ public class ZobristHasher {
      * @return index of piece placed on this square.
      */
     private int indexOfPieceAtSquare(ChessBoard board, Square square) {
-        Piece piece =board.getPiece(square);
-        if (piece==null || piece.isTaken()) {
+        return indexOfPieceAt(board, square.getColumn(), square.getRow());
+    }
+
+    private int indexOfPieceAt(ChessBoard board, int column, int row) {
+        Piece piece = board.getPiece(column, row);
+        if (piece == null || piece.isTaken()) {
             return 0;
         }
         int ret = 0;
 
         ret += indexOf(piece.getKlass());
 
-        if (ret == 6 && kingCanCastle(board, square)) {
+        if (ret == 6 && kingCanCastle(board, piece)) {
             return 13;
         }
 
@@ -86,17 +120,41 @@ public class ZobristHasher {
 
     }
 
-    private boolean kingCanCastle(ChessBoard board, Square sq) {
-        Set kingPossibleMoves = board.getMovementLogic().possibleMoves(board.getPiece(sq), board);
-
-        if (sq.getColumn() == 4) {
-            if (kingPossibleMoves.contains(new Square(sq.getColumn() - 2, sq.getRow()))) {
-                return true;
-            } else if (kingPossibleMoves.contains(new Square(sq.getColumn() + 2, sq.getRow()))) {
-                return true;
-            }
+    /**
+     * Checks if king still has right to castle, that is neither king nor one
+     * of the rooks at either end of its row has moved. Whether castling is
+     * possible right now isn't used as it depends on the whole board and
+     * couldn't be updated incrementally.
+     *
+     * @param board chessboard king is on.
+     * @param king king being checked.
+     * @return true if king has right to castle.
+     */
+    private boolean kingCanCastle(ChessBoard board, Piece king) {
+        if (king.isHasBeenMoved()) {
+            return false;
         }
-        return false;
+        return rookCanCastle(board, king, 0) || rookCanCastle(board, king, 7);
+    }
+
+    private boolean rookCanCastle(ChessBoard board, Piece king, int column) {
+        Piece rook = board.getPiece(column, king.getRow());
+        return rook != null && !rook.isTaken() && rook.getKlass() == ROOK
+                && rook.getOwner() == king.getOwner() && !rook.isHasBeenMoved();
+    }
+
+    /**
+     * Returns hash value of given square with its current contents. Hash of
+     * the whole board is XOR of these values for every square.
+     *
+     * @param board chessboard square is on.
+     * @param square index of square like in BitBoard.
+     * @return hash value of square.
+     */
+    public long squareHash(ChessBoard board, int square) {
+        int column = BitBoard.column(square);
+        int row = BitBoard.row(square);
+        return squareHashes[8 * column + row][indexOfPieceAt(board, column, row)];
     }
 
     /**
@@ -112,7 +170,7 @@ public class ZobristHasher {
 
         for (int i = 0; i < 8; i++) {
             for (int j = 0; j < 8; j++) {
-                hash ^= squareHashes[8 * i + j][indexOfPieceAtSquare(board, new Square(i, j))];
+                hash ^= squareHashes[8 * i + j][indexOfPieceAt(board, i, j)];
             }
         }
 
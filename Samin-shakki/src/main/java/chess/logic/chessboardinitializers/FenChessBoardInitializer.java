@@ -0,0 +1,144 @@
+package chess.logic.chessboardinitializers;
+
+import chess.domain.board.ChessBoard;
+import chess.domain.board.Klass;
+import static chess.domain.board.Klass.*;
+import chess.domain.board.Piece;
+import chess.domain.board.Player;
+
+/**
+ * This class is used to initialize chessboard to situation described in
+ * Forsyth-Edwards notation (FEN). Placement of pieces, player to move,
+ * castling rights and en passant square are read from the notation. As pieces
+ * don't remember castling rights, king and rook are marked unmoved only if
+ * castling is allowed with that rook. Pawns are marked unmoved if they are on
+ * their starting row and pawn that can be captured en passant is marked as
+ * having moved two squares last turn. Move counters are ignored.
+ *
+ * @see
+ * <a href="https://en.wikipedia.org/wiki/Forsyth%E2%80%93Edwards_Notation">Forsyth-Edwards
+ * Notation</a>
+ *
+ * @author sami
+ */
+public class FenChessBoardInitializer extends ChessBoardInitializer {
+
+    /**
+     * FEN of standard starting positions.
+     */
+    public static final String STANDARD_START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private String fen;
+
+    /**
+     * Creates a new FenChessBoardInitializer for given FEN.
+     *
+     * @param fen situation in Forsyth-Edwards notation.
+     */
+    public FenChessBoardInitializer(String fen) {
+        this.fen = fen;
+    }
+
+    /**
+     * Returns player whose turn it is in the situation.
+     *
+     * @return white if active color is w, else black.
+     */
+    public Player getPlayerToMove() {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length > 1 && fields[1].equals("b")) {
+            return Player.BLACK;
+        }
+        return Player.WHITE;
+    }
+
+    /**
+     * Initializes the ChessBoard given as parameter to situation described by
+     * FEN of this initializer.
+     *
+     * @param board ChessBoard to be initialized.
+     */
+    @Override
+    public void initialize(ChessBoard board) {
+        clearBoard(board);
+        board.getKings().clear();
+        String[] fields = fen.trim().split("\\s+");
+        placePieces(board, fields[0]);
+        setCastlingRights(board, fields.length > 2 ? fields[2] : "-");
+        if (fields.length > 3 && !fields[3].equals("-")) {
+            setEnPassantable(board, fields[3]);
+        }
+    }
+
+    private void placePieces(ChessBoard board, String placement) {
+        String[] rows = placement.split("/");
+        for (int row = 0; row < rows.length; row++) {
+            int column = 0;
+            for (char c : rows[row].toCharArray()) {
+                if (Character.isDigit(c)) {
+                    column += c - '0';
+                    continue;
+                }
+                Player owner = Character.isUpperCase(c) ? Player.WHITE : Player.BLACK;
+                Klass klass = klassOf(Character.toLowerCase(c));
+                Piece piece = new Piece(klass, column, row, owner, "" + c + column + row);
+                piece.setHasBeenMoved(klass != PAWN || row != (owner == Player.WHITE ? 6 : 1));
+                putPieceOnBoard(board, piece);
+                column++;
+            }
+        }
+    }
+
+    private Klass klassOf(char c) {
+        switch (c) {
+            case 'p':
+                return PAWN;
+            case 'n':
+                return KNIGHT;
+            case 'b':
+                return BISHOP;
+            case 'r':
+                return ROOK;
+            case 'q':
+                return QUEEN;
+            case 'k':
+                return KING;
+            default:
+                throw new IllegalArgumentException("Unknown piece in FEN: " + c);
+        }
+    }
+
+    /**
+     * Marks kings and rooks unmoved according to castling rights. K and Q
+     * refer to rooks on columns 7 and 0 of white's first row, k and q to
+     * black's.
+     */
+    private void setCastlingRights(ChessBoard board, String rights) {
+        for (char c : rights.toCharArray()) {
+            Player owner = Character.isUpperCase(c) ? Player.WHITE : Player.BLACK;
+            int row = owner == Player.WHITE ? 7 : 0;
+            int column = Character.toLowerCase(c) == 'k' ? 7 : 0;
+            Piece king = board.getKings().get(owner);
+            Piece rook = board.getPiece(column, row);
+            if (c == '-' || king == null || rook == null || rook.getKlass() != ROOK) {
+                continue;
+            }
+            king.setHasBeenMoved(false);
+            rook.setHasBeenMoved(false);
+        }
+    }
+
+    /**
+     * Marks pawn that passed given square as having moved two squares last
+     * turn.
+     */
+    private void setEnPassantable(ChessBoard board, String square) {
+        int column = square.charAt(0) - 'a';
+        int row = 8 - (square.charAt(1) - '0');
+        int pawnRow = row == 5 ? 4 : 3;
+        Piece pawn = board.getPiece(column, pawnRow);
+        if (pawn != null && pawn.getKlass() == PAWN) {
+            pawn.setMovedTwoSquaresLastTurn(true);
+        }
+    }
+}
@@ -2,14 +2,13 @@ package chess.logic.gamelogic;
 
 import chess.domain.Game;
 import chess.domain.GameSituation;
+import chess.domain.board.BitBoard;
 import chess.domain.board.ChessBoard;
 import chess.domain.board.Player;
 import static chess.domain.board.Player.getOpponent;
-import chess.domain.board.ChessBoardCopier;
-import static chess.domain.board.ChessBoardCopier.undoMove;
 import static chess.domain.board.Klass.*;
-import chess.domain.board.Square;
 import chess.domain.board.Piece;
+import chess.domain.datastructures.MoveStack;
 
 /**
  * This class is responsible for checking if king is checked, checkmated or
@@ -25,6 +24,10 @@ public class CheckingLogic {
      * stalemate.
      */
     private GameSituation game;
+    /**
+     * Preallocated list for moves tested in checkMate.
+     */
+    private MoveStack moves;
 
     /**
      * Creates a new CheckingLogic-object for given game.
@@ -33,6 +36,7 @@ public class CheckingLogic {
      */
     public CheckingLogic(GameSituation game) {
         this.game = game;
+        this.moves = new MoveStack(1);
     }
 
     /**
@@ -46,101 +50,70 @@ public class CheckingLogic {
     }
 
     /**
-     * Updates set containing all squares that opponent threatens and then
-     * checks if player's king is on one of those.
+     * Checks if opponent attacks square player's king is on.
      *
      * @param player player being checked
      * @return true if player's king is threatened by opposing piece
      */
     public boolean checkIfChecked(Player player) {
-        Piece playersKing = game.getChessBoard().getKings().get(player);
-        if (playersKing == null) {
-            return false;
-        }
-        game.getChessBoard().updateThreatenedSquares(getOpponent(player));
-        return game.getChessBoard().threatenedSquares(getOpponent(player)).contains(playersKing.getLocation());
+        return checkIfChecked(game.getChessBoard(), player);
     }
 
+    /**
+     * Checks if opponent attacks square player's king is on on given board.
+     * Attacks are looked up in reverse from king's square so squares
+     * threatened by opponent don't need to be generated.
+     *
+     * @param board chessboard.
+     * @param player player being checked.
+     * @return true if player's king is threatened by opposing piece.
+     */
     public static boolean checkIfChecked(ChessBoard board, Player player) {
         Piece playersKing = board.getKings().get(player);
         if (playersKing == null) {
             return false;
         }
-        board.updateThreatenedSquares(getOpponent(player));
-        return board.threatenedSquares(getOpponent(player)).contains(playersKing.getLocation());
+        return board.isSquareAttacked(BitBoard.squareIndex(playersKing.getColumn(), playersKing.getRow()),
+                getOpponent(player));
     }
 
     /**
-     * Checks whether or not player is checkmated in this game.
+     * Checks whether or not player is checkmated in this game. Player is
+     * checkmated if its king is checked and it has no legal moves.
      *
      * @param player player who is possibly checkmated.
      * @return true if player is checkmated. Else false.
      */
     public boolean checkMate(Player player) {
-        ChessBoard backUp = ChessBoardCopier.copy(game.getChessBoard());
-        int movesTillDraw = game.getMovesTillDraw();
-        for (Piece piece : game.getChessBoard().getPieces(player)) {
-            if (piece.isTaken()) {
-                continue;
-            }
-
-            Square from = piece.getLocation();
-            game.getChessBoard().updateThreatenedSquares(getOpponent(player));
-            for (Square possibility : game.getChessBoard().getMovementLogic().possibleMoves(piece, game.getChessBoard())) {
-                game.getChessBoard().getMovementLogic().move(piece, possibility, game);
-                game.getChessBoard().updateThreatenedSquares(getOpponent(player));
-                if (!checkIfChecked(player)) {
-                    undoMove(backUp, game, from, possibility, movesTillDraw);
-                    return false;
-                }
-                undoMove(backUp, game, from, possibility, movesTillDraw);
-            }
-        }
+        return checkIfChecked(player) && hasNoLegalMoves(player);
+    }
 
-        return true;
+    private boolean hasNoLegalMoves(Player player) {
+        ChessBoard board = game.getChessBoard();
+        board.getMovementLogic().legalMovementsByPlayer(player, board, moves, 0);
+        return moves.size(0) == 0;
     }
 
+    /**
+     * Checks whether or not player is checkmated in given game situation.
+     *
+     * @param gameSit game situation.
+     * @param player player who is possibly checkmated.
+     * @return true if player is checkmated. Else false.
+     */
     public static boolean checkMate(GameSituation gameSit, Player player) {
-        ChessBoard backUp = ChessBoardCopier.copy(gameSit.getChessBoard());
-        int movesTillDraw = gameSit.getMovesTillDraw();
-        for (Piece piece : gameSit.getChessBoard().getPieces(player)) {
-            if (piece.isTaken()) {
-                continue;
-            }
-
-            Square from = piece.getLocation();
-            gameSit.getChessBoard().updateThreatenedSquares(getOpponent(player));
-            for (Square possibility : gameSit.getChessBoard().getMovementLogic().possibleMoves(piece, gameSit.getChessBoard())) {
-                gameSit.getChessBoard().getMovementLogic().move(piece, possibility, gameSit);
-                gameSit.getChessBoard().updateThreatenedSquares(getOpponent(player));
-                if (!checkIfChecked(gameSit.getChessBoard(), player)) {
-                    undoMove(backUp, gameSit, from, possibility, movesTillDraw);
-                    return false;
-                }
-                undoMove(backUp, gameSit, from, possibility, movesTillDraw);
-            }
-        }
-
-        return true;
+        return gameSit.getCheckLogic().checkMate(player);
     }
 
     /**
-     * Returns whether or not chosen player has any legal moves.
+     * Checks whether or not player is stalemated, that is its king isn't
+     * checked but it has no legal moves.
      *
      * @param player chosen player
-     * @return true player has no legal moves otherwise false.
+     * @return true if player is stalemated otherwise false.
      */
     public boolean stalemate(Player player) {
-        if (game.getChessBoard().getPieces(player).isEmpty()) {
-            return true;
-        }
-        if (game.getChessBoard().getPieces(player).stream()
-                .filter((piece) -> !(piece.isTaken()))
-                .anyMatch((piece) -> (!game.getChessBoard().getMovementLogic()
-                        .possibleMoves(piece, game.getChessBoard()).isEmpty()))) {
-            return false;
-        }
-        return true;
+        return !checkIfChecked(player) && hasNoLegalMoves(player);
     }
 
     /**
@@ -17,6 +17,7 @@ public class PromotionLogic {
             if (piece.isAtOpposingEnd()) {
                 sit.updateHashForPromotion(piece.getLocation(), klass);
                 piece.setKlass(klass);
+                sit.getChessBoard().setPiece(piece.getLocation(), piece);
             }
         }
     }
@@ -24,5 +25,6 @@ public class PromotionLogic {
     public static void undoPromotion(GameSituation sit, Piece piece) {
         sit.updateHashForUndoingPromotion(piece.getLocation());
         piece.setKlass(PAWN);
+        sit.getChessBoard().setPiece(piece.getLocation(), piece);
     }
 }
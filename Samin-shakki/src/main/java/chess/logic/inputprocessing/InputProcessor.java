@@ -171,7 +171,8 @@ public class InputProcessor {
     private void handlePromotion(boolean aisTurn) {
         if (chosen.getKlass() == PAWN && chosen.isAtOpposingEnd()) {
             if (aisTurn) {
-                PromotionLogic.promote(game.getSituation(), chosen, QUEEN);
+                Klass promotion = game.lastMove().getPromotion();
+                PromotionLogic.promote(game.getSituation(), chosen, promotion == null ? QUEEN : promotion);
             } else {
                 Object[] options = {"Bishop",
                     "Knight",
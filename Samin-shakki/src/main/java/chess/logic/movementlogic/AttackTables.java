@@ -0,0 +1,115 @@
+package chess.logic.movementlogic;
+
+import chess.domain.board.Player;
+
+/**
+ * This class contains precomputed attack bitboards for knights, kings and
+ * pawns. As these pieces don't slide, squares they attack only depend on the
+ * square they are on. Squares are indexed like in BitBoard.
+ *
+ * @author sami
+ */
+public class AttackTables {
+
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+    private static final long[][] BETWEEN = new long[64][64];
+
+    static {
+        int[] knightColumns = {1, -1, 2, -2, 2, -2, 1, -1};
+        int[] knightRows = {-2, -2, -1, -1, 1, 1, 2, 2};
+        int[] kingColumns = {-1, 0, 1, -1, 1, -1, 0, 1};
+        int[] kingRows = {1, 1, 1, 0, 0, -1, -1, -1};
+
+        for (int square = 0; square < 64; square++) {
+            KNIGHT_ATTACKS[square] = leaperAttacks(square, knightColumns, knightRows);
+            KING_ATTACKS[square] = leaperAttacks(square, kingColumns, kingRows);
+            for (Player player : Player.values()) {
+                int direction = player.getDirection();
+                PAWN_ATTACKS[player.ordinal()][square] = leaperAttacks(square,
+                        new int[]{1, -1}, new int[]{direction, direction});
+            }
+            initBetween(square);
+        }
+    }
+
+    /**
+     * Walks from square to each of 8 directions saving squares passed for
+     * every square reached.
+     */
+    private static void initBetween(int square) {
+        int[] columnChange = {-1, 0, 1, -1, 1, -1, 0, 1};
+        int[] rowChange = {1, 1, 1, 0, 0, -1, -1, -1};
+        for (int i = 0; i < 8; i++) {
+            long passed = 0;
+            int column = (square & 7) + columnChange[i];
+            int row = (square >>> 3) + rowChange[i];
+            while (column >= 0 && column < 8 && row >= 0 && row < 8) {
+                BETWEEN[square][8 * row + column] = passed;
+                passed |= 1L << (8 * row + column);
+                column += columnChange[i];
+                row += rowChange[i];
+            }
+        }
+    }
+
+    private AttackTables() {
+    }
+
+    /**
+     * Returns squares attacked by knight on given square.
+     *
+     * @param square index of square knight is on.
+     * @return bitboard of squares knight attacks.
+     */
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    /**
+     * Returns squares attacked by king on given square.
+     *
+     * @param square index of square king is on.
+     * @return bitboard of squares king attacks.
+     */
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * Returns squares attacked by pawn of given player on given square. Pawn
+     * attacks squares diagonally forward from it.
+     *
+     * @param player owner of pawn.
+     * @param square index of square pawn is on.
+     * @return bitboard of squares pawn attacks.
+     */
+    public static long pawnAttacks(Player player, int square) {
+        return PAWN_ATTACKS[player.ordinal()][square];
+    }
+
+    /**
+     * Returns squares strictly between two squares if they are on same row,
+     * column or diagonal.
+     *
+     * @param from index of first square.
+     * @param to index of second square.
+     * @return bitboard of squares between or 0 if squares aren't on same line.
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    private static long leaperAttacks(int square, int[] columnChange, int[] rowChange) {
+        long attacks = 0;
+        for (int i = 0; i < columnChange.length; i++) {
+            int column = (square & 7) + columnChange[i];
+            int row = (square >>> 3) + rowChange[i];
+            if (column >= 0 && column < 8 && row >= 0 && row < 8) {
+                attacks |= 1L << (8 * row + column);
+            }
+        }
+        return attacks;
+    }
+}
@@ -0,0 +1,414 @@
+package chess.logic.movementlogic;
+
+import static chess.domain.PackedMove.CASTLING;
+import static chess.domain.PackedMove.DOUBLE_PUSH;
+import static chess.domain.PackedMove.EN_PASSANT;
+import chess.domain.PackedMove;
+import static chess.domain.PackedMove.encode;
+import chess.domain.board.BitBoard;
+import chess.domain.board.ChessBoard;
+import chess.domain.board.Klass;
+import static chess.domain.board.Klass.*;
+import chess.domain.board.Piece;
+import chess.domain.board.Player;
+import static chess.domain.board.Player.getOpponent;
+import chess.domain.datastructures.MoveStack;
+
+/**
+ * This class generates only legal moves, that is moves that don't leave own
+ * king threatened, as packed ints. Instead of making each move and checking if
+ * king is threatened afterwards, pieces pinned to king and squares that stop a
+ * check are calculated before generating moves:
+ *
+ * If king is threatened by two pieces, only king can move. If it is
+ * threatened by one piece, other pieces can only capture it or move between it
+ * and king. Pinned piece can only move along line between king and the piece
+ * pinning it. King can't move to squares opponent threatens when king has
+ * been removed from the board.
+ *
+ * En passant captures remove two pieces from the same row so they are checked
+ * by looking at the board after the move. Otherwise moves follow same rules
+ * as MoveGenerator. If player has no king, all moves are legal.
+ *
+ * Captures and promotions can also be generated separately from other moves,
+ * quiet moves, so that search can generate moves in stages.
+ *
+ * @author sami
+ */
+public class LegalMoveGenerator {
+
+    private static final Klass[] PROMOTIONS = {QUEEN, KNIGHT, ROOK, BISHOP};
+    private static final int ALL = 0;
+    private static final int CAPTURES = 1;
+    private static final int QUIETS = 2;
+
+    /**
+     * Used for boards where player has more than one king.
+     */
+    private MoveGenerator pseudoLegalGenerator;
+    /**
+     * Line along which piece on given square is pinned including the pinning
+     * piece. Only valid for squares of pinned pieces.
+     */
+    private long[] pinRays;
+
+    /**
+     * Creates a new LegalMoveGenerator.
+     */
+    public LegalMoveGenerator() {
+        pseudoLegalGenerator = new MoveGenerator();
+        pinRays = new long[64];
+    }
+
+    /**
+     * Saves all legal moves player can make on board to given ply of move
+     * stack. Earlier moves of that ply are removed.
+     *
+     * @param player player whose moves are generated.
+     * @param board chessboard.
+     * @param stack move stack moves are saved to.
+     * @param ply ply of move stack used.
+     */
+    public void generateMoves(Player player, ChessBoard board, MoveStack stack, int ply) {
+        generate(player, board, stack, ply, ALL);
+    }
+
+    /**
+     * Saves legal captures, including en passant, and promotions player can
+     * make on board to given ply of move stack. Earlier moves of that ply are
+     * removed.
+     *
+     * @param player player whose moves are generated.
+     * @param board chessboard.
+     * @param stack move stack moves are saved to.
+     * @param ply ply of move stack used.
+     */
+    public void generateCaptures(Player player, ChessBoard board, MoveStack stack, int ply) {
+        generate(player, board, stack, ply, CAPTURES);
+    }
+
+    /**
+     * Saves legal moves that aren't captures or promotions, including
+     * castling, to given ply of move stack. Earlier moves of that ply are
+     * removed.
+     *
+     * @param player player whose moves are generated.
+     * @param board chessboard.
+     * @param stack move stack moves are saved to.
+     * @param ply ply of move stack used.
+     */
+    public void generateQuiets(Player player, ChessBoard board, MoveStack stack, int ply) {
+        generate(player, board, stack, ply, QUIETS);
+    }
+
+    private void generate(Player player, ChessBoard board, MoveStack stack, int ply, int mode) {
+        BitBoard bb = board.getBitBoard();
+        long kings = bb.getPieces(player, KING);
+        if (Long.bitCount(kings) != 1) {
+            generateByTestingMoves(player, board, stack, ply, mode);
+            return;
+        }
+        stack.clear(ply);
+        int king = Long.numberOfTrailingZeros(kings);
+        Player opponent = getOpponent(player);
+        long all = bb.getAllPieces();
+        long targets = ~bb.getOccupied(player);
+        if (mode == CAPTURES) {
+            targets = bb.getOccupied(opponent);
+        } else if (mode == QUIETS) {
+            targets = ~all;
+        }
+
+        long checkers = attackers(bb, king, opponent, all, 0);
+        addKingMoves(bb, player, king, targets, stack, ply);
+        if (Long.bitCount(checkers) > 1) {
+            return;
+        }
+
+        long checkMask = -1L;
+        if (checkers == 0) {
+            if (mode != CAPTURES) {
+                addCastling(player, board, king, stack, ply);
+            }
+        } else {
+            int checker = Long.numberOfTrailingZeros(checkers);
+            checkMask = checkers | AttackTables.between(king, checker);
+        }
+        long pinned = findPinnedPieces(bb, player, king);
+
+        addPawnMoves(player, board, king, checkMask, pinned, mode, stack, ply);
+
+        long pieces = bb.getPieces(player, KNIGHT) & ~pinned;
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            addMoves(bb, from, KNIGHT, AttackTables.knightAttacks(from) & targets & checkMask, stack, ply);
+            pieces &= pieces - 1;
+        }
+        pieces = bb.getPieces(player, BISHOP);
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            addMoves(bb, from, BISHOP, MagicAttackTables.bishopAttacks(from, all)
+                    & targets & checkMask & pinMask(from, pinned), stack, ply);
+            pieces &= pieces - 1;
+        }
+        pieces = bb.getPieces(player, ROOK);
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            addMoves(bb, from, ROOK, MagicAttackTables.rookAttacks(from, all)
+                    & targets & checkMask & pinMask(from, pinned), stack, ply);
+            pieces &= pieces - 1;
+        }
+        pieces = bb.getPieces(player, QUEEN);
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            addMoves(bb, from, QUEEN, MagicAttackTables.queenAttacks(from, all)
+                    & targets & checkMask & pinMask(from, pinned), stack, ply);
+            pieces &= pieces - 1;
+        }
+    }
+
+    /**
+     * Checks if player has any legal moves on board. Uses given ply of move
+     * stack for generating moves.
+     *
+     * @param player player whose moves are checked.
+     * @param board chessboard.
+     * @param stack move stack.
+     * @param ply ply of move stack used.
+     * @return true if player has at least one legal move.
+     */
+    public boolean hasLegalMoves(Player player, ChessBoard board, MoveStack stack, int ply) {
+        generateMoves(player, board, stack, ply);
+        return stack.size(ply) > 0;
+    }
+
+    /**
+     * Generates moves with MoveGenerator and removes those that leave one of
+     * player's kings threatened or don't belong to wanted kind of moves. Used
+     * when player doesn't have exactly one king.
+     */
+    private void generateByTestingMoves(Player player, ChessBoard board, MoveStack stack, int ply, int mode) {
+        pseudoLegalGenerator.generateMoves(player, board, stack, ply);
+        BitBoard bb = board.getBitBoard();
+        boolean hasKing = bb.getPieces(player, KING) != 0;
+        for (int i = stack.size(ply) - 1; i >= 0; i--) {
+            int move = stack.get(ply, i);
+            boolean capture = PackedMove.isCapture(move) || PackedMove.isPromotion(move);
+            if ((mode == CAPTURES && !capture) || (mode == QUIETS && capture)
+                    || (hasKing && !leavesKingsSafe(bb, player, move))) {
+                stack.remove(ply, i);
+            }
+        }
+    }
+
+    private long pinMask(int square, long pinned) {
+        if ((pinned & 1L << square) == 0) {
+            return -1L;
+        }
+        return pinRays[square];
+    }
+
+    /**
+     * Finds player's pieces that are the only piece between king and an
+     * opposing bishop, rook or queen able to threaten king along that line.
+     * Line each pinned piece can move along is saved to pinRays.
+     *
+     * @return bitboard of pinned pieces.
+     */
+    private long findPinnedPieces(BitBoard bb, Player player, int king) {
+        Player opponent = getOpponent(player);
+        long queens = bb.getPieces(opponent, QUEEN);
+        long snipers = (MagicAttackTables.rookAttacks(king, 0) & (bb.getPieces(opponent, ROOK) | queens))
+                | (MagicAttackTables.bishopAttacks(king, 0) & (bb.getPieces(opponent, BISHOP) | queens));
+        long pinned = 0;
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            long line = AttackTables.between(king, sniper);
+            long blockers = line & bb.getAllPieces();
+            if (Long.bitCount(blockers) == 1 && (blockers & bb.getOccupied(player)) != 0) {
+                pinned |= blockers;
+                pinRays[Long.numberOfTrailingZeros(blockers)] = line | 1L << sniper;
+            }
+            snipers &= snipers - 1;
+        }
+        return pinned;
+    }
+
+    private void addKingMoves(BitBoard bb, Player player, int king, long allowed, MoveStack stack, int ply) {
+        Player opponent = getOpponent(player);
+        long withoutKing = bb.getAllPieces() & ~(1L << king);
+        long targets = AttackTables.kingAttacks(king) & allowed;
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            if (attackers(bb, to, opponent, withoutKing, 0) == 0) {
+                stack.add(ply, encode(king, to, KING, bb.klassAt(to), null, 0));
+            }
+            targets &= targets - 1;
+        }
+    }
+
+    private void addMoves(BitBoard bb, int from, Klass moved, long targets, MoveStack stack, int ply) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            stack.add(ply, encode(from, to, moved, bb.klassAt(to), null, 0));
+            targets &= targets - 1;
+        }
+    }
+
+    private void addPawnMoves(Player player, ChessBoard board, int king, long checkMask, long pinned, int mode, MoveStack stack, int ply) {
+        BitBoard bb = board.getBitBoard();
+        long enemies = bb.getOccupied(getOpponent(player));
+        long pawns = bb.getPieces(player, PAWN);
+        int direction = player.getDirection();
+
+        while (pawns != 0) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            int column = BitBoard.column(from);
+            int row = BitBoard.row(from) + direction;
+            pawns &= pawns - 1;
+            if (row < 0 || row > 7) {
+                continue;
+            }
+            long allowed = checkMask & pinMask(from, pinned);
+
+            int to = BitBoard.squareIndex(column, row);
+            boolean promotes = row == 0 || row == 7;
+            if (!bb.isOccupied(to) && (mode == ALL || (mode == CAPTURES) == promotes)) {
+                if ((allowed & 1L << to) != 0) {
+                    addPawnMove(from, to, null, 0, stack, ply);
+                }
+                int twoSteps = row + direction;
+                if (mode != CAPTURES && twoSteps >= 0 && twoSteps < 8 && !board.getPiece(column, BitBoard.row(from)).isHasBeenMoved()) {
+                    int target = BitBoard.squareIndex(column, twoSteps);
+                    if (!bb.isOccupied(target) && (allowed & 1L << target) != 0) {
+                        addPawnMove(from, target, null, DOUBLE_PUSH, stack, ply);
+                    }
+                }
+            }
+
+            if (mode == QUIETS) {
+                continue;
+            }
+            long captures = AttackTables.pawnAttacks(player, from) & enemies & allowed;
+            while (captures != 0) {
+                to = Long.numberOfTrailingZeros(captures);
+                addPawnMove(from, to, bb.klassAt(to), 0, stack, ply);
+                captures &= captures - 1;
+            }
+            addEnPassant(player, board, from, stack, ply);
+        }
+    }
+
+    private void addPawnMove(int from, int to, Klass captured, int flags, MoveStack stack, int ply) {
+        int row = BitBoard.row(to);
+        if (row == 0 || row == 7) {
+            for (Klass promotion : PROMOTIONS) {
+                stack.add(ply, encode(from, to, PAWN, captured, promotion, flags));
+            }
+        } else {
+            stack.add(ply, encode(from, to, PAWN, captured, null, flags));
+        }
+    }
+
+    /**
+     * Adds en passant captures for pawn on given square if they don't leave
+     * king threatened. Both capturing and captured pawn leave the row they are
+     * on so pins and checks are checked from board after the move.
+     */
+    private void addEnPassant(Player player, ChessBoard board, int from, MoveStack stack, int ply) {
+        BitBoard bb = board.getBitBoard();
+        int column = BitBoard.column(from);
+        int row = BitBoard.row(from);
+        for (int side = -1; side <= 1; side += 2) {
+            int targetColumn = column + side;
+            if (targetColumn < 0 || targetColumn > 7) {
+                continue;
+            }
+            int passed = BitBoard.squareIndex(targetColumn, row);
+            if (bb.klassAt(passed) != PAWN || bb.ownerAt(passed) == player
+                    || !board.getPiece(targetColumn, row).isMovedTwoSquaresLastTurn()) {
+                continue;
+            }
+            int to = BitBoard.squareIndex(targetColumn, row + player.getDirection());
+            if (bb.isOccupied(to)) {
+                continue;
+            }
+            int move = encode(from, to, PAWN, PAWN, null, EN_PASSANT);
+            if (leavesKingsSafe(bb, player, move)) {
+                stack.add(ply, move);
+            }
+        }
+    }
+
+    /**
+     * Adds castling moves for king on given square. King can castle with a
+     * rook on either end of its row if neither has moved, squares between
+     * them are empty and squares the king moves through aren't threatened.
+     * Called only when king isn't threatened.
+     */
+    private void addCastling(Player player, ChessBoard board, int from, MoveStack stack, int ply) {
+        Piece king = board.getPiece(BitBoard.column(from), BitBoard.row(from));
+        if (king.isHasBeenMoved()) {
+            return;
+        }
+        BitBoard bb = board.getBitBoard();
+        int column = BitBoard.column(from);
+        int row = BitBoard.row(from);
+        for (int rookColumn = 0; rookColumn < 8; rookColumn += 7) {
+            int direction = rookColumn < column ? -1 : 1;
+            int target = column + 2 * direction;
+            int rook = BitBoard.squareIndex(rookColumn, row);
+            if (target < 0 || target > 7 || bb.klassAt(rook) != ROOK || bb.ownerAt(rook) != player
+                    || board.getPiece(rookColumn, row).isHasBeenMoved()
+                    || (AttackTables.between(from, rook) & bb.getAllPieces()) != 0
+                    || (board.attackedSquares(getOpponent(player))
+                    & (AttackTables.between(from, BitBoard.squareIndex(target, row)) | 1L << BitBoard.squareIndex(target, row))) != 0) {
+                continue;
+            }
+            stack.add(ply, encode(from, BitBoard.squareIndex(target, row), KING, null, null, CASTLING));
+        }
+    }
+
+    /**
+     * Checks if none of player's kings is threatened after given move without
+     * making it. Occupied squares after the move are calculated and captured
+     * piece is excluded from attackers. Castling is assumed to be legal as
+     * it is only generated when squares king passes aren't threatened.
+     */
+    private boolean leavesKingsSafe(BitBoard bb, Player player, int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        long captured = 0;
+        if (PackedMove.isEnPassant(move)) {
+            captured = 1L << BitBoard.squareIndex(BitBoard.column(to), BitBoard.row(from));
+        } else if (PackedMove.isCapture(move)) {
+            captured = 1L << to;
+        }
+        long occupied = (bb.getAllPieces() & ~(1L << from) & ~captured) | 1L << to;
+        long kings = bb.getPieces(player, KING);
+        if (PackedMove.moved(move) == KING) {
+            kings = (kings & ~(1L << from)) | 1L << to;
+        }
+        while (kings != 0) {
+            if (attackers(bb, Long.numberOfTrailingZeros(kings), getOpponent(player), occupied, captured) != 0) {
+                return false;
+            }
+            kings &= kings - 1;
+        }
+        return true;
+    }
+
+    /**
+     * Returns player's pieces attacking given square when given squares are
+     * occupied. Pieces on excluded squares are ignored.
+     */
+    private static long attackers(BitBoard bb, int square, Player player, long occupied, long excluded) {
+        long queens = bb.getPieces(player, QUEEN);
+        long attackers = (AttackTables.pawnAttacks(getOpponent(player), square) & bb.getPieces(player, PAWN))
+                | (AttackTables.knightAttacks(square) & bb.getPieces(player, KNIGHT))
+                | (AttackTables.kingAttacks(square) & bb.getPieces(player, KING))
+                | (MagicAttackTables.bishopAttacks(square, occupied) & (bb.getPieces(player, BISHOP) | queens))
+                | (MagicAttackTables.rookAttacks(square, occupied) & (bb.getPieces(player, ROOK) | queens));
+        return attackers & ~excluded;
+    }
+}
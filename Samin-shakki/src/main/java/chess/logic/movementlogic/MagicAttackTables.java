@@ -0,0 +1,206 @@
+package chess.logic.movementlogic;
+
+/**
+ * This class contains precomputed attack tables for sliding pieces. Attacks
+ * are looked up using magic bitboards: relevant occupancy of the attacking
+ * piece's rays is multiplied by a magic number and the highest bits of the
+ * product are used as index to the table of that square. Returned masks
+ * contain every square the piece attacks including the first occupied square
+ * on each ray regardless of its owner. Squares are indexed like in BitBoard.
+ *
+ * Magic numbers below were found by trying random numbers with few bits set
+ * until one mapped every relevant occupancy of the square without harmful
+ * collisions. Tables themselves are filled when this class is loaded.
+ *
+ * @author sami
+ */
+public class MagicAttackTables {
+
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] ROOK_MAGICS = {
+        0x3180008018224004L, 0x0440001008402000L, 0x41001009012002C0L,
+        0x0200082010044200L, 0x2080080002040080L, 0x0200020004012870L,
+        0x040010900228050CL, 0x420008220C044081L, 0x08018000A1904004L,
+        0x8480804000200080L, 0x0281002000410010L, 0x0000801000800800L,
+        0x0000808004000800L, 0x1001000204010008L, 0x2005000100140600L,
+        0x2802000080411422L, 0x2044828000304008L, 0x1110064000200844L,
+        0x0000110020004100L, 0x4040808008001000L, 0x0506110005000800L,
+        0x0044004002004100L, 0x0C00040002015008L, 0x280002000A826104L,
+        0x0430308080004002L, 0x2B00200080400082L, 0x3002220200104480L,
+        0x0230030300201008L, 0x840C080080040080L, 0x000A000200100804L,
+        0xA040020080800100L, 0x0541000100008042L, 0x0120814015800124L,
+        0x0020100040400020L, 0x0500100080802000L, 0x0100100080800806L,
+        0x4102800802800400L, 0x0048800400800200L, 0x0802081004000201L,
+        0x0002009902000444L, 0x0C40004020808004L, 0x0000200050024000L,
+        0x9000402001010010L, 0x8020100100090022L, 0x0000040008008080L,
+        0x8002000204008080L, 0x1020080201040090L, 0x800000408D060004L,
+        0x3620800040023280L, 0x0000200088400480L, 0x0000488200201200L,
+        0x1018801004080080L, 0x0008008008040080L, 0x0080800200040080L,
+        0x0628011082480400L, 0x0028009844010200L, 0x0001401102066082L,
+        0x0400104008250081L, 0x0004410A20120082L, 0x101300201000147BL,
+        0x008A0050081C202AL, 0x160D000400020801L, 0x0020020810008104L,
+        0x20A89C01022081C2L
+    };
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final long[][] ROOK_ATTACKS = new long[64][];
+
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final long[] BISHOP_MAGICS = {
+        0x1040010620821182L, 0x000212C802008062L, 0x0408880100201000L,
+        0x8031040A80808090L, 0x00040420040A0088L, 0x4100882008110200L,
+        0x0004120202220000L, 0x5A09010521014000L, 0x4000400801041080L,
+        0x0000100408204040L, 0x0000100902022401L, 0x8004080841040100L,
+        0x0010020210002000L, 0x100082300420120CL, 0x003402080482085AL,
+        0x0001030408842400L, 0x0040000902084234L, 0x0020008801443080L,
+        0x0002081048004300L, 0x0024200804210084L, 0x1004800C00A08392L,
+        0x0001012200908414L, 0x0004009201010930L, 0x8800200042080402L,
+        0x0210103004600200L, 0x0091204608420404L, 0x8008020004040010L,
+        0x0054041008020008L, 0x0024040108410040L, 0x0110408004100400L,
+        0x0012008004008860L, 0x010089000A011080L, 0x0201201000091000L,
+        0x0002022210107000L, 0x1024004401080820L, 0x4400040400080210L,
+        0x4001080200102200L, 0x10011101024A0040L, 0xA8040410480C0108L,
+        0x0900920840108401L, 0x0001101010300404L, 0x000A0A0242002010L,
+        0x0121924128007008L, 0x1200042017001800L, 0x0008400109004200L,
+        0x8010101201200810L, 0x0160084101000040L, 0x00100A0A02400031L,
+        0x0104120211040005L, 0x8042008088082002L, 0x0202020484440020L,
+        0xC000400020880018L, 0x4040061002088240L, 0x0112100290810412L,
+        0x00102102208A1028L, 0x41601800CC808042L, 0x000C210802012000L,
+        0x4000008420884400L, 0x4800001480882100L, 0x118A000140840400L,
+        0x0200839820020484L, 0x000000A044104081L, 0x020040A401020A10L,
+        0x02100288004C02C0L
+    };
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final long[][] BISHOP_ATTACKS = new long[64][];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            initSquare(square, ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS[square], ROOK_SHIFTS, ROOK_ATTACKS);
+            initSquare(square, BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS[square], BISHOP_SHIFTS, BISHOP_ATTACKS);
+        }
+    }
+
+    private MagicAttackTables() {
+    }
+
+    /**
+     * Returns squares attacked by rook on given square.
+     *
+     * @param square index of square rook is on.
+     * @param occupied bitboard of all occupied squares.
+     * @return bitboard of squares rook attacks.
+     */
+    public static long rookAttacks(int square, long occupied) {
+        long relevant = occupied & ROOK_MASKS[square];
+        return ROOK_ATTACKS[square][(int) ((relevant * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+    }
+
+    /**
+     * Returns squares attacked by bishop on given square.
+     *
+     * @param square index of square bishop is on.
+     * @param occupied bitboard of all occupied squares.
+     * @return bitboard of squares bishop attacks.
+     */
+    public static long bishopAttacks(int square, long occupied) {
+        long relevant = occupied & BISHOP_MASKS[square];
+        return BISHOP_ATTACKS[square][(int) ((relevant * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+    }
+
+    /**
+     * Returns squares attacked by queen on given square.
+     *
+     * @param square index of square queen is on.
+     * @param occupied bitboard of all occupied squares.
+     * @return bitboard of squares queen attacks.
+     */
+    public static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    /**
+     * Calculates attacks by walking each ray square by square. Used to fill
+     * the tables and as reference when testing them.
+     *
+     * @param square index of square piece is on.
+     * @param occupied bitboard of all occupied squares.
+     * @param directions column and row changes of rays.
+     * @return bitboard of attacked squares.
+     */
+    static long slowAttacks(int square, long occupied, int[][] directions) {
+        long attacks = 0;
+        for (int[] direction : directions) {
+            int column = (square & 7) + direction[0];
+            int row = (square >>> 3) + direction[1];
+            while (column >= 0 && column < 8 && row >= 0 && row < 8) {
+                long bit = 1L << (8 * row + column);
+                attacks |= bit;
+                if ((occupied & bit) != 0) {
+                    break;
+                }
+                column += direction[0];
+                row += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    static long slowRookAttacks(int square, long occupied) {
+        return slowAttacks(square, occupied, ROOK_DIRECTIONS);
+    }
+
+    static long slowBishopAttacks(int square, long occupied) {
+        return slowAttacks(square, occupied, BISHOP_DIRECTIONS);
+    }
+
+    static long rookMask(int square) {
+        return ROOK_MASKS[square];
+    }
+
+    static long bishopMask(int square) {
+        return BISHOP_MASKS[square];
+    }
+
+    /**
+     * Relevant occupancy mask contains squares on piece's rays excluding the
+     * last square of each ray as it is attacked whether occupied or not.
+     */
+    private static long relevantMask(int square, int[][] directions) {
+        long mask = 0;
+        for (int[] direction : directions) {
+            int column = (square & 7) + direction[0];
+            int row = (square >>> 3) + direction[1];
+            while (insideAfterStep(column, row, direction)) {
+                mask |= 1L << (8 * row + column);
+                column += direction[0];
+                row += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    private static boolean insideAfterStep(int column, int row, int[] direction) {
+        int nextColumn = column + direction[0];
+        int nextRow = row + direction[1];
+        return column >= 0 && column < 8 && row >= 0 && row < 8
+                && nextColumn >= 0 && nextColumn < 8 && nextRow >= 0 && nextRow < 8;
+    }
+
+    private static void initSquare(int square, int[][] directions, long[] masks,
+            long magic, int[] shifts, long[][] attacks) {
+        long mask = relevantMask(square, directions);
+        int bits = Long.bitCount(mask);
+        masks[square] = mask;
+        shifts[square] = 64 - bits;
+        attacks[square] = new long[1 << bits];
+
+        long subset = 0;
+        do {
+            int index = (int) ((subset * magic) >>> (64 - bits));
+            attacks[square][index] = slowAttacks(square, subset, directions);
+            subset = (subset - mask) & mask;
+        } while (subset != 0);
+    }
+}
@@ -0,0 +1,215 @@
+package chess.logic.movementlogic;
+
+import static chess.domain.PackedMove.CASTLING;
+import static chess.domain.PackedMove.DOUBLE_PUSH;
+import static chess.domain.PackedMove.EN_PASSANT;
+import static chess.domain.PackedMove.encode;
+import chess.domain.board.BitBoard;
+import chess.domain.board.ChessBoard;
+import chess.domain.board.Klass;
+import static chess.domain.board.Klass.*;
+import chess.domain.board.Piece;
+import chess.domain.board.Player;
+import static chess.domain.board.Player.getOpponent;
+import chess.domain.datastructures.MoveStack;
+
+/**
+ * This class generates all moves player can make as packed ints using
+ * bitboards of the chessboard. Generated moves follow same rules as
+ * MovementLogic: moves may leave own king in check, pawns that haven't moved
+ * can move two squares and pawns that moved two squares last turn can be
+ * captured en passant. Pawns reaching opposing end generate one move for each
+ * class they can be promoted to, queen first.
+ *
+ * @author sami
+ */
+public class MoveGenerator {
+
+    private static final Klass[] PROMOTIONS = {QUEEN, KNIGHT, ROOK, BISHOP};
+
+    /**
+     * Creates a new MoveGenerator.
+     */
+    public MoveGenerator() {
+    }
+
+    /**
+     * Saves all moves player can make on board to given ply of move stack.
+     * Earlier moves of that ply are removed.
+     *
+     * @param player player whose moves are generated.
+     * @param board chessboard.
+     * @param stack move stack moves are saved to.
+     * @param ply ply of move stack used.
+     */
+    public void generateMoves(Player player, ChessBoard board, MoveStack stack, int ply) {
+        stack.clear(ply);
+        BitBoard bb = board.getBitBoard();
+        long own = bb.getOccupied(player);
+        long all = bb.getAllPieces();
+
+        addPawnMoves(player, board, stack, ply);
+
+        long pieces = bb.getPieces(player, KNIGHT);
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            addMoves(bb, from, KNIGHT, AttackTables.knightAttacks(from) & ~own, stack, ply);
+            pieces &= pieces - 1;
+        }
+        pieces = bb.getPieces(player, BISHOP);
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            addMoves(bb, from, BISHOP, MagicAttackTables.bishopAttacks(from, all) & ~own, stack, ply);
+            pieces &= pieces - 1;
+        }
+        pieces = bb.getPieces(player, ROOK);
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            addMoves(bb, from, ROOK, MagicAttackTables.rookAttacks(from, all) & ~own, stack, ply);
+            pieces &= pieces - 1;
+        }
+        pieces = bb.getPieces(player, QUEEN);
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            addMoves(bb, from, QUEEN, MagicAttackTables.queenAttacks(from, all) & ~own, stack, ply);
+            pieces &= pieces - 1;
+        }
+        pieces = bb.getPieces(player, KING);
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            addMoves(bb, from, KING, AttackTables.kingAttacks(from) & ~own, stack, ply);
+            addCastling(player, board, from, stack, ply);
+            pieces &= pieces - 1;
+        }
+    }
+
+    private void addMoves(BitBoard bb, int from, Klass moved, long targets, MoveStack stack, int ply) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            stack.add(ply, encode(from, to, moved, bb.klassAt(to), null, 0));
+            targets &= targets - 1;
+        }
+    }
+
+    private void addPawnMoves(Player player, ChessBoard board, MoveStack stack, int ply) {
+        BitBoard bb = board.getBitBoard();
+        long enemies = bb.getOccupied(getOpponent(player));
+        long pawns = bb.getPieces(player, PAWN);
+        int direction = player.getDirection();
+
+        while (pawns != 0) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            int column = BitBoard.column(from);
+            int row = BitBoard.row(from) + direction;
+            pawns &= pawns - 1;
+            if (row < 0 || row > 7) {
+                continue;
+            }
+
+            int to = BitBoard.squareIndex(column, row);
+            if (!bb.isOccupied(to)) {
+                addPawnMove(from, to, null, 0, stack, ply);
+                int twoSteps = row + direction;
+                if (twoSteps >= 0 && twoSteps < 8 && !board.getPiece(column, BitBoard.row(from)).isHasBeenMoved()
+                        && !bb.isOccupied(BitBoard.squareIndex(column, twoSteps))) {
+                    addPawnMove(from, BitBoard.squareIndex(column, twoSteps), null, DOUBLE_PUSH, stack, ply);
+                }
+            }
+
+            long captures = AttackTables.pawnAttacks(player, from) & enemies;
+            while (captures != 0) {
+                to = Long.numberOfTrailingZeros(captures);
+                addPawnMove(from, to, bb.klassAt(to), 0, stack, ply);
+                captures &= captures - 1;
+            }
+            addEnPassant(player, board, from, stack, ply);
+        }
+    }
+
+    private void addPawnMove(int from, int to, Klass captured, int flags, MoveStack stack, int ply) {
+        int row = BitBoard.row(to);
+        if (row == 0 || row == 7) {
+            for (Klass promotion : PROMOTIONS) {
+                stack.add(ply, encode(from, to, PAWN, captured, promotion, flags));
+            }
+        } else {
+            stack.add(ply, encode(from, to, PAWN, captured, null, flags));
+        }
+    }
+
+    /**
+     * Adds en passant captures for pawn on given square. Pawn can capture
+     * opposing pawn next to it en passant if that pawn moved two squares last
+     * turn and the square behind it is empty.
+     */
+    private void addEnPassant(Player player, ChessBoard board, int from, MoveStack stack, int ply) {
+        BitBoard bb = board.getBitBoard();
+        int column = BitBoard.column(from);
+        int row = BitBoard.row(from);
+        for (int side = -1; side <= 1; side += 2) {
+            int targetColumn = column + side;
+            if (targetColumn < 0 || targetColumn > 7) {
+                continue;
+            }
+            int passed = BitBoard.squareIndex(targetColumn, row);
+            if (bb.klassAt(passed) != PAWN || bb.ownerAt(passed) == player
+                    || !board.getPiece(targetColumn, row).isMovedTwoSquaresLastTurn()) {
+                continue;
+            }
+            int to = BitBoard.squareIndex(targetColumn, row + player.getDirection());
+            if (!bb.isOccupied(to)) {
+                stack.add(ply, encode(from, to, PAWN, PAWN, null, EN_PASSANT));
+            }
+        }
+    }
+
+    /**
+     * Adds castling moves for king on given square. King can castle with a
+     * rook on either end of its row if neither has moved, squares between
+     * them are empty and squares the king moves through aren't threatened.
+     */
+    private void addCastling(Player player, ChessBoard board, int from, MoveStack stack, int ply) {
+        Piece king = board.getPiece(BitBoard.column(from), BitBoard.row(from));
+        if (king.isHasBeenMoved()) {
+            return;
+        }
+        int column = BitBoard.column(from);
+        int row = BitBoard.row(from);
+        for (int rookColumn = 0; rookColumn < 8; rookColumn += 7) {
+            int direction = rookColumn < column ? -1 : 1;
+            int target = column + 2 * direction;
+            if (target < 0 || target > 7 || !rookCanCastle(player, board, rookColumn, row)
+                    || !squaresBetweenAreEmpty(board.getBitBoard(), column, rookColumn, row)
+                    || squaresAreThreatened(player, board, column, target, row)) {
+                continue;
+            }
+            stack.add(ply, encode(from, BitBoard.squareIndex(target, row), KING, null, null, CASTLING));
+        }
+    }
+
+    private boolean rookCanCastle(Player player, ChessBoard board, int column, int row) {
+        int square = BitBoard.squareIndex(column, row);
+        BitBoard bb = board.getBitBoard();
+        return bb.klassAt(square) == ROOK && bb.ownerAt(square) == player
+                && !board.getPiece(column, row).isHasBeenMoved();
+    }
+
+    private boolean squaresBetweenAreEmpty(BitBoard bb, int kingColumn, int rookColumn, int row) {
+        for (int column = Math.min(kingColumn, rookColumn) + 1; column < Math.max(kingColumn, rookColumn); column++) {
+            if (bb.isOccupied(BitBoard.squareIndex(column, row))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean squaresAreThreatened(Player player, ChessBoard board, int kingColumn, int target, int row) {
+        long threatened = board.attackedSquares(getOpponent(player));
+        for (int column = Math.min(kingColumn, target); column <= Math.max(kingColumn, target); column++) {
+            if ((threatened & 1L << BitBoard.squareIndex(column, row)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -8,6 +8,7 @@ import chess.domain.board.ChessBoard;
 import chess.domain.board.ChessBoardCopier;
 import chess.domain.board.Player;
 import chess.domain.board.Square;
+import chess.domain.datastructures.MoveStack;
 import static chess.domain.board.Klass.*;
 import java.util.HashSet;
 import java.util.Set;
@@ -46,6 +47,14 @@ public class MovementLogic {
      * Object used to move Rooks on ChessBoard.
      */
     private RookMover rookMover;
+    /**
+     * Object used to generate packed moves for search.
+     */
+    private MoveGenerator moveGenerator;
+    /**
+     * Object used to generate legal packed moves for search.
+     */
+    private LegalMoveGenerator legalMoveGenerator;
 
     /**
      * Creates a new MovementLogic initializing mover-objects for each chess
@@ -58,6 +67,8 @@ public class MovementLogic {
         pawnMover = new PawnMover();
         queenMover = new QueenMover();
         rookMover = new RookMover();
+        moveGenerator = new MoveGenerator();
+        legalMoveGenerator = new LegalMoveGenerator();
     }
 
     /**
@@ -258,4 +269,58 @@ public class MovementLogic {
         return possibleMovements;
     }
 
+    /**
+     * Saves all movements that given player can commit as packed moves to
+     * chosen ply of given move stack. Unlike other methods this doesn't create
+     * new objects for each move.
+     *
+     * @param player given player
+     * @param board given chessboard
+     * @param stack move stack that moves are saved to
+     * @param ply ply of move stack where moves are saved
+     */
+    public void possibleMovementsByPlayer(Player player, ChessBoard board, MoveStack stack, int ply) {
+        moveGenerator.generateMoves(player, board, stack, ply);
+    }
+
+    /**
+     * Saves all legal movements that given player can commit as packed moves
+     * to chosen ply of given move stack. None of the moves leave player's king
+     * threatened.
+     *
+     * @param player given player
+     * @param board given chessboard
+     * @param stack move stack that moves are saved to
+     * @param ply ply of move stack where moves are saved
+     */
+    public void legalMovementsByPlayer(Player player, ChessBoard board, MoveStack stack, int ply) {
+        legalMoveGenerator.generateMoves(player, board, stack, ply);
+    }
+
+    /**
+     * Saves legal captures and promotions that given player can commit as
+     * packed moves to chosen ply of given move stack. Used by quiescence
+     * search.
+     *
+     * @param player given player
+     * @param board given chessboard
+     * @param stack move stack that moves are saved to
+     * @param ply ply of move stack where moves are saved
+     */
+    public void legalCapturesByPlayer(Player player, ChessBoard board, MoveStack stack, int ply) {
+        legalMoveGenerator.generateCaptures(player, board, stack, ply);
+    }
+
+    /**
+     * Saves legal moves that aren't captures or promotions that given player
+     * can commit as packed moves to chosen ply of given move stack.
+     *
+     * @param player given player
+     * @param board given chessboard
+     * @param stack move stack that moves are saved to
+     * @param ply ply of move stack where moves are saved
+     */
+    public void legalQuietsByPlayer(Player player, ChessBoard board, MoveStack stack, int ply) {
+        legalMoveGenerator.generateQuiets(player, board, stack, ply);
+    }
 }
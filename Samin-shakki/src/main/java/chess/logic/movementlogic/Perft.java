@@ -0,0 +1,194 @@
+package chess.logic.movementlogic;
+
+import chess.domain.GameSituation;
+import chess.domain.PackedMove;
+import chess.domain.board.ChessBoard;
+import chess.domain.board.ChessBoardCopier;
+import chess.domain.board.Piece;
+import chess.domain.board.Player;
+import static chess.domain.board.Player.getOpponent;
+import chess.domain.board.Square;
+import chess.domain.datastructures.MoveStack;
+import chess.logic.chessboardinitializers.FenChessBoardInitializer;
+import chess.logic.gamelogic.CheckingLogic;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class counts all move sequences of given length from a game situation.
+ * Comparing these counts to known values is used to validate move generation
+ * and time taken to count them measures speed of move generation. Counting
+ * can be done either with legal packed moves made with makeMove or with
+ * MovementLogic and its piece movers.
+ *
+ * Running main counts moves in standard test positions and prints nodes
+ * counted, expected counts and nodes per second.
+ *
+ * @see <a href="https://www.chessprogramming.org/Perft_Results">Perft
+ * results</a>
+ *
+ * @author sami
+ */
+public class Perft {
+
+    public static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    public static final String POSITION_3 = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+    public static final String POSITION_4 = "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1";
+    public static final String POSITION_5 = "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8";
+
+    private static final String[] POSITIONS = {FenChessBoardInitializer.STANDARD_START,
+        KIWIPETE, POSITION_3, POSITION_4, POSITION_5};
+    private static final long[][] EXPECTED = {
+        {20, 400, 8902, 197281},
+        {48, 2039, 97862},
+        {14, 191, 2812, 43238, 674624},
+        {6, 264, 9467, 422333},
+        {44, 1486, 62379}};
+
+    private GameSituation sit;
+    private MovementLogic ml;
+    private MoveStack stack;
+
+    /**
+     * Creates a new Perft for given game situation. Moves are counted for
+     * player whose turn it is in the situation.
+     *
+     * @param sit game situation.
+     */
+    public Perft(GameSituation sit) {
+        this.sit = sit;
+        this.ml = sit.getChessBoard().getMovementLogic();
+        this.stack = new MoveStack(1);
+    }
+
+    /**
+     * Creates a game situation from given FEN with correct player to move.
+     *
+     * @param fen situation in Forsyth-Edwards notation.
+     * @return new game situation.
+     */
+    public static GameSituation situationFromFen(String fen) {
+        FenChessBoardInitializer init = new FenChessBoardInitializer(fen);
+        GameSituation sit = new GameSituation(init, new MovementLogic());
+        if (init.getPlayerToMove() == Player.BLACK) {
+            sit.setTurn(2);
+        }
+        return sit;
+    }
+
+    /**
+     * Counts legal move sequences of given length.
+     *
+     * @param depth length of move sequences.
+     * @return amount of move sequences.
+     */
+    public long perft(int depth) {
+        ensureCapacity(depth);
+        return perft(sit.whoseTurn(), depth);
+    }
+
+    private long perft(Player player, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        ml.legalMovementsByPlayer(player, sit.getChessBoard(), stack, depth);
+        if (depth == 1) {
+            return stack.size(depth);
+        }
+        long nodes = 0;
+        for (int i = 0; i < stack.size(depth); i++) {
+            sit.makeMove(stack.get(depth, i));
+            nodes += perft(getOpponent(player), depth - 1);
+            sit.unmakeMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Counts legal move sequences of given length separately for each first
+     * move. Used to find which move is counted wrong.
+     *
+     * @param depth length of move sequences.
+     * @return map from first move in coordinate notation to amount of move
+     * sequences starting with it.
+     */
+    public Map<String, Long> divide(int depth) {
+        ensureCapacity(depth);
+        Map<String, Long> counts = new LinkedHashMap<>();
+        Player player = sit.whoseTurn();
+        ml.legalMovementsByPlayer(player, sit.getChessBoard(), stack, depth);
+        for (int i = 0; i < stack.size(depth); i++) {
+            int move = stack.get(depth, i);
+            sit.makeMove(move);
+            counts.put(PackedMove.toString(move), perft(getOpponent(player), depth - 1));
+            sit.unmakeMove();
+        }
+        return counts;
+    }
+
+    /**
+     * Counts move sequences of given length using possible moves given by
+     * MovementLogic. Each move is made with MovementLogic, rejected if it
+     * leaves own king checked and undone from a backup. Pawns reaching
+     * opposing end aren't promoted.
+     *
+     * @param depth length of move sequences.
+     * @return amount of move sequences.
+     */
+    public long movementLogicPerft(int depth) {
+        return movementLogicPerft(sit.whoseTurn(), depth);
+    }
+
+    private long movementLogicPerft(Player player, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        ChessBoard board = sit.getChessBoard();
+        ChessBoard backUp = ChessBoardCopier.copy(board);
+        int movesTillDraw = sit.getMovesTillDraw();
+        long nodes = 0;
+        for (Piece piece : new ArrayList<>(board.getPieces(player))) {
+            if (piece.isTaken()) {
+                continue;
+            }
+            Square from = piece.getLocation();
+            for (Square target : ml.possibleMoves(piece, board)) {
+                ml.move(piece, target, sit);
+                if (!CheckingLogic.checkIfChecked(board, player)) {
+                    nodes += movementLogicPerft(getOpponent(player), depth - 1);
+                }
+                ChessBoardCopier.undoMove(backUp, sit, from, target, movesTillDraw);
+            }
+        }
+        return nodes;
+    }
+
+    private void ensureCapacity(int depth) {
+        if (stack.getPlies() <= depth) {
+            stack = new MoveStack(depth + 1);
+        }
+    }
+
+    /**
+     * Counts moves in standard test positions up to given depth and prints
+     * counts with nodes per second.
+     *
+     * @param args optional maximum depth, 4 by default.
+     */
+    public static void main(String[] args) {
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        for (int i = 0; i < POSITIONS.length; i++) {
+            System.out.println(POSITIONS[i]);
+            Perft perft = new Perft(situationFromFen(POSITIONS[i]));
+            for (int depth = 1; depth <= Math.min(maxDepth, EXPECTED[i].length); depth++) {
+                long start = System.nanoTime();
+                long nodes = perft.perft(depth);
+                long time = Math.max(1, System.nanoTime() - start);
+                System.out.println("  depth " + depth + ": " + nodes
+                        + (nodes == EXPECTED[i][depth - 1] ? " ok" : " expected " + EXPECTED[i][depth - 1])
+                        + ", " + (nodes * 1000000000L / time) + " nodes/s");
+            }
+        }
+    }
+}
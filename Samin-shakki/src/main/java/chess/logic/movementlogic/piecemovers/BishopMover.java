@@ -5,11 +5,12 @@
  */
 package chess.logic.movementlogic.piecemovers;
 
+import chess.domain.board.BitBoard;
 import chess.domain.board.ChessBoard;
 import java.util.Set;
 import chess.domain.board.Square;
 import chess.domain.board.Piece;
-import java.util.HashSet;
+import chess.logic.movementlogic.MagicAttackTables;
 
 /**
  * This class is responsible of movement calculation of bishops.
@@ -34,10 +35,9 @@ public class BishopMover extends PieceMover {
      */
     @Override
     public Set<Square> threatenedSquares(Piece bishop, ChessBoard board) {
-        Set<Square> possibilities = new HashSet<>();
-        addDiagonalPossibilities(bishop.getLocation(), board, possibilities);
-
-        return possibilities;
+        return squaresOf(MagicAttackTables.bishopAttacks(
+                BitBoard.squareIndex(bishop.getColumn(), bishop.getRow()),
+                board.getBitBoard().getAllPieces()));
     }
 
 }
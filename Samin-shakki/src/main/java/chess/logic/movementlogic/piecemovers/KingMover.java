@@ -7,6 +7,7 @@ package chess.logic.movementlogic.piecemovers;
 
 import chess.domain.GameSituation;
 import chess.domain.Move;
+import chess.domain.board.BitBoard;
 import chess.domain.board.ChessBoard;
 import java.util.Set;
 import chess.domain.board.Player;
@@ -102,7 +103,8 @@ public class KingMover extends PieceMover {
     /**
      * Returns a list containing all squares chosen king can legally move to.
      * That means all neighbor squares of king's location that aren't threatened
-     * by opponent or contain player's own piece.
+     * by opponent or contain player's own piece. Threatened squares are read
+     * from attack bitboard of opponent.
      *
      * @param piece target king
      * @param board chessboard on which movement happens
@@ -111,7 +113,6 @@ public class KingMover extends PieceMover {
     @Override
     public Set<Square> possibleMoves(Piece piece, ChessBoard board) {
         Set<Square> moves = new HashSet<>();
-        board.updateThreatenedSquares(getOpponent(piece.getOwner()));
 
         threatenedSquares(piece, board).stream()
                 .filter((target) -> (legalToMoveTo(piece, target, board)
@@ -125,7 +126,7 @@ public class KingMover extends PieceMover {
     }
 
     private boolean isThreatenedByOpponent(Player player, Square target, ChessBoard board) {
-        return board.threatenedSquares(getOpponent(player)).contains(target);
+        return (board.attackedSquares(getOpponent(player)) & 1L << BitBoard.squareIndex(target)) != 0;
     }
 
     private void addCastling(Piece king, ChessBoard board, Set<Square> possibilities) {
@@ -169,9 +170,9 @@ public class KingMover extends PieceMover {
     }
 
     private boolean squaresAreAllUnthreatened(ChessBoard board, Player opponent, int minCol, int maxCol, int row) {
-        Set<Square> threatenedSquares = board.threatenedSquares(opponent);
+        long threatenedSquares = board.attackedSquares(opponent);
         for (int col = minCol; col < maxCol + 1; col++) {
-            if (threatenedSquares.contains(new Square(col, row))) {
+            if ((threatenedSquares & 1L << BitBoard.squareIndex(col, row)) != 0) {
                 return false;
             }
         }
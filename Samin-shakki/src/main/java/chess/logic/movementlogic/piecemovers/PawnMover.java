@@ -52,6 +52,7 @@ public class PawnMover extends PieceMover {
                 System.out.println(target);
             }
             sit.getChessBoard().getPiece(enPassanted).setTaken(true);
+            sit.getChessBoard().setPiece(enPassanted, null);
         }
 
         super.move(piece, target, sit);
@@ -81,6 +82,7 @@ public class PawnMover extends PieceMover {
             Square enPassanted = new Square(move.getTargetColumn(), move.getFrom().getRow());
             sit.updateHashForTakingPiece(enPassanted);
             sit.getChessBoard().getPiece(enPassanted).setTaken(true);
+            sit.getChessBoard().setPiece(enPassanted, null);
         }
 
         super.commitMove(move, sit);
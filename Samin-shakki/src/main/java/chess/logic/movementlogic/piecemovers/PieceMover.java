@@ -2,6 +2,7 @@ package chess.logic.movementlogic.piecemovers;
 
 import chess.domain.GameSituation;
 import chess.domain.Move;
+import chess.domain.board.BitBoard;
 import chess.domain.board.ChessBoard;
 import java.util.Set;
 import chess.domain.board.Square;
@@ -49,21 +50,20 @@ public abstract class PieceMover {
         return moves;
     }
 
-    protected void addDiagonalPossibilities(Square current, ChessBoard board, Set<Square> possibilities) {
-        possibilitiesToDirection(current, board, possibilities, 1, 1);
-        possibilitiesToDirection(current, board, possibilities, 1, -1);
-        possibilitiesToDirection(current, board, possibilities, -1, 1);
-        possibilitiesToDirection(current, board, possibilities, -1, -1);
-    }
-
-    protected void addHorizontalPossibilities(Square current, ChessBoard board, Set<Square> possibilities) {
-        possibilitiesToDirection(current, board, possibilities, 0, 1);
-        possibilitiesToDirection(current, board, possibilities, 0, -1);
-    }
-
-    protected void addVerticalPossibilities(Square current, ChessBoard board, Set<Square> possibilities) {
-        possibilitiesToDirection(current, board, possibilities, 1, 0);
-        possibilitiesToDirection(current, board, possibilities, -1, 0);
+    /**
+     * Returns set containing squares whose bits are set in given bitboard.
+     *
+     * @param mask bitboard of squares.
+     * @return set containing all squares in mask.
+     */
+    protected Set<Square> squaresOf(long mask) {
+        Set<Square> squares = new HashSet<>();
+        while (mask != 0) {
+            int index = Long.numberOfTrailingZeros(mask);
+            squares.add(new Square(BitBoard.column(index), BitBoard.row(index)));
+            mask &= mask - 1;
+        }
+        return squares;
     }
 
     protected Set<Square> possibilities(Square location, int[] columnChange, int[] rowChange, ChessBoard board) {
@@ -149,20 +149,4 @@ public abstract class PieceMover {
         move.getPiece().setColumn(move.getTargetColumn());
         move.getPiece().setRow(move.getTargetRow());
     }
-
-    private void possibilitiesToDirection(Square current, ChessBoard board, Set<Square> possibilities, int columnChange, int rowChange) {
-        int newColumn = current.getColumn() + columnChange;
-        int newRow = current.getRow() + rowChange;
-
-        while (board.withinTable(newColumn, newRow)) {
-            Square target = new Square(newColumn, newRow);
-            possibilities.add(target);
-
-            if (board.squareIsOccupied(target)) {
-                break;
-            }
-            newColumn = target.getColumn() + columnChange;
-            newRow = target.getRow() + rowChange;
-        }
-    }
 }
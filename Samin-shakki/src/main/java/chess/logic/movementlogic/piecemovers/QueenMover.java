@@ -5,11 +5,12 @@
  */
 package chess.logic.movementlogic.piecemovers;
 
+import chess.domain.board.BitBoard;
 import chess.domain.board.ChessBoard;
 import java.util.Set;
 import chess.domain.board.Square;
 import chess.domain.board.Piece;
-import java.util.HashSet;
+import chess.logic.movementlogic.MagicAttackTables;
 
 /**
  * This class is responsible for all queen-related movement logic.
@@ -32,11 +33,8 @@ public class QueenMover extends PieceMover {
      */
     @Override
     public Set<Square> threatenedSquares(Piece piece, ChessBoard board) {
-        Set<Square> possibilities = new HashSet<>();
-        addDiagonalPossibilities(piece.getLocation(), board, possibilities);
-        addHorizontalPossibilities(piece.getLocation(), board, possibilities);
-        addVerticalPossibilities(piece.getLocation(), board, possibilities);
-
-        return possibilities;
+        return squaresOf(MagicAttackTables.queenAttacks(
+                BitBoard.squareIndex(piece.getColumn(), piece.getRow()),
+                board.getBitBoard().getAllPieces()));
     }
 }
@@ -7,11 +7,12 @@ package chess.logic.movementlogic.piecemovers;
 
 import chess.domain.GameSituation;
 import chess.domain.Move;
+import chess.domain.board.BitBoard;
 import chess.domain.board.ChessBoard;
 import java.util.Set;
 import chess.domain.board.Square;
 import chess.domain.board.Piece;
-import java.util.HashSet;
+import chess.logic.movementlogic.MagicAttackTables;
 
 /**
  * This class is responsible for all rook-related movement logic.
@@ -56,10 +57,8 @@ public class RookMover extends PieceMover {
      */
     @Override
     public Set<Square> threatenedSquares(Piece piece, ChessBoard board) {
-        Set<Square> possibilities = new HashSet<>();
-        addHorizontalPossibilities(piece.getLocation(), board, possibilities);
-        addVerticalPossibilities(piece.getLocation(), board, possibilities);
-
-        return possibilities;
+        return squaresOf(MagicAttackTables.rookAttacks(
+                BitBoard.squareIndex(piece.getColumn(), piece.getRow()),
+                board.getBitBoard().getAllPieces()));
     }
 }
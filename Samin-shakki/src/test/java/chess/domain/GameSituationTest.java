@@ -8,8 +8,15 @@ import chess.domain.board.Player;
 import chess.domain.board.Square;
 import chess.domain.board.Piece;
 import chess.logic.chessboardinitializers.EmptyBoardInitializer;
+import chess.domain.board.BitBoard;
 import static chess.domain.board.Klass.KING;
+import static chess.domain.board.Klass.KNIGHT;
 import static chess.domain.board.Klass.PAWN;
+import static chess.domain.board.Klass.ROOK;
+import chess.domain.datastructures.MoveStack;
+import chess.logic.ailogic.GameSituationEvaluator;
+import chess.logic.ailogic.ZobristHasher;
+import chess.logic.movementlogic.Perft;
 import chess.logic.chessboardinitializers.ChessBoardInitializer;
 import static chess.logic.chessboardinitializers.ChessBoardInitializer.putPieceOnBoard;
 import chess.logic.chessboardinitializers.StandardChessBoardInitializer;
@@ -216,4 +223,197 @@ public class GameSituationTest {
             assertNotEquals("wpp",piece.getPieceCode());
         }
     }
+
+    @Test
+    public void makeMoveAndUnmakeMoveRestoreBoardHashAndMovesTillDraw() {
+        game = new GameSituation(init, new MovementLogic());
+        ChessBoard cb = game.getChessBoard();
+        ChessBoard bu = copy(cb);
+        long oldHash = game.getBoardHash();
+        MoveStack moves = new MoveStack(1);
+        cb.getMovementLogic().possibleMovementsByPlayer(Player.WHITE, cb, moves, 0);
+
+        for (int i = 0; i < moves.size(0); i++) {
+            game.makeMove(moves.get(0, i));
+            assertEquals(game.getHasher().hash(cb), game.getBoardHash());
+            game.unmakeMove();
+            assertTrue(chessBoardsAreDeeplyEqual(cb, bu));
+            assertEquals(oldHash, game.getBoardHash());
+            assertEquals(100, game.getMovesTillDraw());
+            assertEquals(1, game.getCountOfCurrentSituation());
+        }
+    }
+
+    @Test
+    public void makeMoveCapturesEnPassantAndUnmakeMovePutsPawnBack() {
+        Piece whitePawn = new Piece(PAWN, 4, 3, Player.WHITE, "wp");
+        Piece blackPawn = new Piece(PAWN, 5, 3, Player.BLACK, "bp");
+        ChessBoard board = game.getChessBoard();
+        putPieceOnBoard(board, whitePawn);
+        putPieceOnBoard(board, blackPawn);
+        blackPawn.setMovedTwoSquaresLastTurn(true);
+        game.reHashBoard(false);
+        ChessBoard bu = copy(board);
+
+        game.makeMove(PackedMove.encode(board, new Square(4, 3), new Square(5, 2)));
+        assertTrue(blackPawn.isTaken());
+        assertNull(board.getPiece(5, 3));
+        assertEquals(whitePawn, board.getPiece(5, 2));
+        assertEquals(game.getHasher().hash(board), game.getBoardHash());
+
+        game.unmakeMove();
+        assertTrue(chessBoardsAreDeeplyEqual(board, bu));
+        assertTrue(blackPawn.isMovedTwoSquaresLastTurn());
+    }
+
+    @Test
+    public void makeMoveMovesRookWhenCastlingAndUnmakeMoveRevertsIt() {
+        ChessBoard board = game.getChessBoard();
+        board.setPiece(0, 0, null);
+        board.getPieces(Player.WHITE).clear();
+        putPieceOnBoard(board, new Piece(KING, 4, 7, Player.WHITE, "wk"));
+        putPieceOnBoard(board, new Piece(ROOK, 7, 7, Player.WHITE, "wr"));
+        game.reHashBoard(false);
+        ChessBoard bu = copy(board);
+
+        game.makeMove(PackedMove.encode(board, new Square(4, 7), new Square(6, 7)));
+        assertEquals(ROOK, board.getPiece(5, 7).getKlass());
+        assertNull(board.getPiece(7, 7));
+        assertEquals(game.getHasher().hash(board), game.getBoardHash());
+
+        game.unmakeMove();
+        assertTrue(chessBoardsAreDeeplyEqual(board, bu));
+        assertFalse(board.getPiece(7, 7).isHasBeenMoved());
+    }
+
+    @Test
+    public void makeMovePromotesPawnAndUnmakeMoveRevertsPromotion() {
+        ChessBoard board = game.getChessBoard();
+        Piece whitePawn = new Piece(PAWN, 3, 1, Player.WHITE, "wp");
+        putPieceOnBoard(board, whitePawn);
+        putPieceOnBoard(board, new Piece(ROOK, 4, 0, Player.BLACK, "br"));
+        game.reHashBoard(false);
+        ChessBoard bu = copy(board);
+
+        game.makeMove(PackedMove.encode(BitBoard.squareIndex(3, 1), BitBoard.squareIndex(4, 0),
+                PAWN, ROOK, KNIGHT, PackedMove.NONE));
+        assertEquals(KNIGHT, whitePawn.getKlass());
+        assertEquals(100, game.getMovesTillDraw());
+        assertEquals(game.getHasher().hash(board), game.getBoardHash());
+
+        game.unmakeMove();
+        assertTrue(chessBoardsAreDeeplyEqual(board, bu));
+        assertEquals(PAWN, whitePawn.getKlass());
+    }
+
+    @Test
+    public void copyHasEqualButSeparateBoardAndSameHash() {
+        game = new GameSituation(init, new MovementLogic());
+        game.makeMove(PackedMove.encode(game.getChessBoard(), new Square(4, 6), new Square(4, 4)));
+        GameSituation copy = game.copy();
+        assertTrue(chessBoardsAreDeeplyEqual(game.getChessBoard(), copy.getChessBoard()));
+        assertEquals(game.getBoardHash(), copy.getBoardHash());
+        assertEquals(game.whoseTurn(), copy.whoseTurn());
+        assertNotSame(game.getChessBoard().getMovementLogic(), copy.getChessBoard().getMovementLogic());
+
+        ChessBoard board = copy(game.getChessBoard());
+        copy.makeMove(PackedMove.encode(copy.getChessBoard(), new Square(4, 1), new Square(4, 3)));
+        assertTrue(chessBoardsAreDeeplyEqual(board, game.getChessBoard()));
+        copy.unmakeMove();
+        assertEquals(game.getBoardHash(), copy.getBoardHash());
+    }
+
+    @Test
+    public void nullMoveEndsEnPassantAndUnmakingItRestoresIt() {
+        Piece whitePawn = new Piece(PAWN, 4, 3, Player.WHITE, "wp");
+        Piece blackPawn = new Piece(PAWN, 5, 3, Player.BLACK, "bp");
+        ChessBoard board = game.getChessBoard();
+        putPieceOnBoard(board, whitePawn);
+        putPieceOnBoard(board, blackPawn);
+        blackPawn.setMovedTwoSquaresLastTurn(true);
+        game.reHashBoard(false);
+        long hash = game.getBoardHash();
+        int count = game.getCountOfCurrentSituation();
+
+        game.makeNullMove(Player.WHITE);
+        assertTrue(game.lastMoveWasNull());
+        assertFalse(blackPawn.isMovedTwoSquaresLastTurn());
+        assertEquals(hash, game.getBoardHash());
+        assertEquals(count, game.getCountOfCurrentSituation());
+
+        game.unmakeNullMove();
+        assertFalse(game.lastMoveWasNull());
+        assertTrue(blackPawn.isMovedTwoSquaresLastTurn());
+        assertEquals(hash, game.getBoardHash());
+    }
+
+    /**
+     * Sums material and positional values of pieces on board from scratch.
+     */
+    private int materialOfPieces(ChessBoard board, Player player, boolean endgame) {
+        int material = 0;
+        for (Piece piece : board.getPieces(player)) {
+            if (!piece.isTaken()) {
+                int code = BitBoard.pieceCode(player, piece.getKlass());
+                int square = BitBoard.squareIndex(piece.getLocation());
+                material += endgame ? GameSituationEvaluator.endgameSquareValue(code, square)
+                        : GameSituationEvaluator.squareValue(code, square);
+            }
+        }
+        return material;
+    }
+
+    private int phaseOfPieces(ChessBoard board) {
+        int phase = 0;
+        for (Player player : Player.values()) {
+            for (Piece piece : board.getPieces(player)) {
+                if (!piece.isTaken()) {
+                    phase += GameSituationEvaluator.phaseWeight(piece.getKlass());
+                }
+            }
+        }
+        return phase;
+    }
+
+    private long pawnKeyOfPieces(ChessBoard board) {
+        long key = 0;
+        for (Player player : Player.values()) {
+            for (Piece piece : board.getPieces(player)) {
+                if (!piece.isTaken() && piece.getKlass() == PAWN) {
+                    key ^= ZobristHasher.pawnHash(player, BitBoard.squareIndex(piece.getLocation()));
+                }
+            }
+        }
+        return key;
+    }
+
+    private void assertMaterialIsUpToDate(int depth) {
+        ChessBoard board = game.getChessBoard();
+        for (Player player : Player.values()) {
+            assertEquals(materialOfPieces(board, player, false), board.getBitBoard().getMaterial(player));
+            assertEquals(materialOfPieces(board, player, true), board.getBitBoard().getEndgameMaterial(player));
+        }
+        assertEquals(phaseOfPieces(board), board.getBitBoard().getPhase());
+        assertEquals(pawnKeyOfPieces(board), board.getBitBoard().getPawnKey());
+        if (depth == 0) {
+            return;
+        }
+        MoveStack moves = new MoveStack(1);
+        board.getMovementLogic().legalMovementsByPlayer(game.whoseTurn(), board, moves, 0);
+        for (int i = 0; i < moves.size(0); i++) {
+            game.makeMove(moves.get(0, i));
+            game.setTurn(game.getTurn() + 1);
+            assertMaterialIsUpToDate(depth - 1);
+            game.setTurn(game.getTurn() - 1);
+            game.unmakeMove();
+        }
+    }
+
+    @Test
+    public void materialIsKeptUpToDateByMakeMoveAndUnmakeMove() {
+        game = Perft.situationFromFen(Perft.KIWIPETE);
+        assertMaterialIsUpToDate(2);
+        game = Perft.situationFromFen("n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1");
+        assertMaterialIsUpToDate(2);
+    }
 }
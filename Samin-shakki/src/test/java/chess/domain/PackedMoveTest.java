@@ -0,0 +1,91 @@
+package chess.domain;
+
+import chess.domain.board.BitBoard;
+import chess.domain.board.ChessBoard;
+import static chess.domain.board.Klass.*;
+import chess.domain.board.Piece;
+import chess.domain.board.Player;
+import chess.domain.board.Square;
+import static chess.logic.chessboardinitializers.ChessBoardInitializer.putPieceOnBoard;
+import chess.logic.movementlogic.MovementLogic;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author sami
+ */
+public class PackedMoveTest {
+
+    private ChessBoard board;
+
+    @Before
+    public void setUp() {
+        board = new ChessBoard(new MovementLogic());
+    }
+
+    @Test
+    public void fieldsCanBeReadFromPackedMove() {
+        int move = PackedMove.encode(12, 63, PAWN, ROOK, QUEEN, PackedMove.DOUBLE_PUSH);
+        assertEquals(12, PackedMove.from(move));
+        assertEquals(63, PackedMove.to(move));
+        assertEquals(PAWN, PackedMove.moved(move));
+        assertEquals(ROOK, PackedMove.captured(move));
+        assertEquals(QUEEN, PackedMove.promotion(move));
+        assertTrue(PackedMove.isDoublePush(move));
+        assertFalse(PackedMove.isEnPassant(move));
+        assertFalse(PackedMove.isCastling(move));
+    }
+
+    @Test
+    public void quietMoveHasNoCaptureOrPromotion() {
+        int move = PackedMove.encode(0, 1, KING, null, null, 0);
+        assertNull(PackedMove.captured(move));
+        assertNull(PackedMove.promotion(move));
+        assertFalse(PackedMove.isCapture(move));
+        assertFalse(PackedMove.isPromotion(move));
+        assertNotEquals(PackedMove.NONE, move);
+    }
+
+    @Test
+    public void encodingFromBoardNoticesCapturesAndPromotions() {
+        putPieceOnBoard(board, new Piece(PAWN, 1, 1, Player.WHITE, "wp"));
+        putPieceOnBoard(board, new Piece(KNIGHT, 2, 0, Player.BLACK, "bn"));
+        int move = PackedMove.encode(board, new Square(1, 1), new Square(2, 0));
+        assertEquals(KNIGHT, PackedMove.captured(move));
+        assertEquals(QUEEN, PackedMove.promotion(move));
+    }
+
+    @Test
+    public void encodingFromBoardNoticesEnPassantAndCastling() {
+        putPieceOnBoard(board, new Piece(PAWN, 1, 3, Player.WHITE, "wp"));
+        putPieceOnBoard(board, new Piece(KING, 4, 7, Player.WHITE, "wk"));
+        int enPassant = PackedMove.encode(board, new Square(1, 3), new Square(2, 2));
+        int castling = PackedMove.encode(board, new Square(4, 7), new Square(6, 7));
+        assertTrue(PackedMove.isEnPassant(enPassant));
+        assertEquals(PAWN, PackedMove.captured(enPassant));
+        assertTrue(PackedMove.isCastling(castling));
+    }
+
+    @Test
+    public void sameMoveIgnoresCapturedPiece() {
+        int move = PackedMove.encode(5, 13, ROOK, null, null, 0);
+        int capture = PackedMove.encode(5, 13, ROOK, BISHOP, null, 0);
+        int other = PackedMove.encode(5, 21, ROOK, null, null, 0);
+        assertTrue(PackedMove.sameMove(move, capture));
+        assertFalse(PackedMove.sameMove(move, other));
+    }
+
+    @Test
+    public void toMoveUsesPieceOnBoard() {
+        Piece wn = new Piece(KNIGHT, 1, 7, Player.WHITE, "wn");
+        putPieceOnBoard(board, wn);
+        int packed = PackedMove.encode(BitBoard.squareIndex(1, 7), BitBoard.squareIndex(2, 5), KNIGHT, null, null, 0);
+        Move move = PackedMove.toMove(packed, board);
+        assertEquals(wn, move.getPiece());
+        assertEquals(new Square(1, 7), move.getFrom());
+        assertEquals(new Square(2, 5), move.getTarget());
+        assertEquals("b1c3", PackedMove.toString(packed));
+    }
+}
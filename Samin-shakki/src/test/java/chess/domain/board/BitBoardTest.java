@@ -0,0 +1,151 @@
+package chess.domain.board;
+
+import static chess.domain.board.Klass.*;
+import static chess.domain.board.Player.*;
+import chess.logic.ailogic.GameSituationEvaluator;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author sami
+ */
+public class BitBoardTest {
+
+    private BitBoard bb;
+
+    @Before
+    public void setUp() {
+        bb = new BitBoard();
+    }
+
+    @Test
+    public void newBitBoardIsEmpty() {
+        assertEquals(0, bb.getAllPieces());
+        for (int i = 0; i < 64; i++) {
+            assertFalse(bb.isOccupied(i));
+        }
+    }
+
+    @Test
+    public void squareIndexAndCoordinatesMatch() {
+        int index = BitBoard.squareIndex(3, 6);
+        assertEquals(51, index);
+        assertEquals(3, BitBoard.column(index));
+        assertEquals(6, BitBoard.row(index));
+        assertEquals(index, BitBoard.squareIndex(new Square(3, 6)));
+    }
+
+    @Test
+    public void addPieceSetsCorrectBits() {
+        bb.addPiece(WHITE, KNIGHT, 10);
+        assertEquals(1L << 10, bb.getPieces(WHITE, KNIGHT));
+        assertEquals(1L << 10, bb.getOccupied(WHITE));
+        assertEquals(0, bb.getOccupied(BLACK));
+        assertEquals(1L << 10, bb.getAllPieces());
+        assertEquals(KNIGHT, bb.klassAt(10));
+        assertEquals(WHITE, bb.ownerAt(10));
+    }
+
+    @Test
+    public void removePieceClearsBits() {
+        bb.addPiece(BLACK, QUEEN, 63);
+        bb.removePiece(63);
+        assertEquals(0, bb.getPieces(BLACK, QUEEN));
+        assertEquals(0, bb.getOccupied(BLACK));
+        assertEquals(0, bb.getAllPieces());
+        assertNull(bb.klassAt(63));
+        assertNull(bb.ownerAt(63));
+    }
+
+    @Test
+    public void removingFromEmptySquareDoesNothing() {
+        bb.addPiece(BLACK, PAWN, 5);
+        bb.removePiece(6);
+        assertEquals(1L << 5, bb.getAllPieces());
+    }
+
+    @Test
+    public void clearRemovesAllPieces() {
+        bb.addPiece(BLACK, PAWN, 5);
+        bb.addPiece(WHITE, KING, 60);
+        bb.clear();
+        assertEquals(new BitBoard(), bb);
+    }
+
+    @Test
+    public void copyFromMakesBitBoardsEqual() {
+        bb.addPiece(BLACK, ROOK, 0);
+        bb.addPiece(WHITE, BISHOP, 42);
+        BitBoard copy = new BitBoard();
+        copy.addPiece(WHITE, PAWN, 20);
+        copy.copyFrom(bb);
+        assertEquals(bb, copy);
+        copy.removePiece(0);
+        assertNotEquals(bb, copy);
+    }
+
+    @Test
+    public void rebuildIgnoresTakenPieces() {
+        Piece[][] table = new Piece[8][8];
+        table[1][2] = new Piece(KNIGHT, 1, 2, WHITE, "wn");
+        table[4][4] = new Piece(PAWN, 4, 4, BLACK, "bp");
+        table[4][4].setTaken(true);
+        bb.rebuild(table);
+        assertEquals(1L << BitBoard.squareIndex(1, 2), bb.getAllPieces());
+        assertEquals(KNIGHT, bb.klassAt(BitBoard.squareIndex(1, 2)));
+    }
+
+    @Test
+    public void materialIsUpdatedWhenPiecesAreAddedAndRemoved() {
+        int queen = GameSituationEvaluator.squareValue(BitBoard.pieceCode(WHITE, QUEEN), 27);
+        bb.addPiece(WHITE, QUEEN, 27);
+        bb.addPiece(BLACK, PAWN, 12);
+        assertEquals(queen, bb.getMaterial(WHITE));
+        bb.removePiece(27);
+        assertEquals(0, bb.getMaterial(WHITE));
+        assertNotEquals(0, bb.getMaterial(BLACK));
+        bb.clear();
+        assertEquals(0, bb.getMaterial(BLACK));
+    }
+
+    @Test
+    public void endgameMaterialAndPhaseAreUpdatedWhenPiecesAreAddedAndRemoved() {
+        int queen = GameSituationEvaluator.endgameSquareValue(BitBoard.pieceCode(WHITE, QUEEN), 27);
+        bb.addPiece(WHITE, QUEEN, 27);
+        bb.addPiece(BLACK, ROOK, 0);
+        bb.addPiece(BLACK, PAWN, 12);
+        assertEquals(queen, bb.getEndgameMaterial(WHITE));
+        assertEquals(6, bb.getPhase());
+        bb.removePiece(27);
+        assertEquals(0, bb.getEndgameMaterial(WHITE));
+        assertEquals(2, bb.getPhase());
+        BitBoard copy = new BitBoard();
+        copy.copyFrom(bb);
+        assertEquals(2, copy.getPhase());
+        assertEquals(bb.getEndgameMaterial(BLACK), copy.getEndgameMaterial(BLACK));
+        bb.clear();
+        assertEquals(0, bb.getPhase());
+        assertEquals(0, bb.getEndgameMaterial(BLACK));
+    }
+
+    @Test
+    public void pawnKeyOnlyDependsOnPawns() {
+        bb.addPiece(WHITE, PAWN, 52);
+        bb.addPiece(BLACK, PAWN, 12);
+        long key = bb.getPawnKey();
+        assertNotEquals(0, key);
+        bb.addPiece(WHITE, QUEEN, 27);
+        assertEquals(key, bb.getPawnKey());
+        bb.removePiece(52);
+        assertNotEquals(key, bb.getPawnKey());
+        bb.addPiece(WHITE, PAWN, 52);
+        assertEquals(key, bb.getPawnKey());
+        BitBoard copy = new BitBoard();
+        copy.copyFrom(bb);
+        assertEquals(key, copy.getPawnKey());
+        bb.clear();
+        assertEquals(0, bb.getPawnKey());
+    }
+}
@@ -1,5 +1,8 @@
 package chess.domain.board;
 
+import chess.domain.GameSituation;
+import static chess.domain.board.Klass.KNIGHT;
+import static chess.domain.board.Klass.PAWN;
 import static chess.domain.board.Klass.QUEEN;
 import chess.logic.chessboardinitializers.ChessBoardInitializer;
 import static chess.logic.chessboardinitializers.ChessBoardInitializer.putPieceOnBoard;
@@ -156,4 +159,85 @@ public class ChessBoardTest {
         assertEquals(new Square(4, 7), whiteKing.getLocation());
         assertEquals(new Square(4, 0), blackKing.getLocation());
     }
+
+    @Test
+    public void setPieceUpdatesBitBoard() {
+        Piece knight = new Piece(KNIGHT, 2, 5, Player.BLACK, "bn");
+        board.setPiece(2, 5, knight);
+        assertTrue(board.squareIsOccupied(2, 5));
+        assertEquals(1L << BitBoard.squareIndex(2, 5),
+                board.getBitBoard().getPieces(Player.BLACK, KNIGHT));
+        board.setPiece(new Square(2, 5), null);
+        assertFalse(board.squareIsOccupied(2, 5));
+        assertEquals(0, board.getBitBoard().getAllPieces());
+    }
+
+    @Test
+    public void setPieceReplacesOldPieceInBitBoard() {
+        board.setPiece(3, 3, new Piece(PAWN, 3, 3, Player.WHITE, "wp"));
+        board.setPiece(3, 3, new Piece(QUEEN, 3, 3, Player.BLACK, "bq"));
+        assertEquals(0, board.getBitBoard().getOccupied(Player.WHITE));
+        assertEquals(QUEEN, board.getBitBoard().klassAt(BitBoard.squareIndex(3, 3)));
+    }
+
+    @Test
+    public void bitBoardMatchesTableInStandardStart() {
+        init.initialize(board);
+        BitBoard rebuilt = new BitBoard();
+        rebuilt.rebuild(board.getTable());
+        assertEquals(rebuilt, board.getBitBoard());
+        assertEquals(0xFFFFL | (0xFFFFL << 48), board.getBitBoard().getAllPieces());
+    }
+
+    @Test
+    public void bitBoardStaysInSyncWhenPiecesAreMoved() {
+        GameSituation sit = new GameSituation(init, new MovementLogic());
+        sit.getChessBoard().getMovementLogic().move(sit.getChessBoard().getPiece(4, 6), new Square(4, 4), sit);
+        BitBoard rebuilt = new BitBoard();
+        rebuilt.rebuild(sit.getChessBoard().getTable());
+        assertEquals(rebuilt, sit.getChessBoard().getBitBoard());
+        assertTrue(sit.getChessBoard().squareIsOccupied(4, 4));
+        assertFalse(sit.getChessBoard().squareIsOccupied(4, 6));
+    }
+
+    @Test
+    public void isSquareAttackedMatchesThreatenedSquares() {
+        init.initialize(board);
+        putPieceOnBoard(board, new Piece(QUEEN, 4, 4, Player.WHITE, "wq1"));
+        putPieceOnBoard(board, new Piece(KNIGHT, 2, 3, Player.BLACK, "bn1"));
+        for (Player player : Player.values()) {
+            board.updateThreatenedSquares(player);
+            for (int i = 0; i < 8; i++) {
+                for (int j = 0; j < 8; j++) {
+                    assertEquals(board.threatenedSquares(player).contains(new Square(i, j)),
+                            board.isSquareAttacked(new Square(i, j), player));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void attackedSquaresMatchesThreatenedSquares() {
+        init.initialize(board);
+        putPieceOnBoard(board, new Piece(QUEEN, 3, 4, Player.BLACK, "bq1"));
+        for (Player player : Player.values()) {
+            board.updateThreatenedSquares(player);
+            long attacked = board.attackedSquares(player);
+            for (int i = 0; i < 8; i++) {
+                for (int j = 0; j < 8; j++) {
+                    assertEquals(board.threatenedSquares(player).contains(new Square(i, j)),
+                            (attacked & 1L << BitBoard.squareIndex(i, j)) != 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void attackedSquaresIsUpdatedWhenPiecesChange() {
+        board.setPiece(0, 0, new Piece(Klass.ROOK, 0, 0, Player.WHITE, "wr"));
+        assertTrue((board.attackedSquares(Player.WHITE) & 1L << BitBoard.squareIndex(0, 7)) != 0);
+        board.setPiece(0, 4, new Piece(PAWN, 0, 4, Player.BLACK, "bp"));
+        assertFalse((board.attackedSquares(Player.WHITE) & 1L << BitBoard.squareIndex(0, 7)) != 0);
+        assertTrue(board.isSquareAttacked(BitBoard.squareIndex(0, 4), Player.WHITE));
+    }
 }
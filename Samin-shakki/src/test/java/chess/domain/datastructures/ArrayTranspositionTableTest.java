@@ -0,0 +1,139 @@
+package chess.domain.datastructures;
+
+import chess.domain.PackedMove;
+import chess.domain.board.Player;
+import static chess.domain.datastructures.PackedTranspositionEntry.*;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *
+ * @author sami
+ */
+public class ArrayTranspositionTableTest {
+
+    private ArrayTranspositionTable table;
+
+    @Before
+    public void setUp() {
+        table = new ArrayTranspositionTable(1);
+    }
+
+    /**
+     * Returns a hash that is put in same bucket as hash 0 in table of 1 MB.
+     */
+    private long sameBucket(long n) {
+        return n << 32;
+    }
+
+    @Test
+    public void sizeIsPowerOfTwoBucketsFittingInGivenMegabytes() {
+        assertEquals(1 << 15, table.getBuckets());
+        assertEquals(1 << 19, new ArrayTranspositionTable(16).getBuckets());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tableMustHaveSomeSize() {
+        new ArrayTranspositionTable(0);
+    }
+
+    @Test
+    public void emptyTableReturnsEmpty() {
+        assertEquals(EMPTY, table.probe(42, Player.WHITE));
+    }
+
+    @Test
+    public void storedEntryIsFound() {
+        table.store(42, Player.WHITE, 3, -150, Type.BETA, 1234);
+        long entry = table.probe(42, Player.WHITE);
+        assertEquals(3, height(entry));
+        assertEquals(-150, value(entry));
+        assertEquals(Type.BETA, type(entry));
+        assertEquals(1234, move(entry));
+    }
+
+    @Test
+    public void entriesAreSeparateForPlayers() {
+        table.store(42, Player.WHITE, 3, 100, Type.EXACT, PackedMove.NONE);
+        assertEquals(EMPTY, table.probe(42, Player.BLACK));
+    }
+
+    @Test
+    public void shallowerResultDoesNotReplaceDeeperOne() {
+        table.store(sameBucket(0), Player.WHITE, 5, 10, Type.EXACT, PackedMove.NONE);
+        table.store(sameBucket(1), Player.WHITE, 2, 20, Type.EXACT, PackedMove.NONE);
+        assertEquals(10, value(table.probe(sameBucket(0), Player.WHITE)));
+        assertEquals(20, value(table.probe(sameBucket(1), Player.WHITE)));
+    }
+
+    @Test
+    public void alwaysReplaceSlotIsReplaced() {
+        table.store(sameBucket(0), Player.WHITE, 5, 10, Type.EXACT, PackedMove.NONE);
+        table.store(sameBucket(1), Player.WHITE, 2, 20, Type.EXACT, PackedMove.NONE);
+        table.store(sameBucket(2), Player.WHITE, 1, 30, Type.EXACT, PackedMove.NONE);
+        assertEquals(10, value(table.probe(sameBucket(0), Player.WHITE)));
+        assertEquals(EMPTY, table.probe(sameBucket(1), Player.WHITE));
+        assertEquals(30, value(table.probe(sameBucket(2), Player.WHITE)));
+    }
+
+    @Test
+    public void deeperResultReplacesDepthPreferredSlot() {
+        table.store(sameBucket(0), Player.WHITE, 2, 10, Type.EXACT, PackedMove.NONE);
+        table.store(sameBucket(1), Player.WHITE, 4, 20, Type.EXACT, PackedMove.NONE);
+        assertEquals(EMPTY, table.probe(sameBucket(0), Player.WHITE));
+        assertEquals(20, value(table.probe(sameBucket(1), Player.WHITE)));
+    }
+
+    @Test
+    public void entriesOfOldSearchesCanBeReplaced() {
+        table.store(sameBucket(0), Player.WHITE, 5, 10, Type.EXACT, PackedMove.NONE);
+        table.newSearch();
+        table.store(sameBucket(1), Player.WHITE, 1, 20, Type.EXACT, PackedMove.NONE);
+        assertEquals(EMPTY, table.probe(sameBucket(0), Player.WHITE));
+        assertEquals(table.getAge(), age(table.probe(sameBucket(1), Player.WHITE)));
+    }
+
+    @Test
+    public void bestMoveIsKeptIfNewResultHasNone() {
+        table.store(42, Player.WHITE, 2, 10, Type.EXACT, 1234);
+        table.store(42, Player.WHITE, 3, 20, Type.ALPHA, PackedMove.NONE);
+        assertEquals(1234, move(table.probe(42, Player.WHITE)));
+        assertEquals(20, value(table.probe(42, Player.WHITE)));
+    }
+
+    @Test
+    public void clearRemovesEntries() {
+        table.store(42, Player.WHITE, 2, 10, Type.EXACT, 1234);
+        table.clear();
+        assertEquals(EMPTY, table.probe(42, Player.WHITE));
+    }
+
+    @Test
+    public void concurrentThreadsOnlyFindEntriesOfProbedSituations() throws InterruptedException {
+        AtomicInteger wrongEntries = new AtomicInteger();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final long seed = t;
+            threads[t] = new Thread(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 200000; i++) {
+                    long hash = sameBucket(random.nextInt(64));
+                    table.store(hash, Player.WHITE, random.nextInt(8), (int) (hash >>> 32), Type.EXACT, PackedMove.NONE);
+                    long probed = sameBucket(random.nextInt(64));
+                    long entry = table.probe(probed, Player.WHITE);
+                    if (entry != EMPTY && value(entry) != (int) (probed >>> 32)) {
+                        wrongEntries.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, wrongEntries.get());
+    }
+}
@@ -0,0 +1,60 @@
+package chess.domain.datastructures;
+
+import chess.domain.PackedMove;
+import static chess.domain.board.Klass.*;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author sami
+ */
+public class MoveStackTest {
+
+    private MoveStack stack;
+
+    @Before
+    public void setUp() {
+        stack = new MoveStack(3);
+    }
+
+    @Test
+    public void pliesHaveSeparateMoveLists() {
+        stack.add(0, 1);
+        stack.add(1, 2);
+        stack.add(1, 3);
+        assertEquals(1, stack.size(0));
+        assertEquals(2, stack.size(1));
+        assertEquals(0, stack.size(2));
+        assertEquals(3, stack.get(1, 1));
+    }
+
+    @Test
+    public void clearEmptiesOnlyChosenPly() {
+        stack.add(0, 1);
+        stack.add(1, 2);
+        stack.clear(0);
+        assertEquals(0, stack.size(0));
+        assertEquals(1, stack.size(1));
+    }
+
+    @Test
+    public void moveToIndexMovesFoundMoveToChosenIndex() {
+        int first = PackedMove.encode(1, 2, ROOK, null, null, 0);
+        int second = PackedMove.encode(3, 4, ROOK, null, null, 0);
+        int third = PackedMove.encode(5, 6, ROOK, null, null, 0);
+        stack.add(2, first);
+        stack.add(2, second);
+        stack.add(2, third);
+        assertTrue(stack.moveToIndex(2, third, 0));
+        assertEquals(third, stack.get(2, 0));
+        assertEquals(first, stack.get(2, 2));
+    }
+
+    @Test
+    public void moveToIndexReturnsFalseIfMoveIsNotFound() {
+        stack.add(0, PackedMove.encode(1, 2, ROOK, null, null, 0));
+        assertFalse(stack.moveToIndex(0, PackedMove.encode(2, 1, ROOK, null, null, 0), 0));
+    }
+}
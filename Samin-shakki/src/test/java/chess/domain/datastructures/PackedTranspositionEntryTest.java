@@ -0,0 +1,43 @@
+package chess.domain.datastructures;
+
+import chess.domain.PackedMove;
+import static chess.domain.board.Klass.*;
+import static chess.domain.datastructures.PackedTranspositionEntry.*;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author sami
+ */
+public class PackedTranspositionEntryTest {
+
+    @Test
+    public void fieldsCanBeUnpacked() {
+        long entry = pack(-123456789, PackedMove.NONE, 7, Type.ALPHA, 3);
+        assertEquals(-123456789, value(entry));
+        assertEquals(PackedMove.NONE, move(entry));
+        assertEquals(7, height(entry));
+        assertEquals(Type.ALPHA, type(entry));
+        assertEquals(3, age(entry));
+    }
+
+    @Test
+    public void packedEntryIsNeverEmpty() {
+        assertNotEquals(EMPTY, pack(0, PackedMove.NONE, 0, Type.ALPHA, 0));
+    }
+
+    @Test
+    public void unpackedMoveIsSameMoveAsPackedOne() {
+        int move = PackedMove.encode(52, 60, PAWN, ROOK, KNIGHT, 0);
+        long entry = pack(50, move, 2, Type.EXACT, 63);
+        assertTrue(PackedMove.sameMove(move, move(entry)));
+        assertEquals(63, age(entry));
+        assertEquals(Type.EXACT, type(entry));
+    }
+
+    @Test
+    public void tooLargeHeightIsCapped() {
+        assertEquals(MAX_HEIGHT, height(pack(0, PackedMove.NONE, 1000, Type.BETA, 0)));
+    }
+}
@@ -0,0 +1,68 @@
+package chess.domain.datastructures;
+
+import static chess.domain.datastructures.PawnHashTable.*;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author sami
+ */
+public class PawnHashTableTest {
+
+    private PawnHashTable table;
+
+    @Before
+    public void setUp() {
+        table = new PawnHashTable(1);
+    }
+
+    @Test
+    public void sizeIsPowerOfTwoSlotsFittingInGivenMegabytes() {
+        assertEquals(1 << 16, table.getSlots());
+        assertEquals(1 << 18, new PawnHashTable(4).getSlots());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tableMustHaveSomeSize() {
+        new PawnHashTable(0);
+    }
+
+    @Test
+    public void packedScoresCanBeUnpacked() {
+        long entry = pack(-35, 120);
+        assertEquals(-35, middlegame(entry));
+        assertEquals(120, endgame(entry));
+        entry = pack(40, -85);
+        assertEquals(40, middlegame(entry));
+        assertEquals(-85, endgame(entry));
+    }
+
+    @Test
+    public void probeReturnsMissingForUnsavedKey() {
+        assertEquals(MISSING, table.probe(123456789L));
+    }
+
+    @Test
+    public void probeReturnsStoredEntry() {
+        table.store(123456789L, pack(10, -20));
+        assertEquals(pack(10, -20), table.probe(123456789L));
+    }
+
+    @Test
+    public void storeReplacesEntryOfOtherKeyInSameSlot() {
+        long other = 123456789L + ((long) table.getSlots() << 8);
+        table.store(123456789L, pack(10, -20));
+        table.store(other, pack(5, 5));
+        assertEquals(MISSING, table.probe(123456789L));
+        assertEquals(pack(5, 5), table.probe(other));
+    }
+
+    @Test
+    public void clearRemovesEntries() {
+        table.store(123456789L, pack(10, -20));
+        table.clear();
+        assertEquals(MISSING, table.probe(123456789L));
+    }
+}
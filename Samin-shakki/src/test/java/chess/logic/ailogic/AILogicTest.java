@@ -2,8 +2,11 @@ package chess.logic.ailogic;
 
 import chess.domain.GameSituation;
 import chess.domain.Move;
+import chess.domain.PackedMove;
 import static chess.domain.board.ChessBoardCopier.copy;
 import chess.domain.board.*;
+import chess.domain.datastructures.MoveStack;
+import chess.domain.datastructures.PackedTranspositionEntry;
 import static chess.domain.board.ChessBoardCopier.chessBoardsAreDeeplyEqual;
 import chess.domain.board.Piece;
 import static chess.domain.board.Klass.*;
@@ -11,32 +14,36 @@ import static chess.logic.ailogic.GameSituationEvaluator.evaluateGameSituation;
 import static chess.logic.chessboardinitializers.ChessBoardInitializer.putPieceOnBoard;
 import chess.logic.chessboardinitializers.*;
 import chess.logic.movementlogic.MovementLogic;
+import chess.logic.movementlogic.Perft;
 import static org.junit.Assert.*;
 import org.junit.Before;
-import org.junit.BeforeClass;
 import org.junit.Test;
 
 /**
  *
  * @author sami
  */
-public class AILogicTest {
+public class AILogicTest extends AITest {
 
-    private static GameSituation sit;
-    private static AILogic ai;
+    private GameSituation sit;
+    private AILogic ai;
 
     public AILogicTest() {
     }
 
-    @BeforeClass
-    public static void setUpClass() {
-        sit = new GameSituation(new EmptyBoardInitializer(), new MovementLogic());
-        ai = new AILogic();
+    @Override
+    protected AI createAI(int threads) {
+        AILogic parallel = new AILogic();
+        parallel.setPlies(3);
+        parallel.reset();
+        parallel.setThreads(threads);
+        return parallel;
     }
 
     @Before
     public void setUp() {
         sit = new GameSituation(new EmptyBoardInitializer(), new MovementLogic());
+        ai = new AILogic();
         ai.setSituation(sit);
         ai.setSearchDepth(3);
         ai.setPlies(3);
@@ -198,6 +205,40 @@ public class AILogicTest {
         assertEquals(evaluateGameSituation(sit, Player.WHITE), ai.negaMax(0, -123456798, 123456789, Player.WHITE));
     }
 
+    @Test
+    public void mateInQuiescenceSearchIsValuedByPly() {
+        sit = Perft.situationFromFen("k7/8/8/8/8/8/r5PP/N6K b - - 0 1");
+        ai.setSituation(sit);
+        ai.setStart(System.currentTimeMillis());
+        assertEquals(GameSituationEvaluator.victory - 1, ai.negaMax(0, -123456798, 123456789, Player.BLACK));
+    }
+
+    @Test
+    public void movesMadeBeforeCheckForChangeAreEncodedWithCapturedPiece() {
+        ChessBoard cb = sit.getChessBoard();
+        Piece wr = new Piece(ROOK, 1, 4, Player.WHITE, "wr");
+        Piece bp = new Piece(PAWN, 1, 2, Player.BLACK, "bp");
+        putPieceOnBoard(cb, wr);
+        putPieceOnBoard(cb, bp);
+        sit.reHashBoard(true);
+        ai.setSituation(sit);
+        cb.getMovementLogic().move(wr, new Square(1, 2), sit);
+        int move = ai.encodeMadeMove(wr, new Square(1, 4), new Square(1, 2));
+        assertTrue(PackedMove.isCapture(move));
+        assertEquals(PAWN, PackedMove.captured(move));
+    }
+
+    @Test
+    public void movesMadeWithMakeMoveAreReadFromUndoStack() {
+        sit = Perft.situationFromFen(Perft.KIWIPETE);
+        ai.setSituation(sit);
+        int move = PackedMove.encode(sit.getChessBoard(), new Square(4, 3), new Square(5, 1));
+        Piece knight = sit.getChessBoard().getPiece(new Square(4, 3));
+        sit.makeMove(move);
+        assertEquals(move, ai.encodeMadeMove(knight, new Square(4, 3), new Square(5, 1)));
+        sit.unmakeMove();
+    }
+
     @Test
     public void checkForChangeIncreasesAlphaIfBetterValueFound() {
         ChessBoard cb = sit.getChessBoard();
@@ -207,7 +248,8 @@ public class AILogicTest {
         putPieceOnBoard(cb, bp);
         sit.reHashBoard(true);
 
-        ai.getBestValues()[1] = -100;
+        ai.getBestValues()[1] = -1000;
+        ai.setUsingQuiescence(false);
         ai.setSituation(sit);
         ai.setStart(System.currentTimeMillis());
         int newAlpha = ai.checkForChange(wp, wp.getLocation(), new Square(1, 4), 1, Player.WHITE, -123456789, -123456789, 123456789);
@@ -283,7 +325,7 @@ public class AILogicTest {
         ChessBoard backUp = copy(cb);
         ai.setTimeLimit(1000);
         ai.setStart(System.currentTimeMillis() - 1000);
-        assertEquals(-12345, ai.testAMove(wr, new Square(1, 6), new Square(1, 4), Player.WHITE, 1, -12345, -12345, 123456789, backUp));
+        assertEquals(-12345, ai.testAMove(wr, new Square(1, 6), new Square(1, 4), Player.WHITE, 1, -12345, -12345, 123456789));
         assertTrue(ChessBoardCopier.chessBoardsAreDeeplyEqual(cb, backUp));
     }
 
@@ -298,7 +340,7 @@ public class AILogicTest {
         ChessBoard backUp = copy(cb);
         ai.setStart(System.currentTimeMillis());
         ai.setSituation(sit);
-        ai.testAMove(wr, new Square(1, 6), new Square(1, 4), Player.WHITE, 1, -12345, -12345, 1234567, backUp);
+        ai.testAMove(wr, new Square(1, 6), new Square(1, 4), Player.WHITE, 1, -12345, -12345, 1234567);
         assertTrue(ChessBoardCopier.chessBoardsAreDeeplyEqual(cb, backUp));
     }
 
@@ -311,9 +353,10 @@ public class AILogicTest {
         putPieceOnBoard(cb, bp);
         sit.reHashBoard(true);
         ChessBoard backUp = copy(cb);
+        ai.setUsingQuiescence(false);
         ai.setSituation(sit);
         ai.setStart(System.currentTimeMillis());
-        assertEquals(470, ai.testAMove(wr, new Square(1, 6), new Square(1, 4), Player.WHITE, 1, -12345, -12345, 1234567, backUp));
+        assertEquals(320, ai.testAMove(wr, new Square(1, 6), new Square(1, 4), Player.WHITE, 1, -12345, -12345, 1234567));
     }
 
     @Test
@@ -327,7 +370,7 @@ public class AILogicTest {
         ai.setStart(System.currentTimeMillis());
         ai.setSituation(sit);
         ChessBoard backUp = copy(cb);
-        ai.testAMove(wp, new Square(1, 7), new Square(1, 6), Player.WHITE, 1, -12345, -12345, 1234567, backUp);
+        ai.testAMove(wp, new Square(1, 7), new Square(1, 6), Player.WHITE, 1, -12345, -12345, 1234567);
         assertTrue(ChessBoardCopier.chessBoardsAreDeeplyEqual(cb, backUp));
         assertEquals(PAWN, cb.getPiece(1, 6).getKlass());
     }
@@ -344,7 +387,7 @@ public class AILogicTest {
         ai.setSituation(sit);
         ai.setSearchDepth(2);
         ChessBoard backUp = copy(cb);
-        ai.testAMove(wp, new Square(1, 7), new Square(1, 6), Player.WHITE, 2, -12345, -12345, 1234567, backUp);
+        ai.testAMove(wp, new Square(1, 7), new Square(1, 6), Player.WHITE, 2, -12345, -12345, 1234567);
         assertTrue(ChessBoardCopier.chessBoardsAreDeeplyEqual(cb, backUp));
         assertEquals(PAWN, cb.getPiece(1, 6).getKlass());
     }
@@ -361,7 +404,7 @@ public class AILogicTest {
         ai.setSituation(sit);
         ai.setStart(System.currentTimeMillis() - 1000);
         assertEquals(-12345, ai.tryMovingPiece(1, 1, wr, new Square(1, 4),
-                -12345, -12345, 123456, Player.WHITE, backUp));
+                -12345, -12345, 123456, Player.WHITE));
     }
 
     @Test
@@ -373,10 +416,11 @@ public class AILogicTest {
         putPieceOnBoard(cb, bp);
         sit.reHashBoard(true);
         ChessBoard backUp = copy(cb);
+        ai.setUsingQuiescence(false);
         ai.setSituation(sit);
         ai.setStart(System.currentTimeMillis());
-        assertEquals(500, ai.tryMovingPiece(1, 3, wr, new Square(1, 4),
-                -12345, -12345, 123456, Player.WHITE, backUp));
+        assertEquals(341, ai.tryMovingPiece(1, 3, wr, new Square(1, 4),
+                -12345, -12345, 123456, Player.WHITE));
     }
 
     @Test
@@ -391,11 +435,11 @@ public class AILogicTest {
 
         ai.setSituation(sit);
         ai.setSearchDepth(1);
-        ai.getKillerCandidates()[0] = null;
+        ai.getKillerCandidates()[0] = PackedMove.NONE;
 
         ai.setStart(System.currentTimeMillis());
-        ai.tryMovingPiece(1, 3, wp, new Square(1, 6), -12345, -12345, 123456, Player.WHITE, backUp);
-        assertNotEquals(null, ai.getKillerCandidates()[0]);
+        ai.tryMovingPiece(1, 3, wp, new Square(1, 6), -12345, -12345, 123456, Player.WHITE);
+        assertNotEquals(PackedMove.NONE, ai.getKillerCandidates()[0]);
     }
 
     @Test
@@ -409,11 +453,11 @@ public class AILogicTest {
         ChessBoard backUp = copy(cb);
 
         ai.setSearchDepth(1);
-        ai.getKillerCandidates()[0] = null;
+        ai.getKillerCandidates()[0] = PackedMove.NONE;
 
         ai.setStart(System.currentTimeMillis());
-        ai.tryMovingPiece(1, 1, wp, new Square(1, 2), -12345, -12345, 0, Player.WHITE, backUp);
-        assertEquals(null, ai.getKillerCandidates()[0]);
+        ai.tryMovingPiece(1, 1, wp, new Square(1, 2), -12345, -12345, 0, Player.WHITE);
+        assertEquals(PackedMove.NONE, ai.getKillerCandidates()[0]);
     }
 
     @Test
@@ -521,4 +565,272 @@ public class AILogicTest {
         ai.findBestMove(sit);
         assertEquals(50, sit.getMovesTillDraw());
     }
+
+    private AILogic ponderingAI() {
+        AILogic pondering = new AILogic();
+        pondering.setPlies(4);
+        pondering.setTimeLimit(200);
+        return pondering;
+    }
+
+    private void play(GameSituation situation, int move) {
+        situation.makeMove(move);
+        situation.setTurn(situation.getTurn() + 1);
+    }
+
+    private void playBestMove(AILogic pondering, GameSituation situation) {
+        Move move = pondering.findBestMove(situation);
+        play(situation, PackedMove.encode(situation.getChessBoard(), move.getPiece().getLocation(), move.getTarget()));
+    }
+
+    @Test
+    public void predictedReplyIsHashMoveAfterBestMove() {
+        GameSituation kiwipete = Perft.situationFromFen(Perft.KIWIPETE);
+        AILogic pondering = new AILogic();
+        pondering.setFixedDepth(4);
+        playBestMove(pondering, kiwipete);
+        long entry = pondering.getTranspositionTable().probe(kiwipete.getBoardHash(), kiwipete.whoseTurn());
+        pondering.ponder(kiwipete);
+        pondering.stopPondering();
+
+        assertNotEquals(PackedTranspositionEntry.EMPTY, entry);
+        assertTrue(PackedMove.sameMove(PackedTranspositionEntry.move(entry), pondering.getPredictedMove()));
+    }
+
+    @Test
+    public void ponderingSearchesPredictedLegalReply() {
+        GameSituation start = new GameSituation(new StandardChessBoardInitializer(), new MovementLogic());
+        AILogic pondering = ponderingAI();
+        playBestMove(pondering, start);
+        pondering.ponder(start);
+
+        assertTrue(pondering.isPondering());
+        int predicted = pondering.getPredictedMove();
+        assertNotEquals(PackedMove.NONE, predicted);
+        Square from = PackedMove.fromSquare(predicted);
+        assertEquals(start.whoseTurn(), start.getChessBoard().getPiece(from.getColumn(), from.getRow()).getOwner());
+        pondering.stopPondering();
+        assertFalse(pondering.isPondering());
+    }
+
+    @Test
+    public void ponderingDoesNotChangeSituation() {
+        GameSituation start = new GameSituation(new StandardChessBoardInitializer(), new MovementLogic());
+        AILogic pondering = ponderingAI();
+        playBestMove(pondering, start);
+        ChessBoard backUp = copy(start.getChessBoard());
+        long hash = start.getBoardHash();
+        pondering.ponder(start);
+        pondering.stopPondering();
+
+        assertTrue(chessBoardsAreDeeplyEqual(backUp, start.getChessBoard()));
+        assertEquals(hash, start.getBoardHash());
+    }
+
+    @Test
+    public void ponderHitContinuesPonderingSearch() {
+        GameSituation start = new GameSituation(new StandardChessBoardInitializer(), new MovementLogic());
+        AILogic pondering = ponderingAI();
+        playBestMove(pondering, start);
+        pondering.ponder(start);
+        play(start, pondering.getPredictedMove());
+
+        Move move = pondering.findBestMove(start);
+        assertFalse(pondering.isPondering());
+        assertEquals(start.whoseTurn(), move.getPiece().getOwner());
+        assertSame(move.getPiece(), start.getChessBoard().getPiece(move.getPiece().getColumn(), move.getPiece().getRow()));
+    }
+
+    @Test
+    public void ponderMissDiscardsPonderingSearch() {
+        GameSituation start = new GameSituation(new StandardChessBoardInitializer(), new MovementLogic());
+        AILogic pondering = ponderingAI();
+        playBestMove(pondering, start);
+        pondering.ponder(start);
+        MoveStack replies = new MoveStack(1);
+        start.getChessBoard().getMovementLogic().legalMovementsByPlayer(start.whoseTurn(), start.getChessBoard(), replies, 0);
+        int reply = PackedMove.sameMove(replies.get(0, 0), pondering.getPredictedMove())
+                ? replies.get(0, 1) : replies.get(0, 0);
+        play(start, reply);
+
+        Move move = pondering.findBestMove(start);
+        assertFalse(pondering.isPondering());
+        assertEquals(start.whoseTurn(), move.getPiece().getOwner());
+        assertSame(move.getPiece(), start.getChessBoard().getPiece(move.getPiece().getColumn(), move.getPiece().getRow()));
+    }
+
+    @Test
+    public void quiescenceSearchSeesRecaptureBeyondHorizon() {
+        GameSituation poisoned = Perft.situationFromFen("k7/8/5p2/4p3/3Q4/8/8/7K w - - 0 1");
+        AILogic shallow = new AILogic();
+        shallow.setPlies(1);
+        shallow.setTimeLimit(10000);
+
+        shallow.setUsingQuiescence(false);
+        assertEquals(new Square(4, 3), shallow.findBestMove(poisoned).getTarget());
+
+        shallow.reset();
+        shallow.setUsingQuiescence(true);
+        assertNotEquals(new Square(4, 3), shallow.findBestMove(poisoned).getTarget());
+    }
+
+    @Test
+    public void quiescenceSearchDoesNotChangeSituation() {
+        GameSituation kiwipete = Perft.situationFromFen(Perft.KIWIPETE);
+        ChessBoard backUp = copy(kiwipete.getChessBoard());
+        long hash = kiwipete.getBoardHash();
+        AILogic shallow = new AILogic();
+        shallow.setPlies(2);
+        shallow.setTimeLimit(10000);
+        shallow.findBestMove(kiwipete);
+
+        assertTrue(chessBoardsAreDeeplyEqual(backUp, kiwipete.getChessBoard()));
+        assertEquals(hash, kiwipete.getBoardHash());
+    }
+
+    private int valueOfFixedDepthSearch(String fen, int plies, boolean pvs, boolean aspiration) {
+        AILogic fixed = new AILogic();
+        fixed.setPlies(plies);
+        fixed.setTimeLimit(100000);
+        fixed.setUsingTranspositionTable(false);
+        fixed.setUsingQuiescence(false);
+        fixed.setUsingPrincipalVariationSearch(pvs);
+        fixed.setUsingAspirationWindows(aspiration);
+        fixed.setUsingNullMovePruning(false);
+        fixed.setUsingLateMoveReductions(false);
+        fixed.findBestMoves(Perft.situationFromFen(fen));
+        return fixed.getBestValues()[plies];
+    }
+
+    @Test
+    public void principalVariationSearchFindsSameValueAsAlphaBeta() {
+        assertEquals(valueOfFixedDepthSearch(Perft.KIWIPETE, 3, false, false),
+                valueOfFixedDepthSearch(Perft.KIWIPETE, 3, true, false));
+    }
+
+    @Test
+    public void aspirationWindowsFindSameValueAsFullWindow() {
+        String hangingQueen = "4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1";
+        assertEquals(valueOfFixedDepthSearch(hangingQueen, 4, true, false),
+                valueOfFixedDepthSearch(hangingQueen, 4, true, true));
+        assertEquals(valueOfFixedDepthSearch(Perft.KIWIPETE, 3, true, false),
+                valueOfFixedDepthSearch(Perft.KIWIPETE, 3, true, true));
+    }
+
+    @Test
+    public void backRankMateIsFoundWithNullMovePruningAndLateMoveReductions() {
+        String backRankMate = "6k1/5ppp/8/8/8/8/5PPP/3R2K1 w - - 0 1";
+        AILogic pruning = new AILogic();
+        pruning.setPlies(5);
+        pruning.setTimeLimit(100000);
+        assertTrue(pruning.isUsingNullMovePruning());
+        assertTrue(pruning.isUsingLateMoveReductions());
+        assertEquals(new Square(3, 0), pruning.findBestMove(Perft.situationFromFen(backRankMate)).getTarget());
+    }
+
+    @Test
+    public void nullMovePruningIsNotUsedInPawnEndings() {
+        String zugzwang = "8/8/8/8/3k4/8/3PK3/8 b - - 0 1";
+        AILogic withNullMove = new AILogic();
+        withNullMove.setPlies(6);
+        withNullMove.setTimeLimit(100000);
+        withNullMove.setUsingLateMoveReductions(false);
+        withNullMove.findBestMoves(Perft.situationFromFen(zugzwang));
+        AILogic withoutNullMove = new AILogic();
+        withoutNullMove.setPlies(6);
+        withoutNullMove.setTimeLimit(100000);
+        withoutNullMove.setUsingLateMoveReductions(false);
+        withoutNullMove.setUsingNullMovePruning(false);
+        withoutNullMove.findBestMoves(Perft.situationFromFen(zugzwang));
+        assertEquals(withoutNullMove.getBestValues()[6], withNullMove.getBestValues()[6]);
+    }
+
+    @Test
+    public void searchWithNodeLimitIsReproducible() {
+        GameSituation kiwipete = Perft.situationFromFen(Perft.KIWIPETE);
+        AILogic first = new AILogic();
+        first.setNodeLimit(20000);
+        Move firstMove = first.findBestMove(kiwipete);
+        AILogic second = new AILogic();
+        second.setNodeLimit(20000);
+        Move secondMove = second.findBestMove(kiwipete);
+
+        assertTrue(first.getTimeManager().getNodes() >= 20000);
+        assertEquals(first.getTimeManager().getNodes(), second.getTimeManager().getNodes());
+        assertEquals(firstMove.getPiece().getLocation(), secondMove.getPiece().getLocation());
+        assertEquals(firstMove.getTarget(), secondMove.getTarget());
+    }
+
+    @Test
+    public void searchWithFixedDepthCompletesThatDepth() {
+        AILogic fixed = new AILogic();
+        fixed.setFixedDepth(3);
+        fixed.findBestMoves(Perft.situationFromFen(Perft.KIWIPETE));
+        assertEquals(Long.MAX_VALUE, fixed.getTimeLimit());
+        assertEquals(fixed.getBestValues()[3], fixed.bestValueFromCompleteLevels);
+        assertFalse(fixed.bestMovesFromCompleteLevels.isEmpty());
+    }
+
+    @Test
+    public void searchWithFixedDepthCanGoDeeperThanDefaultPlies() {
+        AILogic deep = new AILogic();
+        deep.setFixedDepth(12);
+        deep.findBestMoves(Perft.situationFromFen("k7/8/8/p7/P7/8/8/K7 w - - 0 1"));
+        assertEquals(deep.getBestValues()[12], deep.bestValueFromCompleteLevels);
+        assertFalse(deep.bestMovesFromCompleteLevels.isEmpty());
+    }
+
+    @Test
+    public void helpersAreJoinedEvenIfSearchingThreadIsInterrupted() {
+        AILogic parallel = new AILogic();
+        parallel.setPlies(3);
+        parallel.setThreads(4);
+        Thread.currentThread().interrupt();
+        parallel.findBestMove(Perft.situationFromFen(Perft.KIWIPETE));
+
+        assertTrue(Thread.interrupted());
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            assertFalse(thread.getName().startsWith("search-helper-") && thread.isAlive());
+        }
+    }
+
+    private AILogic randomizedSearch(String fen, int depth) {
+        AILogic randomized = new AILogic();
+        randomized.setRandomized(true);
+        randomized.setFixedDepth(depth);
+        randomized.findBestMoves(Perft.situationFromFen(fen));
+        return randomized;
+    }
+
+    @Test
+    public void movesFailingLowAreNotSavedAsTies() {
+        AILogic randomized = randomizedSearch("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1", 4);
+        assertEquals(1, randomized.bestMovesFromCompleteLevels.size());
+        assertEquals(new Square(3, 3), PackedMove.toSquare(randomized.bestMovesFromCompleteLevels.get(0)));
+    }
+
+    @Test
+    public void provenTiesAreSaved() {
+        AILogic randomized = randomizedSearch("6k1/5ppp/8/8/8/8/5PPP/R2R2K1 w - - 0 1", 3);
+        assertEquals(2, randomized.bestMovesFromCompleteLevels.size());
+    }
+
+    private int valueOfMateInOne(boolean transpositionTable, int... heights) {
+        AILogic fixed = new AILogic();
+        fixed.setPlies(4);
+        fixed.setSearchDepth(4);
+        fixed.setUsingTranspositionTable(transpositionTable);
+        fixed.setSituation(Perft.situationFromFen("6k1/5ppp/8/8/8/8/5PPP/3R2K1 w - - 0 1"));
+        fixed.setStart(System.currentTimeMillis());
+        int value = 0;
+        for (int height : heights) {
+            value = fixed.negaMax(height, -123456799, 123456799, Player.WHITE);
+        }
+        return value;
+    }
+
+    @Test
+    public void mateValueFromTranspositionTableKeepsDistanceToMate() {
+        assertEquals(valueOfMateInOne(false, 2), valueOfMateInOne(true, 3, 2));
+    }
 }
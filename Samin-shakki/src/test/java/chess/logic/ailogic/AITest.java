@@ -0,0 +1,73 @@
+package chess.logic.ailogic;
+
+import chess.domain.GameSituation;
+import chess.domain.Move;
+import chess.domain.board.ChessBoard;
+import static chess.domain.board.ChessBoardCopier.chessBoardsAreDeeplyEqual;
+import static chess.domain.board.ChessBoardCopier.copy;
+import static chess.domain.board.Klass.*;
+import chess.domain.board.Piece;
+import chess.domain.board.Player;
+import chess.domain.board.Square;
+import static chess.logic.chessboardinitializers.ChessBoardInitializer.putPieceOnBoard;
+import chess.logic.chessboardinitializers.EmptyBoardInitializer;
+import chess.logic.movementlogic.MovementLogic;
+import chess.logic.movementlogic.Perft;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests every multithreaded AI has to pass. Subclasses create the AI tested.
+ *
+ * @author sami
+ */
+public abstract class AITest {
+
+    /**
+     * Creates AI searching at least three plies with given number of threads.
+     *
+     * @param threads number of threads.
+     * @return AI to be tested.
+     */
+    protected abstract AI createAI(int threads);
+
+    @Test
+    public void checkMateIsFound() {
+        GameSituation sit = new GameSituation(new EmptyBoardInitializer(), new MovementLogic());
+        Piece wq = new Piece(QUEEN, 1, 3, Player.WHITE, "wq");
+        putPieceOnBoard(sit.getChessBoard(), new Piece(KING, 0, 7, Player.BLACK, "bk"));
+        putPieceOnBoard(sit.getChessBoard(), new Piece(KNIGHT, 7, 3, Player.BLACK, "bn"));
+        putPieceOnBoard(sit.getChessBoard(), new Piece(KING, 2, 5, Player.WHITE, "wk"));
+        putPieceOnBoard(sit.getChessBoard(), wq);
+        sit.reHashBoard(true);
+
+        assertEquals(new Move(wq, new Square(1, 6)), createAI(4).findBestMove(sit));
+    }
+
+    @Test
+    public void winningSideDoesNotStalemate() {
+        GameSituation sit = Perft.situationFromFen("k1K5/8/P7/8/8/8/7R/8 w - - 0 1");
+        assertNotEquals(new Square(7, 1), createAI(4).findBestMove(sit).getTarget());
+    }
+
+    @Test
+    public void noMoveIsReturnedWhenThereAreNoLegalMoves() {
+        GameSituation sit = Perft.situationFromFen("k6R/8/1K6/8/8/8/8/8 b - - 0 1");
+        assertNull(createAI(4).findBestMove(sit));
+    }
+
+    @Test
+    public void searchDoesNotChangeGameSituation() {
+        GameSituation sit = Perft.situationFromFen(Perft.POSITION_3);
+        ChessBoard backUp = copy(sit.getChessBoard());
+        long hash = sit.getBoardHash();
+        createAI(4).findBestMove(sit);
+        assertTrue(chessBoardsAreDeeplyEqual(backUp, sit.getChessBoard()));
+        assertEquals(hash, sit.getBoardHash());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void atLeastOneThreadIsNeeded() {
+        createAI(1).setThreads(0);
+    }
+}
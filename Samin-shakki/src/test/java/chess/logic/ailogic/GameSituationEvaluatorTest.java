@@ -6,13 +6,17 @@ import chess.domain.board.Player;
 import chess.domain.board.Piece;
 import static chess.domain.board.Klass.*;
 import chess.domain.board.Square;
+import chess.domain.datastructures.PawnHashTable;
 import static chess.logic.ailogic.GameSituationEvaluator.evaluateGameSituation;
+import static chess.logic.ailogic.GameSituationEvaluator.taper;
 import chess.logic.chessboardinitializers.StandardChessBoardInitializer;
 import static chess.logic.chessboardinitializers.ChessBoardInitializer.putPieceOnBoard;
 import chess.logic.chessboardinitializers.EmptyBoardInitializer;
 import chess.logic.gamelogic.CheckingLogic;
 import chess.logic.movementlogic.MovementLogic;
+import chess.logic.movementlogic.Perft;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -59,7 +63,7 @@ public class GameSituationEvaluatorTest {
     public void gamesituationValuedNormallyWhenOpponentWillBeStaleMatedOnTheirTurn() {
         Piece queen = new Piece(QUEEN, 1, 1, Player.WHITE, "wp");
         putPieceOnBoard(situation.getChessBoard(), queen);
-        assertEquals(880 + 230, evaluateGameSituation(situation, Player.WHITE));
+        assertEquals(taper(880 + 2 * 23, 920 + 4 * 23, 4), evaluateGameSituation(situation, Player.WHITE));
     }
 
     @Test
@@ -85,7 +89,7 @@ public class GameSituationEvaluatorTest {
         putPieceOnBoard(situation.getChessBoard(), brook);
         putPieceOnBoard(situation.getChessBoard(), bqueen);
 
-        assertEquals(-1615, evaluateGameSituation(situation, Player.WHITE));
+        assertEquals(taper(110 - 510 - 885 - 4 * 13 - 2 * 21 + 40 - 10, 165 - 540 - 925 - 6 * 13 - 4 * 21 + 85 - 15, 6), evaluateGameSituation(situation, Player.WHITE));
     }
 
     @Test
@@ -100,7 +104,7 @@ public class GameSituationEvaluatorTest {
 
         situation.getChessBoard().getMovementLogic()
                 .move(wpawn, new Square(2, 6), situation);
-        assertEquals(-530, evaluateGameSituation(situation, Player.WHITE));
+        assertEquals(taper(110 - 510 - 4 * 14 + 5 - 10, 130 - 540 - 6 * 14 + 10 - 15, 2), evaluateGameSituation(situation, Player.WHITE));
     }
 
     @Test
@@ -159,12 +163,65 @@ public class GameSituationEvaluatorTest {
     }
 
     @Test
-    public void mobilityValueCorrectForPawn() {
+    public void pawnsHaveNoMobilityValue() {
         Piece wpawn = new Piece(PAWN, 1, 5, Player.WHITE, "wp");
+        putPieceOnBoard(situation.getChessBoard(), wpawn);
+        assertEquals(0, GameSituationEvaluator.mobilityValue(situation, Player.WHITE));
+    }
+
+    @Test
+    public void mobilityCountsAttackedSquaresNotOccupiedByOwnPieces() {
+        ChessBoard cb = situation.getChessBoard();
+        putPieceOnBoard(cb, new Piece(KNIGHT, 0, 7, Player.WHITE, "wn"));
+        assertEquals(taper(8 * 2, 6 * 2, 1), GameSituationEvaluator.mobilityValue(situation, Player.WHITE));
+        putPieceOnBoard(cb, new Piece(ROOK, 2, 6, Player.WHITE, "wr"));
+        assertEquals(taper(8 * 1 + 4 * 14, 6 * 1 + 6 * 14, 3), GameSituationEvaluator.mobilityValue(situation, Player.WHITE));
+    }
+
+    @Test
+    public void squaresAttackedByEnemyPawnsAreNotCounted() {
         ChessBoard cb = situation.getChessBoard();
-        putPieceOnBoard(cb, wpawn);
-        assertEquals(20, GameSituationEvaluator.mobilityValue(situation, Player.WHITE));
-        cb.getMovementLogic().move(wpawn, new Square(1, 6), situation);
-        assertEquals(10, GameSituationEvaluator.mobilityValue(situation, Player.WHITE));
+        putPieceOnBoard(cb, new Piece(KNIGHT, 4, 4, Player.WHITE, "wn"));
+        putPieceOnBoard(cb, new Piece(PAWN, 4, 1, Player.BLACK, "bp"));
+        assertEquals(taper(8 * 6, 6 * 6, 1), GameSituationEvaluator.mobilityValue(situation, Player.WHITE));
+    }
+
+    @Test
+    public void mobilityValueIsSymmetric() {
+        GameSituation sit = Perft.situationFromFen(Perft.KIWIPETE);
+        assertEquals(-GameSituationEvaluator.mobilityValue(sit, Player.BLACK),
+                GameSituationEvaluator.mobilityValue(sit, Player.WHITE));
+    }
+
+    @Test
+    public void taperGivesMiddlegameValueAtFullPhaseAndEndgameValueWithoutPieces() {
+        assertEquals(100, taper(100, 40, GameSituationEvaluator.MAX_PHASE));
+        assertEquals(100, taper(100, 40, GameSituationEvaluator.MAX_PHASE + 4));
+        assertEquals(40, taper(100, 40, 0));
+        assertEquals(70, taper(100, 40, GameSituationEvaluator.MAX_PHASE / 2));
+    }
+
+    @Test
+    public void kingIsCentralizedInEndgameButKeptInCornerInMiddlegame() {
+        GameSituation corner = Perft.situationFromFen("4k3/8/8/8/8/8/8/6K1 w - - 0 1");
+        GameSituation center = Perft.situationFromFen("4k3/8/8/8/4K3/8/8/8 w - - 0 1");
+        assertTrue(GameSituationEvaluator.materialValue(center, Player.WHITE)
+                > GameSituationEvaluator.materialValue(corner, Player.WHITE));
+
+        corner = Perft.situationFromFen("r2qk2r/8/8/8/8/8/8/R2Q2K1 w - - 0 1");
+        center = Perft.situationFromFen("r2qk2r/8/8/8/4K3/8/8/R2Q4 w - - 0 1");
+        assertTrue(GameSituationEvaluator.materialValue(center, Player.WHITE)
+                < GameSituationEvaluator.materialValue(corner, Player.WHITE));
+    }
+
+    @Test
+    public void cachedPawnStructureValueEqualsComputedOne() {
+        GameSituation sit = Perft.situationFromFen(Perft.KIWIPETE);
+        long entry = PawnStructureEvaluator.evaluate(sit.getChessBoard().getBitBoard());
+        int expected = taper(PawnHashTable.middlegame(entry), PawnHashTable.endgame(entry),
+                sit.getChessBoard().getBitBoard().getPhase());
+        assertEquals(expected, GameSituationEvaluator.pawnStructureValue(sit, Player.WHITE));
+        assertEquals(expected, GameSituationEvaluator.pawnStructureValue(sit, Player.WHITE));
+        assertEquals(-expected, GameSituationEvaluator.pawnStructureValue(sit, Player.BLACK));
     }
 }
@@ -0,0 +1,70 @@
+package chess.logic.ailogic;
+
+import chess.domain.GameSituation;
+import chess.domain.board.BitBoard;
+import chess.domain.board.Player;
+import chess.logic.movementlogic.Perft;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author sami
+ */
+public class KingSafetyEvaluatorTest {
+
+    private int evaluate(String fen, Player player) {
+        BitBoard bb = Perft.situationFromFen(fen).getChessBoard().getBitBoard();
+        return GameSituationEvaluator.kingSafety(bb, player);
+    }
+
+    @Test
+    public void playerWithoutKingIsWorthZero() {
+        assertEquals(0, evaluate("8/8/8/8/8/8/8/4K3 w - - 0 1", Player.BLACK));
+    }
+
+    @Test
+    public void kingBehindPawnsInStartingPositionIsSafe() {
+        String fen = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+        assertEquals(0, evaluate(fen, Player.WHITE));
+        assertEquals(0, evaluate(fen, Player.BLACK));
+    }
+
+    @Test
+    public void columnsWithoutOwnPawnsNearKingArePenalized() {
+        assertEquals(-2 * 15, evaluate("4k3/3pp3/8/8/8/8/PPP2PPP/4K3 w - - 0 1", Player.WHITE));
+        assertEquals(-2 * 2 * 15, evaluate("4k3/8/8/8/8/8/PPP2PPP/4K3 w - - 0 1", Player.WHITE));
+    }
+
+    @Test
+    public void pawnTooFarFromKingDoesNotShieldIt() {
+        assertEquals(-12, evaluate("4k3/8/8/8/4P3/8/3P1P2/4K3 w - - 0 1", Player.WHITE));
+    }
+
+    @Test
+    public void singleAttackerIsNotPenalized() {
+        assertEquals(0, evaluate("4k3/8/8/8/6n1/8/5PPP/6K1 w - - 0 1", Player.WHITE));
+    }
+
+    @Test
+    public void severalAttackersArePenalizedByAttackUnits() {
+        int units = 2 * 2 + 5 * 2;
+        assertEquals(-units * units / 2, evaluate("4k3/8/8/8/6n1/7q/5PPP/6K1 w - - 0 1", Player.WHITE));
+    }
+
+    @Test
+    public void kingSafetyIsIgnoredWithoutPieces() {
+        GameSituation sit = Perft.situationFromFen("4k3/8/8/8/8/8/PPP2PPP/4K3 w - - 0 1");
+        assertEquals(0, GameSituationEvaluator.kingSafetyValue(sit, Player.WHITE));
+    }
+
+    @Test
+    public void kingSafetyValueIsDifferenceOfPlayers() {
+        GameSituation sit = Perft.situationFromFen(Perft.KIWIPETE);
+        BitBoard bb = sit.getChessBoard().getBitBoard();
+        int expected = GameSituationEvaluator.taper(GameSituationEvaluator.kingSafety(bb, Player.WHITE)
+                - GameSituationEvaluator.kingSafety(bb, Player.BLACK), 0, bb.getPhase());
+        assertEquals(expected, GameSituationEvaluator.kingSafetyValue(sit, Player.WHITE));
+        assertEquals(-expected, GameSituationEvaluator.kingSafetyValue(sit, Player.BLACK));
+    }
+}
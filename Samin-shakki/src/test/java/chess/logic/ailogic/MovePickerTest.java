@@ -0,0 +1,166 @@
+package chess.logic.ailogic;
+
+import chess.domain.GameSituation;
+import chess.domain.PackedMove;
+import static chess.domain.PackedMove.NONE;
+import chess.domain.board.Square;
+import chess.domain.datastructures.MoveStack;
+import chess.logic.movementlogic.Perft;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author sami
+ */
+public class MovePickerTest {
+
+    private MovePicker picker;
+    private GameSituation sit;
+    private int[][] history;
+
+    @Before
+    public void setUp() {
+        picker = new MovePicker();
+        history = new int[64][64];
+    }
+
+    private static Square square(String name) {
+        return new Square(name.charAt(0) - 'a', '8' - name.charAt(1));
+    }
+
+    private int move(String from, String to) {
+        return PackedMove.encode(sit.getChessBoard(), square(from), square(to));
+    }
+
+    private void init(int principal, int hash, int[] killers, int counter) {
+        picker.init(sit.getChessBoard(), sit.getChessBoard().getMovementLogic(), sit.whoseTurn(),
+                principal, hash, killers, counter, history);
+    }
+
+    private List<Integer> pickAll() {
+        List<Integer> picked = new ArrayList<>();
+        int move;
+        while ((move = picker.next()) != NONE) {
+            picked.add(move);
+        }
+        return picked;
+    }
+
+    private Set<String> legalMoves() {
+        MoveStack stack = new MoveStack(1);
+        sit.getChessBoard().getMovementLogic().legalMovementsByPlayer(sit.whoseTurn(), sit.getChessBoard(), stack, 0);
+        Set<String> moves = new HashSet<>();
+        for (int i = 0; i < stack.size(0); i++) {
+            moves.add(PackedMove.toString(stack.get(0, i)));
+        }
+        return moves;
+    }
+
+    @Test
+    public void everyLegalMoveIsPickedExactlyOnce() {
+        sit = Perft.situationFromFen(Perft.KIWIPETE);
+        init(move("e2", "a6"), move("d5", "d6"),
+                new int[]{move("d5", "d6"), move("e5", "f7"), NONE}, move("a2", "a3"));
+        List<Integer> picked = pickAll();
+        Set<String> names = new HashSet<>();
+        for (int move : picked) {
+            assertTrue(names.add(PackedMove.toString(move)));
+        }
+        assertEquals(legalMoves(), names);
+        assertEquals(picked.size(), picker.getPicked());
+    }
+
+    @Test
+    public void principalAndHashMovesArePickedFirst() {
+        sit = Perft.situationFromFen(Perft.KIWIPETE);
+        init(move("e1", "g1"), move("d5", "d6"), null, NONE);
+        List<Integer> picked = pickAll();
+        assertTrue(PackedMove.sameMove(move("e1", "g1"), picked.get(0)));
+        assertTrue(PackedMove.sameMove(move("d5", "d6"), picked.get(1)));
+    }
+
+    @Test
+    public void illegalSpecialMovesAreSkipped() {
+        sit = Perft.situationFromFen(Perft.KIWIPETE);
+        init(move("a1", "a8"), NONE, new int[]{move("e5", "e8"), NONE, NONE}, NONE);
+        assertEquals(legalMoves().size(), pickAll().size());
+    }
+
+    @Test
+    public void winningCapturesComeFirstAndLosingCapturesLast() {
+        sit = Perft.situationFromFen("4k3/8/3p4/n3p3/8/8/8/4QK2 w - - 0 1");
+        init(NONE, NONE, null, NONE);
+        List<Integer> picked = pickAll();
+        assertTrue(PackedMove.sameMove(move("e1", "a5"), picked.get(0)));
+        assertTrue(PackedMove.sameMove(move("e1", "e5"), picked.get(picked.size() - 1)));
+    }
+
+    @Test
+    public void manyWinningCapturesArePickedOnce() {
+        sit = Perft.situationFromFen("K6k/8/8/8/8/1n1n1n1n/PPPPPPPP/8 w - - 0 1");
+        init(NONE, NONE, null, NONE);
+        List<Integer> picked = pickAll();
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < picked.size(); i++) {
+            assertTrue(names.add(PackedMove.toString(picked.get(i))));
+            assertEquals(i < 7, PackedMove.isCapture(picked.get(i)));
+        }
+        assertEquals(legalMoves(), names);
+    }
+
+    @Test
+    public void losingCapturesArePickedOnceAfterQuietMoves() {
+        sit = Perft.situationFromFen("4k3/8/1p1p1p1p/p1p1p1p1/8/8/8/QK6 w - - 0 1");
+        init(NONE, NONE, null, NONE);
+        List<Integer> picked = pickAll();
+        Set<String> names = new HashSet<>();
+        for (int move : picked) {
+            assertTrue(names.add(PackedMove.toString(move)));
+        }
+        assertEquals(legalMoves(), names);
+        assertTrue(PackedMove.isCapture(picked.get(picked.size() - 1)));
+    }
+
+    @Test
+    public void capturesAreOrderedByMostValuableVictim() {
+        sit = Perft.situationFromFen("4k3/8/8/7n/r7/8/8/3Q1K2 w - - 0 1");
+        init(NONE, NONE, null, NONE);
+        List<Integer> picked = pickAll();
+        assertTrue(PackedMove.sameMove(move("d1", "a4"), picked.get(0)));
+        assertTrue(PackedMove.sameMove(move("d1", "h5"), picked.get(1)));
+    }
+
+    @Test
+    public void killerAndCounterMovesArePickedBeforeOtherQuietMoves() {
+        sit = Perft.situationFromFen(Perft.KIWIPETE);
+        init(NONE, NONE, new int[]{move("a2", "a3"), NONE, NONE}, move("g2", "g3"));
+        List<Integer> picked = pickAll();
+        int firstQuiet = 0;
+        while (PackedMove.isCapture(picked.get(firstQuiet))) {
+            firstQuiet++;
+        }
+        assertTrue(PackedMove.sameMove(move("a2", "a3"), picked.get(firstQuiet)));
+        assertTrue(PackedMove.sameMove(move("g2", "g3"), picked.get(firstQuiet + 1)));
+    }
+
+    @Test
+    public void quietMovesAreOrderedByHistory() {
+        sit = Perft.situationFromFen(Perft.KIWIPETE);
+        history[PackedMove.from(move("g2", "g3"))][PackedMove.to(move("g2", "g3"))] = 100;
+        history[PackedMove.from(move("b2", "b3"))][PackedMove.to(move("b2", "b3"))] = 50;
+        init(NONE, NONE, null, NONE);
+        List<Integer> picked = pickAll();
+        int firstQuiet = 0;
+        while (PackedMove.isCapture(picked.get(firstQuiet))) {
+            firstQuiet++;
+        }
+        assertTrue(PackedMove.sameMove(move("g2", "g3"), picked.get(firstQuiet)));
+        assertTrue(PackedMove.sameMove(move("b2", "b3"), picked.get(firstQuiet + 1)));
+    }
+}
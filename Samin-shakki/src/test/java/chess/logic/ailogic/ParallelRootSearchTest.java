@@ -0,0 +1,65 @@
+package chess.logic.ailogic;
+
+import chess.domain.GameSituation;
+import chess.domain.Move;
+import chess.domain.PackedMove;
+import chess.logic.chessboardinitializers.FenChessBoardInitializer;
+import chess.logic.movementlogic.Perft;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author sami
+ */
+public class ParallelRootSearchTest extends AITest {
+
+    @Override
+    protected AI createAI(int threads) {
+        return alphaBeta(threads);
+    }
+
+    private NegamaxAlphaBeta alphaBeta(int threads) {
+        NegamaxAlphaBeta ai = new NegamaxAlphaBeta();
+        ai.setSearchDepth(3);
+        ai.setThreads(threads);
+        return ai;
+    }
+
+    private SimpleNegamax simple(int threads) {
+        SimpleNegamax ai = new SimpleNegamax();
+        ai.setSearchDepth(2);
+        ai.setThreads(threads);
+        return ai;
+    }
+
+    @Test
+    public void parallelAlphaBetaValueEqualsSerialValue() {
+        GameSituation sit = Perft.situationFromFen(Perft.KIWIPETE);
+        NegamaxAlphaBeta serial = alphaBeta(1);
+        NegamaxAlphaBeta parallel = alphaBeta(4);
+        serial.findBestMove(sit);
+        parallel.findBestMove(sit);
+        assertEquals(serial.getBestValue(), parallel.getBestValue());
+    }
+
+    @Test
+    public void parallelSimpleNegamaxFindsSameMoveAsSerial() {
+        GameSituation sit = Perft.situationFromFen(FenChessBoardInitializer.STANDARD_START);
+        SimpleNegamax serial = simple(1);
+        SimpleNegamax parallel = simple(4);
+        Move serialMove = serial.findBestMove(sit);
+        Move parallelMove = parallel.findBestMove(sit);
+        assertEquals(serial.getBestValue(), parallel.getBestValue());
+        assertEquals(serialMove, parallelMove);
+    }
+
+    @Test
+    public void firstLegalMoveIsBestIfEveryMoveFailsLow() {
+        GameSituation sit = Perft.situationFromFen(Perft.KIWIPETE);
+        ParallelRootSearch search = new ParallelRootSearch(2);
+        search.search(sit, 1000, 2000, 0, (child, alpha, beta) -> 0);
+        search.shutdown();
+        assertNotEquals(PackedMove.NONE, search.getBestMove());
+    }
+}
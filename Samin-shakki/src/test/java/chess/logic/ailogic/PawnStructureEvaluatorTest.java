@@ -0,0 +1,76 @@
+package chess.logic.ailogic;
+
+import chess.domain.board.BitBoard;
+import static chess.domain.datastructures.PawnHashTable.endgame;
+import static chess.domain.datastructures.PawnHashTable.middlegame;
+import chess.logic.movementlogic.Perft;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author sami
+ */
+public class PawnStructureEvaluatorTest {
+
+    private long evaluate(String fen) {
+        BitBoard bb = Perft.situationFromFen(fen).getChessBoard().getBitBoard();
+        return PawnStructureEvaluator.evaluate(bb);
+    }
+
+    @Test
+    public void boardWithoutPawnsIsWorthZero() {
+        assertEquals(0, evaluate("4k3/8/8/8/8/8/8/4K3 w - - 0 1"));
+    }
+
+    @Test
+    public void startingPositionIsWorthZero() {
+        assertEquals(0, evaluate("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"));
+    }
+
+    @Test
+    public void isolatedPawnsArePenalized() {
+        long entry = evaluate("4k3/pp1p4/8/8/8/8/PP1P4/4K3 w - - 0 1");
+        assertEquals(0, middlegame(entry));
+        entry = evaluate("4k3/pp1pp3/8/8/8/8/PP2P3/4K3 w - - 0 1");
+        assertEquals(-10, middlegame(entry));
+        assertEquals(-15, endgame(entry));
+    }
+
+    @Test
+    public void doubledPawnsArePenalizedAndRearPawnIsNotPassed() {
+        long entry = evaluate("4k3/1pp5/8/8/8/1P6/1PP5/4K3 w - - 0 1");
+        assertEquals(-10, middlegame(entry));
+        assertEquals(-20, endgame(entry));
+    }
+
+    @Test
+    public void backwardPawnIsPenalized() {
+        long entry = evaluate("4k3/8/8/8/1P1p4/8/2P5/4K3 w - - 0 1");
+        assertEquals(15 - 8 + 10, middlegame(entry));
+        assertEquals(35 - 10 + 15, endgame(entry));
+    }
+
+    @Test
+    public void passedPawnBonusGrowsAsPawnAdvances() {
+        long entry = evaluate("4k3/8/8/8/8/8/PP6/4K3 w - - 0 1");
+        assertEquals(2 * 5, middlegame(entry));
+        assertEquals(2 * 10, endgame(entry));
+        entry = evaluate("4k3/8/P7/8/8/8/1P6/4K3 w - - 0 1");
+        assertEquals(40 + 5, middlegame(entry));
+        assertEquals(85 + 10, endgame(entry));
+    }
+
+    @Test
+    public void pawnBlockedByEnemyPawnOnAdjacentColumnIsNotPassed() {
+        assertEquals(0, evaluate("4k3/1p6/8/8/8/8/P7/4K3 w - - 0 1"));
+    }
+
+    @Test
+    public void evaluationIsSymmetric() {
+        long white = evaluate("4k3/8/2p5/8/1P6/8/P5P1/4K3 w - - 0 1");
+        long black = evaluate("4k3/p5p1/8/1p6/8/2P5/8/4K3 w - - 0 1");
+        assertEquals(-middlegame(white), middlegame(black));
+        assertEquals(-endgame(white), endgame(black));
+    }
+}
@@ -0,0 +1,16 @@
+package chess.logic.ailogic;
+
+/**
+ *
+ * @author sami
+ */
+public class SimpleNegamaxTest extends AITest {
+
+    @Override
+    protected AI createAI(int threads) {
+        SimpleNegamax ai = new SimpleNegamax();
+        ai.setSearchDepth(3);
+        ai.setThreads(threads);
+        return ai;
+    }
+}
@@ -0,0 +1,76 @@
+package chess.logic.ailogic;
+
+import chess.domain.GameSituation;
+import chess.domain.PackedMove;
+import chess.domain.board.Square;
+import chess.logic.movementlogic.Perft;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author sami
+ */
+public class StaticExchangeEvaluatorTest {
+
+    private static Square square(String name) {
+        return new Square(name.charAt(0) - 'a', '8' - name.charAt(1));
+    }
+
+    private int see(String fen, String from, String to) {
+        GameSituation sit = Perft.situationFromFen(fen);
+        int move = PackedMove.encode(sit.getChessBoard(), square(from), square(to));
+        return new StaticExchangeEvaluator().evaluate(sit.getChessBoard(), move);
+    }
+
+    @Test
+    public void undefendedPieceIsWonCompletely() {
+        assertEquals(100, see("1k1r4/1pp4p/p7/4p3/8/P5P1/1PP4P/2K1R3 w - - 0 1", "e1", "e5"));
+    }
+
+    @Test
+    public void capturingDefendedPawnWithKnightLosesKnightForPawn() {
+        assertEquals(100 - 320, see("1k1r3q/1ppn3p/p4b2/4p3/8/P2N2P1/1PP1R1BP/2K1Q3 w - - 0 1", "d3", "e5"));
+    }
+
+    @Test
+    public void equalTradeIsEven() {
+        assertEquals(0, see("4k3/8/3p4/4n3/8/5N2/8/4K3 w - - 0 1", "f3", "e5"));
+    }
+
+    @Test
+    public void xRayAttackerBehindRookIsCounted() {
+        assertEquals(100, see("4k3/4r3/8/4p3/8/8/4R3/4R1K1 w - - 0 1", "e2", "e5"));
+    }
+
+    @Test
+    public void kingRecapturesUndefendedPiece() {
+        assertEquals(100 - 880, see("8/8/8/3k4/4p3/3Q4/3K4/8 w - - 0 1", "d3", "e4"));
+    }
+
+    @Test
+    public void kingDoesNotCaptureDefendedPiece() {
+        assertEquals(100, see("8/8/8/3k4/4p3/3Q4/3K4/4R3 w - - 0 1", "d3", "e4"));
+    }
+
+    @Test
+    public void quietMoveToAttackedSquareLosesPiece() {
+        assertEquals(-880, see("4k3/8/3p4/8/8/8/8/4QK2 w - - 0 1", "e1", "e5"));
+    }
+
+    @Test
+    public void enPassantCaptureWinsPawn() {
+        assertEquals(100, see("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1", "e5", "d6"));
+    }
+
+    @Test
+    public void evaluatorCanBeReused() {
+        GameSituation sit = Perft.situationFromFen("4k3/8/3p4/4p3/8/8/8/4QK2 w - - 0 1");
+        StaticExchangeEvaluator evaluator = new StaticExchangeEvaluator();
+        int capture = PackedMove.encode(sit.getChessBoard(), square("e1"), square("e5"));
+        int quiet = PackedMove.encode(sit.getChessBoard(), square("e1"), square("e2"));
+        assertEquals(100 - 880, evaluator.evaluate(sit.getChessBoard(), capture));
+        assertEquals(0, evaluator.evaluate(sit.getChessBoard(), quiet));
+        assertEquals(100 - 880, evaluator.evaluate(sit.getChessBoard(), capture));
+    }
+}
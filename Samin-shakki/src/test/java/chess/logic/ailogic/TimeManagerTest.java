@@ -0,0 +1,81 @@
+package chess.logic.ailogic;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author sami
+ */
+public class TimeManagerTest {
+
+    private TimeManager manager;
+
+    @Before
+    public void setUp() {
+        manager = new TimeManager(1000);
+    }
+
+    @Test
+    public void softLimitOfFixedMoveTimeIsHalfOfIt() {
+        assertEquals(1000, manager.getHardLimit());
+        assertEquals(500, manager.getSoftLimit());
+    }
+
+    @Test
+    public void remainingTimeIsSharedBetweenMoves() {
+        manager.allocate(30000, 0);
+        assertEquals(1000, manager.getSoftLimit());
+        assertEquals(4000, manager.getHardLimit());
+    }
+
+    @Test
+    public void incrementIsMostlyUsed() {
+        manager.allocate(30000, 1000);
+        assertEquals(1750, manager.getSoftLimit());
+    }
+
+    @Test
+    public void moveNeverUsesMoreThanHalfOfRemainingTime() {
+        manager.allocate(1000, 5000);
+        assertEquals(500, manager.getHardLimit());
+        assertEquals(500, manager.getSoftLimit());
+    }
+
+    @Test
+    public void softLimitIsReachedBeforeHardLimit() {
+        manager.restartAt(System.currentTimeMillis() - 600);
+        assertTrue(manager.isSoftLimitReached());
+        assertFalse(manager.isHardLimitReached());
+    }
+
+    @Test
+    public void hardLimitIsNoticedWhenRestarted() {
+        manager.restartAt(System.currentTimeMillis() - 1000);
+        assertTrue(manager.isHardLimitReached());
+        assertTrue(manager.isSoftLimitReached());
+    }
+
+    @Test
+    public void searchIsAbortedAtNodeLimit() {
+        manager.setInfinite();
+        manager.setNodeLimit(10);
+        manager.start();
+        for (int i = 1; i < 10; i++) {
+            assertFalse(manager.countNode());
+        }
+        assertTrue(manager.countNode());
+        assertEquals(10, manager.getNodes());
+    }
+
+    @Test
+    public void infiniteSearchIsNotLimitedByTime() {
+        manager.setInfinite();
+        manager.restartAt(System.currentTimeMillis() - 100000);
+        assertFalse(manager.isSoftLimitReached());
+        for (int i = 0; i < 2 * TimeManager.CHECK_INTERVAL; i++) {
+            assertFalse(manager.countNode());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package chess.logic.ailogic;
+
+import chess.domain.GameSituation;
+import chess.domain.board.Square;
+import chess.logic.chessboardinitializers.FenChessBoardInitializer;
+import chess.logic.movementlogic.Perft;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author sami
+ */
+public class YoungBrothersWaitNegamaxTest extends AITest {
+
+    private YoungBrothersWaitNegamax ai;
+
+    @Before
+    public void setUp() {
+        ai = new YoungBrothersWaitNegamax();
+        ai.setThreads(4);
+        ai.setSearchDepth(3);
+    }
+
+    @Override
+    protected AI createAI(int threads) {
+        YoungBrothersWaitNegamax parallel = new YoungBrothersWaitNegamax();
+        parallel.setThreads(threads);
+        parallel.setSearchDepth(3);
+        return parallel;
+    }
+
+    private int serialValue(GameSituation sit, int depth) {
+        YoungBrothersWaitNegamax serial = new YoungBrothersWaitNegamax();
+        serial.setThreads(1);
+        serial.setSearchDepth(depth);
+        serial.setMinSplitDepth(depth + 1);
+        serial.findBestMove(sit);
+        return serial.getBestValue();
+    }
+
+    @Test
+    public void oneThreadIsUsedByDefault() {
+        assertEquals(1, new YoungBrothersWaitNegamax().getThreads());
+    }
+
+    @Test
+    public void parallelValueEqualsSerialValueInStandardStart() {
+        GameSituation sit = Perft.situationFromFen(FenChessBoardInitializer.STANDARD_START);
+        ai.findBestMove(sit);
+        assertEquals(serialValue(sit, 3), ai.getBestValue());
+    }
+
+    @Test
+    public void parallelValueEqualsSerialValueInKiwipete() {
+        GameSituation sit = Perft.situationFromFen(Perft.KIWIPETE);
+        ai.findBestMove(sit);
+        assertEquals(serialValue(sit, 3), ai.getBestValue());
+    }
+
+    @Test
+    public void rootIsSearchedSeriallyBelowMinimumSplitDepth() {
+        GameSituation sit = Perft.situationFromFen("6k1/5ppp/8/8/8/8/5PPP/3R2K1 w - - 0 1");
+        ai.setMinSplitDepth(4);
+        assertEquals(new Square(3, 0), ai.findBestMove(sit).getTarget());
+        assertEquals(serialValue(sit, 3), ai.getBestValue());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void minimumSplitDepthMustBeAtLeastTwo() {
+        ai.setMinSplitDepth(1);
+    }
+}
@@ -0,0 +1,77 @@
+package chess.logic.chessboardinitializers;
+
+import chess.domain.board.ChessBoard;
+import chess.domain.board.Piece;
+import chess.domain.board.Player;
+import static chess.domain.board.Klass.*;
+import chess.logic.movementlogic.MovementLogic;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author sami
+ */
+public class FenChessBoardInitializerTest {
+
+    private ChessBoard board;
+
+    @Before
+    public void setUp() {
+        board = new ChessBoard(new MovementLogic());
+    }
+
+    @Test
+    public void standardStartPlacesPiecesLikeStandardInitializer() {
+        new FenChessBoardInitializer(FenChessBoardInitializer.STANDARD_START).initialize(board);
+        ChessBoard standard = new ChessBoard(new MovementLogic());
+        new StandardChessBoardInitializer().initialize(standard);
+        for (int column = 0; column < 8; column++) {
+            for (int row = 0; row < 8; row++) {
+                Piece expected = standard.getPiece(column, row);
+                Piece piece = board.getPiece(column, row);
+                if (expected == null) {
+                    assertNull(piece);
+                } else {
+                    assertEquals(expected.getKlass(), piece.getKlass());
+                    assertEquals(expected.getOwner(), piece.getOwner());
+                    if (piece.getKlass() == PAWN || piece.getKlass() == KING || piece.getKlass() == ROOK) {
+                        assertFalse(piece.isHasBeenMoved());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void playerToMoveIsReadFromActiveColor() {
+        assertEquals(Player.WHITE, new FenChessBoardInitializer(FenChessBoardInitializer.STANDARD_START).getPlayerToMove());
+        assertEquals(Player.BLACK, new FenChessBoardInitializer("8/8/8/8/8/8/8/K6k b - - 0 1").getPlayerToMove());
+    }
+
+    @Test
+    public void onlyKingAndRookWithCastlingRightAreUnmoved() {
+        new FenChessBoardInitializer("r3k2r/8/8/8/8/8/8/R3K2R w Kq - 0 1").initialize(board);
+        assertFalse(board.getPiece(4, 7).isHasBeenMoved());
+        assertFalse(board.getPiece(7, 7).isHasBeenMoved());
+        assertTrue(board.getPiece(0, 7).isHasBeenMoved());
+        assertFalse(board.getPiece(4, 0).isHasBeenMoved());
+        assertFalse(board.getPiece(0, 0).isHasBeenMoved());
+        assertTrue(board.getPiece(7, 0).isHasBeenMoved());
+    }
+
+    @Test
+    public void pawnPassingEnPassantSquareHasMovedTwoSquares() {
+        new FenChessBoardInitializer("4k3/8/8/8/3pP3/8/8/4K3 b - e3 0 1").initialize(board);
+        Piece pawn = board.getPiece(4, 4);
+        assertEquals(PAWN, pawn.getKlass());
+        assertTrue(pawn.isMovedTwoSquaresLastTurn());
+        assertFalse(board.getPiece(3, 4).isMovedTwoSquaresLastTurn());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownPieceThrowsException() {
+        new FenChessBoardInitializer("4x3/8/8/8/8/8/8/4K3 w - - 0 1").initialize(board);
+    }
+}
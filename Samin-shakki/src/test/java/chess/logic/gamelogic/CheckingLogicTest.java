@@ -154,4 +154,19 @@ public class CheckingLogicTest {
         game.getChessBoard().updateThreatenedSquares(Player.BLACK);
         assertFalse(cl.stalemate(Player.WHITE));
     }
+
+    @Test
+    public void staleMateFalseIfKingIsCheckedAndThereIsNoLegalMoves() {
+        putPieceOnBoard(game.getChessBoard(), new Piece(QUEEN, 1, 1, Player.BLACK, "bq"));
+        putPieceOnBoard(game.getChessBoard(), new Piece(KING, 2, 2, Player.BLACK, "bk"));
+        assertFalse(cl.stalemate(Player.WHITE));
+    }
+
+    @Test
+    public void checkMateFalseIfKingNotCheckedAndThereIsNoLegalMoves() {
+        putPieceOnBoard(game.getChessBoard(), new Piece(ROOK, 1, 7, Player.BLACK, "br1"));
+        putPieceOnBoard(game.getChessBoard(), new Piece(ROOK, 7, 1, Player.BLACK, "br2"));
+        game.getChessBoard().updateThreatenedSquares(Player.BLACK);
+        assertFalse(cl.checkMate(Player.WHITE));
+    }
 }
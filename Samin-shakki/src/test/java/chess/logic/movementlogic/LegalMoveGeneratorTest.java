@@ -0,0 +1,367 @@
+package chess.logic.movementlogic;
+
+import chess.domain.GameSituation;
+import chess.domain.PackedMove;
+import chess.domain.board.ChessBoard;
+import chess.domain.board.ChessBoardCopier;
+import chess.domain.board.Klass;
+import static chess.domain.board.Klass.*;
+import chess.domain.board.Piece;
+import chess.domain.board.Player;
+import chess.domain.board.Square;
+import chess.domain.datastructures.MoveStack;
+import static chess.logic.chessboardinitializers.ChessBoardInitializer.putPieceOnBoard;
+import chess.logic.chessboardinitializers.EmptyBoardInitializer;
+import chess.logic.chessboardinitializers.StandardChessBoardInitializer;
+import chess.logic.gamelogic.CheckingLogic;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author sami
+ */
+public class LegalMoveGeneratorTest {
+
+    private static final String[] KIWIPETE = {
+        "r...k..r",
+        "p.ppqpb.",
+        "bn..pnp.",
+        "...PN...",
+        ".p..P...",
+        "..N..Q.p",
+        "PPPBBPPP",
+        "R...K..R"};
+
+    private static final String[] POSITION_3 = {
+        "........",
+        "..p.....",
+        "...p....",
+        "KP.....r",
+        ".R...p.k",
+        "........",
+        "....P.P.",
+        "........"};
+
+    private LegalMoveGenerator generator;
+    private MoveStack stack;
+    private GameSituation sit;
+
+    @Before
+    public void setUp() {
+        generator = new LegalMoveGenerator();
+        stack = new MoveStack(8);
+        sit = new GameSituation(new EmptyBoardInitializer(), new MovementLogic());
+    }
+
+    /**
+     * Places pieces on board row by row starting from row 0. Uppercase letters
+     * are white and lowercase black pieces like in FEN. Pawns not on their
+     * starting row are marked moved so they can't move two squares.
+     */
+    private void setUpBoard(String[] rows) {
+        ChessBoard board = sit.getChessBoard();
+        for (int row = 0; row < 8; row++) {
+            for (int column = 0; column < 8; column++) {
+                char c = rows[row].charAt(column);
+                if (c == '.') {
+                    continue;
+                }
+                Player owner = Character.isUpperCase(c) ? Player.WHITE : Player.BLACK;
+                Klass klass = klassOf(Character.toLowerCase(c));
+                Piece piece = new Piece(klass, column, row, owner, "" + c + column + row);
+                if (klass == PAWN) {
+                    piece.setHasBeenMoved(row != (owner == Player.WHITE ? 6 : 1));
+                }
+                putPieceOnBoard(board, piece);
+            }
+        }
+        sit.reHashBoard(false);
+    }
+
+    private Klass klassOf(char c) {
+        switch (c) {
+            case 'p':
+                return PAWN;
+            case 'n':
+                return KNIGHT;
+            case 'b':
+                return BISHOP;
+            case 'r':
+                return ROOK;
+            case 'q':
+                return QUEEN;
+            default:
+                return KING;
+        }
+    }
+
+    private long perft(Player player, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        generator.generateMoves(player, sit.getChessBoard(), stack, depth);
+        long nodes = 0;
+        for (int i = 0; i < stack.size(depth); i++) {
+            sit.makeMove(stack.get(depth, i));
+            nodes += perft(Player.getOpponent(player), depth - 1);
+            sit.unmakeMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Counts leaves using MovementLogic: each possible move is made, rejected
+     * if it leaves own king checked and undone from a backup.
+     */
+    private long movementLogicPerft(Player player, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        ChessBoard board = sit.getChessBoard();
+        MovementLogic ml = board.getMovementLogic();
+        ChessBoard backUp = ChessBoardCopier.copy(board);
+        int movesTillDraw = sit.getMovesTillDraw();
+        long nodes = 0;
+        for (Piece piece : new ArrayList<>(board.getPieces(player))) {
+            if (piece.isTaken()) {
+                continue;
+            }
+            Square from = piece.getLocation();
+            for (Square target : ml.possibleMoves(piece, board)) {
+                ml.move(piece, target, sit);
+                if (!CheckingLogic.checkIfChecked(board, player)) {
+                    nodes += movementLogicPerft(Player.getOpponent(player), depth - 1);
+                }
+                ChessBoardCopier.undoMove(backUp, sit, from, target, movesTillDraw);
+            }
+        }
+        return nodes;
+    }
+
+    private Set<String> generatedMoves(Player player) {
+        generator.generateMoves(player, sit.getChessBoard(), stack, 0);
+        Set<String> moves = new HashSet<>();
+        for (int i = 0; i < stack.size(0); i++) {
+            moves.add(PackedMove.toString(stack.get(0, i)));
+        }
+        return moves;
+    }
+
+    @Test
+    public void perftOfStandardStartIsCorrect() {
+        sit = new GameSituation(new StandardChessBoardInitializer(), new MovementLogic());
+        assertEquals(20, perft(Player.WHITE, 1));
+        assertEquals(400, perft(Player.WHITE, 2));
+        assertEquals(8902, perft(Player.WHITE, 3));
+    }
+
+    @Test
+    public void perftOfKiwipeteIsCorrect() {
+        setUpBoard(KIWIPETE);
+        assertEquals(48, perft(Player.WHITE, 1));
+        assertEquals(2039, perft(Player.WHITE, 2));
+    }
+
+    @Test
+    public void perftOfPositionWithPinsAndEnPassantIsCorrect() {
+        setUpBoard(POSITION_3);
+        sit.getChessBoard().getKings().get(Player.WHITE).setHasBeenMoved(true);
+        sit.getChessBoard().getKings().get(Player.BLACK).setHasBeenMoved(true);
+        assertEquals(14, perft(Player.WHITE, 1));
+        assertEquals(191, perft(Player.WHITE, 2));
+        assertEquals(2812, perft(Player.WHITE, 3));
+    }
+
+    @Test
+    public void perftEqualsMovementLogicPerftInStandardStart() {
+        sit = new GameSituation(new StandardChessBoardInitializer(), new MovementLogic());
+        assertEquals(movementLogicPerft(Player.WHITE, 3), perft(Player.WHITE, 3));
+    }
+
+    @Test
+    public void perftEqualsMovementLogicPerftInKiwipete() {
+        setUpBoard(KIWIPETE);
+        assertEquals(movementLogicPerft(Player.WHITE, 2), perft(Player.WHITE, 2));
+        assertEquals(movementLogicPerft(Player.BLACK, 2), perft(Player.BLACK, 2));
+    }
+
+    @Test
+    public void perftEqualsMovementLogicPerftInPositionWithPinsAndEnPassant() {
+        setUpBoard(POSITION_3);
+        assertEquals(movementLogicPerft(Player.WHITE, 3), perft(Player.WHITE, 3));
+        assertEquals(movementLogicPerft(Player.BLACK, 3), perft(Player.BLACK, 3));
+    }
+
+    @Test
+    public void pinnedPieceCanOnlyMoveAlongPin() {
+        setUpBoard(new String[]{
+            "....r...",
+            "........",
+            "........",
+            "........",
+            "........",
+            "....R...",
+            "........",
+            "....K..."});
+        Set<String> moves = generatedMoves(Player.WHITE);
+        assertTrue(moves.contains("e3e8"));
+        assertTrue(moves.contains("e3e4"));
+        assertFalse(moves.contains("e3d3"));
+    }
+
+    @Test
+    public void onlyKingCanMoveInDoubleCheck() {
+        setUpBoard(new String[]{
+            "....r...",
+            "........",
+            "........",
+            "........",
+            ".b......",
+            "........",
+            "Q.......",
+            "....K..."});
+        generator.generateMoves(Player.WHITE, sit.getChessBoard(), stack, 0);
+        for (int i = 0; i < stack.size(0); i++) {
+            assertEquals(KING, PackedMove.moved(stack.get(0, i)));
+        }
+    }
+
+    @Test
+    public void enPassantThatExposesKingIsNotGenerated() {
+        setUpBoard(POSITION_3);
+        ChessBoard board = sit.getChessBoard();
+        sit.makeMove(PackedMove.encode(board, new Square(4, 6), new Square(4, 4)));
+        assertFalse(generatedMoves(Player.BLACK).contains("f4e3"));
+    }
+
+    @Test
+    public void checkmatedPlayerHasNoMoves() {
+        setUpBoard(new String[]{
+            "k......R",
+            "........",
+            ".K......",
+            "........",
+            "........",
+            "........",
+            "........",
+            "........"});
+        assertTrue(generatedMoves(Player.BLACK).isEmpty());
+    }
+
+    /**
+     * Checks in every position reached in given depth that generated captures
+     * are exactly the captures and promotions among all legal moves.
+     */
+    private void assertCapturesMatchLegalMoves(Player player, int depth) {
+        Set<String> expected = new HashSet<>();
+        generator.generateMoves(player, sit.getChessBoard(), stack, 0);
+        for (int i = 0; i < stack.size(0); i++) {
+            int move = stack.get(0, i);
+            if (PackedMove.isCapture(move) || PackedMove.isPromotion(move)) {
+                expected.add(PackedMove.toString(move));
+            }
+        }
+        generator.generateCaptures(player, sit.getChessBoard(), stack, 0);
+        Set<String> captures = new HashSet<>();
+        for (int i = 0; i < stack.size(0); i++) {
+            captures.add(PackedMove.toString(stack.get(0, i)));
+        }
+        assertEquals(expected, captures);
+        if (depth == 0) {
+            return;
+        }
+        generator.generateMoves(player, sit.getChessBoard(), stack, depth);
+        for (int i = 0; i < stack.size(depth); i++) {
+            sit.makeMove(stack.get(depth, i));
+            assertCapturesMatchLegalMoves(Player.getOpponent(player), depth - 1);
+            sit.unmakeMove();
+        }
+    }
+
+    @Test
+    public void capturesAreCapturesAndPromotionsAmongLegalMovesInKiwipete() {
+        setUpBoard(KIWIPETE);
+        assertCapturesMatchLegalMoves(Player.WHITE, 2);
+    }
+
+    @Test
+    public void capturesAreCapturesAndPromotionsAmongLegalMovesInPositionWithPinsAndEnPassant() {
+        setUpBoard(POSITION_3);
+        assertCapturesMatchLegalMoves(Player.WHITE, 3);
+    }
+
+    @Test
+    public void captureGenerationIncludesPromotionsWithoutCapture() {
+        setUpBoard(new String[]{
+            "........",
+            "P......k",
+            "........",
+            "........",
+            "........",
+            "........",
+            "........",
+            "....K..."});
+        generator.generateCaptures(Player.WHITE, sit.getChessBoard(), stack, 0);
+        assertEquals(4, stack.size(0));
+        for (int i = 0; i < 4; i++) {
+            assertTrue(PackedMove.isPromotion(stack.get(0, i)));
+        }
+    }
+
+    /**
+     * Checks in every position reached in given depth that captures and quiet
+     * moves together are exactly all legal moves and no move is generated
+     * twice.
+     */
+    private void assertCapturesAndQuietsPartitionLegalMoves(Player player, int depth) {
+        Set<String> expected = new HashSet<>();
+        generator.generateMoves(player, sit.getChessBoard(), stack, 7);
+        for (int i = 0; i < stack.size(7); i++) {
+            expected.add(PackedMove.toString(stack.get(7, i)));
+        }
+        Set<String> generated = new HashSet<>();
+        generator.generateCaptures(player, sit.getChessBoard(), stack, 6);
+        generator.generateQuiets(player, sit.getChessBoard(), stack, 7);
+        for (int i = 0; i < stack.size(6); i++) {
+            generated.add(PackedMove.toString(stack.get(6, i)));
+        }
+        for (int i = 0; i < stack.size(7); i++) {
+            int move = stack.get(7, i);
+            assertFalse(PackedMove.isCapture(move) || PackedMove.isPromotion(move));
+            assertTrue(generated.add(PackedMove.toString(move)));
+        }
+        assertEquals(expected, generated);
+        if (depth == 0) {
+            return;
+        }
+        generator.generateMoves(player, sit.getChessBoard(), stack, depth);
+        for (int i = 0; i < stack.size(depth); i++) {
+            sit.makeMove(stack.get(depth, i));
+            assertCapturesAndQuietsPartitionLegalMoves(Player.getOpponent(player), depth - 1);
+            sit.unmakeMove();
+        }
+    }
+
+    @Test
+    public void capturesAndQuietsAreAllLegalMovesInKiwipete() {
+        setUpBoard(KIWIPETE);
+        assertCapturesAndQuietsPartitionLegalMoves(Player.WHITE, 2);
+    }
+
+    @Test
+    public void capturesAndQuietsAreAllLegalMovesInPositionWithPinsAndEnPassant() {
+        setUpBoard(POSITION_3);
+        assertCapturesAndQuietsPartitionLegalMoves(Player.WHITE, 3);
+    }
+
+    @Test
+    public void capturesAndQuietsAreAllLegalMovesInStartingPosition() {
+        sit = new GameSituation(new StandardChessBoardInitializer(), new MovementLogic());
+        assertCapturesAndQuietsPartitionLegalMoves(Player.WHITE, 3);
+    }
+}
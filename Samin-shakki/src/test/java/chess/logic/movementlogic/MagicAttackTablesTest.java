@@ -0,0 +1,69 @@
+package chess.logic.movementlogic;
+
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author sami
+ */
+public class MagicAttackTablesTest {
+
+    @Test
+    public void rookAttacksOnEmptyBoardCoverRowAndColumn() {
+        long expected = 0x0101010101010101L << 3 | 0xFFL << 32;
+        expected &= ~(1L << 35);
+        assertEquals(expected, MagicAttackTables.rookAttacks(35, 0));
+    }
+
+    @Test
+    public void bishopAttacksStopAtFirstOccupiedSquare() {
+        long occupied = 1L << 18;
+        long attacks = MagicAttackTables.bishopAttacks(0, occupied);
+        assertEquals((1L << 9) | (1L << 18), attacks);
+    }
+
+    @Test
+    public void queenAttacksAreUnionOfRookAndBishopAttacks() {
+        long occupied = 0x0000FF0000FF0000L;
+        for (int sq = 0; sq < 64; sq++) {
+            assertEquals(MagicAttackTables.rookAttacks(sq, occupied) | MagicAttackTables.bishopAttacks(sq, occupied),
+                    MagicAttackTables.queenAttacks(sq, occupied));
+        }
+    }
+
+    @Test
+    public void magicLookupsMatchRayWalkingForRandomOccupancies() {
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            long occupied = random.nextLong() & random.nextLong();
+            for (int sq = 0; sq < 64; sq++) {
+                assertEquals(MagicAttackTables.slowRookAttacks(sq, occupied),
+                        MagicAttackTables.rookAttacks(sq, occupied));
+                assertEquals(MagicAttackTables.slowBishopAttacks(sq, occupied),
+                        MagicAttackTables.bishopAttacks(sq, occupied));
+            }
+        }
+    }
+
+    @Test
+    public void magicLookupsMatchRayWalkingForEveryRelevantOccupancy() {
+        for (int sq = 0; sq < 64; sq++) {
+            long mask = MagicAttackTables.rookMask(sq);
+            long subset = 0;
+            do {
+                assertEquals(MagicAttackTables.slowRookAttacks(sq, subset),
+                        MagicAttackTables.rookAttacks(sq, subset));
+                subset = (subset - mask) & mask;
+            } while (subset != 0);
+
+            mask = MagicAttackTables.bishopMask(sq);
+            do {
+                assertEquals(MagicAttackTables.slowBishopAttacks(sq, subset),
+                        MagicAttackTables.bishopAttacks(sq, subset));
+                subset = (subset - mask) & mask;
+            } while (subset != 0);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package chess.logic.movementlogic;
+
+import chess.domain.GameSituation;
+import chess.domain.PackedMove;
+import chess.domain.board.BitBoard;
+import chess.domain.board.ChessBoard;
+import static chess.domain.board.Klass.*;
+import chess.domain.board.Piece;
+import chess.domain.board.Player;
+import chess.domain.board.Square;
+import chess.domain.datastructures.MoveStack;
+import static chess.logic.chessboardinitializers.ChessBoardInitializer.putPieceOnBoard;
+import chess.logic.chessboardinitializers.EmptyBoardInitializer;
+import chess.logic.chessboardinitializers.StandardChessBoardInitializer;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author sami
+ */
+public class MoveGeneratorTest {
+
+    private MoveGenerator generator;
+    private MoveStack stack;
+
+    @Before
+    public void setUp() {
+        generator = new MoveGenerator();
+        stack = new MoveStack(1);
+    }
+
+    private Set<String> generatedMoves(Player player, ChessBoard board) {
+        generator.generateMoves(player, board, stack, 0);
+        Set<String> moves = new HashSet<>();
+        for (int i = 0; i < stack.size(0); i++) {
+            moves.add(PackedMove.toString(stack.get(0, i)));
+        }
+        return moves;
+    }
+
+    /**
+     * Moves given by MovementLogic. Like possibleMovements, king may move to
+     * threatened squares as those moves are rejected after making them.
+     */
+    private Set<String> movementLogicMoves(Player player, ChessBoard board) {
+        Set<String> moves = new HashSet<>();
+        MovementLogic ml = board.getMovementLogic();
+        for (Piece piece : board.getPieces(player)) {
+            if (piece.isTaken()) {
+                continue;
+            }
+            Set<Square> targets = ml.possibleMoves(piece, board);
+            if (piece.getKlass() == KING) {
+                targets.removeIf(target -> Math.abs(target.getColumn() - piece.getColumn()) < 2);
+                ml.possibleMovements(piece, board).forEach(move -> targets.add(move.getTarget()));
+            }
+            for (Square target : targets) {
+                int move = PackedMove.encode(board, piece.getLocation(), target);
+                moves.add(PackedMove.toString(move));
+            }
+        }
+        return moves;
+    }
+
+    @Test
+    public void twentyMovesInStandardStart() {
+        GameSituation sit = new GameSituation(new StandardChessBoardInitializer(), new MovementLogic());
+        generator.generateMoves(Player.WHITE, sit.getChessBoard(), stack, 0);
+        assertEquals(20, stack.size(0));
+        generator.generateMoves(Player.BLACK, sit.getChessBoard(), stack, 0);
+        assertEquals(20, stack.size(0));
+    }
+
+    @Test
+    public void sameMovesAsMovementLogicInStandardStart() {
+        GameSituation sit = new GameSituation(new StandardChessBoardInitializer(), new MovementLogic());
+        for (Player player : Player.values()) {
+            assertEquals(movementLogicMoves(player, sit.getChessBoard()),
+                    generatedMoves(player, sit.getChessBoard()));
+        }
+    }
+
+    @Test
+    public void sameMovesAsMovementLogicAfterSomeMoves() {
+        GameSituation sit = new GameSituation(new StandardChessBoardInitializer(), new MovementLogic());
+        ChessBoard board = sit.getChessBoard();
+        MovementLogic ml = board.getMovementLogic();
+        ml.move(board.getPiece(4, 6), new Square(4, 4), sit);
+        ml.move(board.getPiece(3, 1), new Square(3, 3), sit);
+        ml.move(board.getPiece(5, 7), new Square(1, 3), sit);
+        ml.move(board.getPiece(6, 0), new Square(5, 2), sit);
+        ml.move(board.getPiece(4, 4), new Square(3, 3), sit);
+        for (Player player : Player.values()) {
+            assertEquals(movementLogicMoves(player, board), generatedMoves(player, board));
+        }
+    }
+
+    @Test
+    public void promotingPawnGeneratesAllPromotions() {
+        GameSituation sit = new GameSituation(new EmptyBoardInitializer(), new MovementLogic());
+        putPieceOnBoard(sit.getChessBoard(), new Piece(PAWN, 0, 1, Player.WHITE, "wp"));
+        Set<String> moves = generatedMoves(Player.WHITE, sit.getChessBoard());
+        assertEquals(4, moves.size());
+        assertTrue(moves.contains("a7a8q"));
+        assertTrue(moves.contains("a7a8n"));
+        assertEquals(QUEEN, PackedMove.promotion(stack.get(0, 0)));
+    }
+
+    @Test
+    public void enPassantIsGenerated() {
+        GameSituation sit = new GameSituation(new EmptyBoardInitializer(), new MovementLogic());
+        Piece wp = new Piece(PAWN, 1, 3, Player.WHITE, "wp");
+        Piece bp = new Piece(PAWN, 2, 1, Player.BLACK, "bp");
+        wp.setHasBeenMoved(true);
+        putPieceOnBoard(sit.getChessBoard(), wp);
+        putPieceOnBoard(sit.getChessBoard(), bp);
+        sit.getChessBoard().getMovementLogic().move(bp, new Square(2, 3), sit);
+        generator.generateMoves(Player.WHITE, sit.getChessBoard(), stack, 0);
+
+        boolean found = false;
+        for (int i = 0; i < stack.size(0); i++) {
+            int move = stack.get(0, i);
+            if (PackedMove.isEnPassant(move)) {
+                found = true;
+                assertEquals(BitBoard.squareIndex(2, 2), PackedMove.to(move));
+            }
+        }
+        assertTrue(found);
+    }
+
+    @Test
+    public void castlingIsGeneratedOnlyWhenPathIsFree() {
+        GameSituation sit = new GameSituation(new EmptyBoardInitializer(), new MovementLogic());
+        ChessBoard board = sit.getChessBoard();
+        putPieceOnBoard(board, new Piece(KING, 4, 7, Player.WHITE, "wk"));
+        putPieceOnBoard(board, new Piece(ROOK, 0, 7, Player.WHITE, "wr1"));
+        putPieceOnBoard(board, new Piece(ROOK, 7, 7, Player.WHITE, "wr2"));
+        putPieceOnBoard(board, new Piece(ROOK, 5, 0, Player.BLACK, "br"));
+        Set<String> moves = generatedMoves(Player.WHITE, board);
+        assertTrue(moves.contains("e1c1"));
+        assertFalse(moves.contains("e1g1"));
+    }
+}
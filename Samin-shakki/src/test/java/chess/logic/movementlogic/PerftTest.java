@@ -0,0 +1,62 @@
+package chess.logic.movementlogic;
+
+import java.util.Map;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author sami
+ */
+public class PerftTest {
+
+    private Perft perftOf(String fen) {
+        return new Perft(Perft.situationFromFen(fen));
+    }
+
+    @Test
+    public void perftOfPosition4IsCorrect() {
+        Perft perft = perftOf(Perft.POSITION_4);
+        assertEquals(6, perft.perft(1));
+        assertEquals(264, perft.perft(2));
+    }
+
+    @Test
+    public void perftOfPosition5IsCorrect() {
+        Perft perft = perftOf(Perft.POSITION_5);
+        assertEquals(44, perft.perft(1));
+        assertEquals(1486, perft.perft(2));
+    }
+
+    @Test
+    public void perftOfBlackToMoveWithEnPassantIsCorrect() {
+        Perft perft = perftOf("4k3/8/8/8/3pP3/8/8/4K3 b - e3 0 1");
+        assertEquals(7, perft.perft(1));
+    }
+
+    @Test
+    public void divideSumsToPerft() {
+        Perft perft = perftOf(Perft.KIWIPETE);
+        Map<String, Long> divide = perft.divide(2);
+        assertEquals(48, divide.size());
+        long sum = 0;
+        for (long count : divide.values()) {
+            sum += count;
+        }
+        assertEquals(perft.perft(2), sum);
+    }
+
+    @Test
+    public void perftLeavesSituationUnchanged() {
+        Perft perft = perftOf(Perft.KIWIPETE);
+        Map<String, Long> before = perft.divide(1);
+        perft.perft(3);
+        assertEquals(before, perft.divide(1));
+    }
+
+    @Test
+    public void movementLogicPerftEqualsPerft() {
+        Perft perft = perftOf(Perft.POSITION_3);
+        assertEquals(perft.perft(3), perft.movementLogicPerft(3));
+    }
+}